@@ -0,0 +1,28 @@
+package com.zmiki.datacenterapp.bulk;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Arrays;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkCreateResult {
+    private int created;
+    private int failed;
+    private List<BulkItemResult> items;
+
+    public static BulkCreateResult of(BulkItemResult[] items) {
+        int created = (int) Arrays.stream(items).filter(item -> item.getStatus() == BulkItemStatus.CREATED).count();
+        return BulkCreateResult.builder()
+                .created(created)
+                .failed(items.length - created)
+                .items(Arrays.asList(items))
+                .build();
+    }
+}
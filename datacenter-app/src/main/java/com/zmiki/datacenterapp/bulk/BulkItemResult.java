@@ -0,0 +1,30 @@
+package com.zmiki.datacenterapp.bulk;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Outcome of one item of a bulk create request; {@code index} is its position in the request.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BulkItemResult {
+    private int index;
+    private String serialNumber;
+    private BulkItemStatus status;
+    private String message;
+
+    public static BulkItemResult created(int index, String serialNumber) {
+        return new BulkItemResult(index, serialNumber, BulkItemStatus.CREATED, null);
+    }
+
+    public static BulkItemResult failed(int index, String serialNumber, String message) {
+        return new BulkItemResult(index, serialNumber, BulkItemStatus.FAILED, message);
+    }
+}
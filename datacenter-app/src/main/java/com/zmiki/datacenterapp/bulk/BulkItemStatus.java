@@ -0,0 +1,6 @@
+package com.zmiki.datacenterapp.bulk;
+
+public enum BulkItemStatus {
+    CREATED,
+    FAILED
+}
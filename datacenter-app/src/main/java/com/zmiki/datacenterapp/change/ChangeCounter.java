@@ -0,0 +1,34 @@
+package com.zmiki.datacenterapp.change;
+
+import com.zmiki.datacenterapp.inventory.InventoryItemType;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Number of committed write transactions that changed a table, one row per {@link InventoryItemType}. Rows are
+ * created by the first change, so a missing row reads as zero.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "change_counter")
+public class ChangeCounter {
+
+    @Id
+    @Enumerated(EnumType.STRING)
+    @Column(name = "item_type", length = 20)
+    private InventoryItemType itemType;
+
+    @Column(name = "value", nullable = false)
+    private long value;
+}
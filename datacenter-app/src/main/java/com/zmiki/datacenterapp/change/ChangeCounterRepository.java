@@ -0,0 +1,40 @@
+package com.zmiki.datacenterapp.change;
+
+import com.zmiki.datacenterapp.inventory.InventoryItemType;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+@Repository
+@RequiredArgsConstructor
+public class ChangeCounterRepository {
+
+    private static final String INCREMENT_SQL =
+            "INSERT INTO change_counter (item_type, value) VALUES (?, 1) " +
+            "ON CONFLICT (item_type) DO UPDATE SET value = change_counter.value + 1";
+
+    private static final String FIND_ALL_SQL = "SELECT item_type, value FROM change_counter";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public void increment(InventoryItemType itemType) {
+        jdbcTemplate.update(INCREMENT_SQL, itemType.name());
+    }
+
+    /**
+     * Returns the counter of every item type, with zero for item types that never changed.
+     */
+    public Map<InventoryItemType, Long> findAll() {
+        Map<InventoryItemType, Long> counters = new EnumMap<>(InventoryItemType.class);
+        for (InventoryItemType itemType : InventoryItemType.values()) {
+            counters.put(itemType, 0L);
+        }
+        jdbcTemplate.query(FIND_ALL_SQL, rs -> {
+            counters.put(InventoryItemType.valueOf(rs.getString(1)), rs.getLong(2));
+        });
+        return counters;
+    }
+}
@@ -0,0 +1,49 @@
+package com.zmiki.datacenterapp.change;
+
+import com.zmiki.datacenterapp.exception.InvalidPageRequestException;
+
+/**
+ * Position in the change feed, which is ordered by the id of the writing transaction and then by sequence. Clients
+ * only see it as an opaque token.
+ */
+public record ChangeFeedPosition(long transactionId, long sequence) {
+
+    public static final ChangeFeedPosition START = new ChangeFeedPosition(0, 0);
+
+    public static ChangeFeedPosition of(ChangeLogEntry entry) {
+        return new ChangeFeedPosition(entry.getTransactionId(), entry.getSequence());
+    }
+
+    /**
+     * Position right before the first entry written by {@code transactionId}.
+     */
+    public static ChangeFeedPosition before(long transactionId) {
+        return new ChangeFeedPosition(transactionId, 0);
+    }
+
+    /**
+     * Reads a token produced by {@link #toToken()}; no token starts at the beginning of the feed.
+     */
+    public static ChangeFeedPosition parse(String token) {
+        if (token == null || token.isEmpty()) {
+            return START;
+        }
+        int separator = token.indexOf('-');
+        if (separator > 0) {
+            try {
+                long transactionId = Long.parseLong(token.substring(0, separator));
+                long sequence = Long.parseLong(token.substring(separator + 1));
+                if (transactionId >= 0 && sequence >= 0) {
+                    return new ChangeFeedPosition(transactionId, sequence);
+                }
+            } catch (NumberFormatException e) {
+                // reported below
+            }
+        }
+        throw new InvalidPageRequestException("Invalid change token: " + token);
+    }
+
+    public String toToken() {
+        return transactionId + "-" + sequence;
+    }
+}
@@ -0,0 +1,102 @@
+package com.zmiki.datacenterapp.change;
+
+import com.zmiki.datacenterapp.change.dto.ChangeDto;
+import com.zmiki.datacenterapp.change.dto.ChangeFeedDto;
+import com.zmiki.datacenterapp.device.DeviceService;
+import com.zmiki.datacenterapp.device.dto.DeviceDto;
+import com.zmiki.datacenterapp.inventory.InventoryItemType;
+import com.zmiki.datacenterapp.pagination.SerialNumberCursor;
+import com.zmiki.datacenterapp.rack.RackService;
+import com.zmiki.datacenterapp.rack.dto.RackDto;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+@Service
+@RequiredArgsConstructor
+public class ChangeFeedService {
+
+    private final ChangeLogRepository changeLogRepository;
+    private final DeviceService deviceService;
+    private final RackService rackService;
+
+    /**
+     * Returns the items changed after the {@code since} token, reading up to {@code limit} change log entries.
+     * Entries of the same item are collapsed into its latest change, and upserts carry the item's state as of this
+     * call, loaded with one query per item type. An item that no longer exists is reported as deleted even if its
+     * delete lies beyond this page; its delete entry is then reported again, which clients apply idempotently.
+     * <p>
+     * A client bootstraps either by reading the feed from the start, which begins with an upsert of every item that
+     * existed when the log was first filled, or by taking a full rack or device listing and continuing from the
+     * token in its {@value ETags#CHANGE_TOKEN_HEADER} header.
+     */
+    @Transactional(readOnly = true)
+    public ChangeFeedDto getChanges(String since, int limit) {
+        ChangeFeedPosition after = ChangeFeedPosition.parse(since);
+        int pageSize = SerialNumberCursor.checkLimit(limit);
+
+        List<ChangeLogEntry> entries = changeLogRepository.findAfter(after, pageSize + 1);
+        boolean hasMore = entries.size() > pageSize;
+        List<ChangeLogEntry> page = hasMore ? entries.subList(0, pageSize) : entries;
+
+        Map<ItemKey, ChangeLogEntry> latestByItem = new LinkedHashMap<>();
+        for (ChangeLogEntry entry : page) {
+            ItemKey key = new ItemKey(entry.getItemType(), entry.getSerialNumber());
+            latestByItem.remove(key);
+            latestByItem.put(key, entry);
+        }
+
+        Map<String, DeviceDto> devices = new HashMap<>();
+        deviceService.findDevices(upsertedSerialNumbers(latestByItem, InventoryItemType.DEVICE))
+                .forEach(device -> devices.put(device.getSerialNumber(), device));
+        Map<String, RackDto> racks = new HashMap<>();
+        rackService.findRacks(upsertedSerialNumbers(latestByItem, InventoryItemType.RACK))
+                .forEach(rack -> racks.put(rack.getSerialNumber(), rack));
+
+        List<ChangeDto> changes = latestByItem.values().stream()
+                .map(entry -> toDto(entry, devices, racks))
+                .toList();
+
+        return ChangeFeedDto.builder()
+                .changes(changes)
+                .nextToken((page.isEmpty() ? after : ChangeFeedPosition.of(page.get(page.size() - 1))).toToken())
+                .hasMore(hasMore)
+                .build();
+    }
+
+    private static List<String> upsertedSerialNumbers(Map<ItemKey, ChangeLogEntry> latestByItem, InventoryItemType itemType) {
+        return latestByItem.values().stream()
+                .filter(entry -> entry.getItemType() == itemType && entry.getOperation() == ChangeOperation.UPSERT)
+                .map(ChangeLogEntry::getSerialNumber)
+                .toList();
+    }
+
+    private static ChangeDto toDto(ChangeLogEntry entry, Map<String, DeviceDto> devices, Map<String, RackDto> racks) {
+        ChangeDto change = ChangeDto.builder()
+                .sequence(entry.getSequence())
+                .itemType(entry.getItemType())
+                .serialNumber(entry.getSerialNumber())
+                .operation(ChangeOperation.DELETE)
+                .changedAt(entry.getChangedAt())
+                .build();
+        if (entry.getOperation() == ChangeOperation.UPSERT) {
+            if (entry.getItemType() == InventoryItemType.DEVICE) {
+                change.setDevice(devices.get(entry.getSerialNumber()));
+            } else {
+                change.setRack(racks.get(entry.getSerialNumber()));
+            }
+            if (change.getDevice() != null || change.getRack() != null) {
+                change.setOperation(ChangeOperation.UPSERT);
+            }
+        }
+        return change;
+    }
+
+    private record ItemKey(InventoryItemType itemType, String serialNumber) {
+    }
+}
@@ -0,0 +1,29 @@
+package com.zmiki.datacenterapp.change;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Fills an empty change log with the racks and devices that already exist once the application has started, after
+ * the seed data has been loaded. Later starts find the log filled and leave it alone.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ChangeLogBaseline {
+
+    private final ChangeLogRepository changeLogRepository;
+
+    @Transactional
+    @EventListener(ApplicationReadyEvent.class)
+    public void appendBaseline() {
+        int appended = changeLogRepository.appendBaselineIfEmpty();
+        if (appended > 0) {
+            log.info("Recorded {} existing racks and devices in the empty change log", appended);
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.zmiki.datacenterapp.change;
+
+import com.zmiki.datacenterapp.inventory.InventoryItemType;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.Instant;
+
+/**
+ * One created, updated or deleted rack or device. Entries carry the id of the transaction that wrote them and are
+ * numbered by {@code change_log_seq} within it; the feed reads them in that order, see
+ * {@link ChangeLogRepository#findAfter}.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "change_log", indexes = @Index(name = "idx_change_log_position", columnList = "txid, seq"))
+public class ChangeLogEntry {
+
+    @Id
+    @SequenceGenerator(name = "change_log_seq", sequenceName = "change_log_seq", allocationSize = 1)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "change_log_seq")
+    @Column(name = "seq")
+    private Long sequence;
+
+    @Column(name = "txid", nullable = false)
+    private Long transactionId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "item_type", nullable = false, length = 20)
+    private InventoryItemType itemType;
+
+    @Column(name = "serial_number", nullable = false)
+    private String serialNumber;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private ChangeOperation operation;
+
+    @Column(name = "changed_at", nullable = false)
+    private Instant changedAt;
+
+    public static ChangeLogEntry of(InventoryItemType itemType, String serialNumber, ChangeOperation operation) {
+        return new ChangeLogEntry(null, null, itemType, serialNumber, operation, null);
+    }
+}
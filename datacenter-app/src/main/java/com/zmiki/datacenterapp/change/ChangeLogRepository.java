@@ -0,0 +1,109 @@
+package com.zmiki.datacenterapp.change;
+
+import com.zmiki.datacenterapp.inventory.InventoryItemType;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+@RequiredArgsConstructor
+public class ChangeLogRepository {
+
+    static final int INSERTS_PER_BATCH = 1000;
+
+    /**
+     * Arbitrary application-wide key of the advisory lock that keeps instances starting together from both
+     * appending the baseline.
+     */
+    static final long BASELINE_LOCK_KEY = 0x6368616e67656c6fL;
+
+    private static final String BASELINE_LOCK_SQL = "SELECT pg_advisory_xact_lock(?)";
+
+    private static final String CURRENT_TRANSACTION_ID = "pg_current_xact_id()::text::bigint";
+
+    private static final String OLDEST_RUNNING_TRANSACTION_ID = "pg_snapshot_xmin(pg_current_snapshot())::text::bigint";
+
+    private static final String INSERT_SQL =
+            "INSERT INTO change_log (seq, txid, item_type, serial_number, operation, changed_at) " +
+            "VALUES (nextval('change_log_seq'), " + CURRENT_TRANSACTION_ID + ", ?, ?, ?, now())";
+
+    private static final String IS_EMPTY_SQL = "SELECT NOT EXISTS (SELECT 1 FROM change_log)";
+
+    private static final String RACK_BASELINE_SQL =
+            "INSERT INTO change_log (seq, txid, item_type, serial_number, operation, changed_at) " +
+            "SELECT nextval('change_log_seq'), " + CURRENT_TRANSACTION_ID + ", 'RACK', serial_number, 'UPSERT', now() " +
+            "FROM rack ORDER BY serial_number";
+
+    private static final String DEVICE_BASELINE_SQL =
+            "INSERT INTO change_log (seq, txid, item_type, serial_number, operation, changed_at) " +
+            "SELECT nextval('change_log_seq'), " + CURRENT_TRANSACTION_ID + ", 'DEVICE', serial_number, 'UPSERT', now() " +
+            "FROM device ORDER BY serial_number";
+
+    private static final String OLDEST_RUNNING_TRANSACTION_SQL = "SELECT " + OLDEST_RUNNING_TRANSACTION_ID;
+
+    private static final String FIND_AFTER_SQL =
+            "SELECT seq, txid, item_type, serial_number, operation, changed_at FROM change_log " +
+            "WHERE (txid, seq) > (?, ?) AND txid < " + OLDEST_RUNNING_TRANSACTION_ID + " " +
+            "ORDER BY txid, seq LIMIT ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Appends the entries as part of the current transaction, tagged with its id. Sequence numbers come straight
+     * from {@code change_log_seq} and no lock is taken, so concurrent writers never wait on each other here.
+     */
+    public void appendAll(List<ChangeLogEntry> entries) {
+        if (entries.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(INSERT_SQL, entries, INSERTS_PER_BATCH, (ps, entry) -> {
+            ps.setString(1, entry.getItemType().name());
+            ps.setString(2, entry.getSerialNumber());
+            ps.setString(3, entry.getOperation().name());
+        });
+    }
+
+    /**
+     * Appends an upsert for every existing rack and device, as part of the current transaction, when the log has no
+     * entries yet. Items written before the log existed, such as seeded ones, then reach clients syncing from the
+     * start like any other change.
+     *
+     * @return the number of entries appended
+     */
+    public int appendBaselineIfEmpty() {
+        jdbcTemplate.query(BASELINE_LOCK_SQL, ps -> ps.setLong(1, BASELINE_LOCK_KEY), rs -> {
+        });
+        if (!Boolean.TRUE.equals(jdbcTemplate.queryForObject(IS_EMPTY_SQL, Boolean.class))) {
+            return 0;
+        }
+        return jdbcTemplate.update(RACK_BASELINE_SQL) + jdbcTemplate.update(DEVICE_BASELINE_SQL);
+    }
+
+    /**
+     * Position that every entry the current snapshot can see lies before, apart from entries of transactions that
+     * were still running when it was taken, which a feed read from here replays.
+     */
+    public ChangeFeedPosition findCurrentPosition() {
+        Long oldestRunning = jdbcTemplate.queryForObject(OLDEST_RUNNING_TRANSACTION_SQL, Long.class);
+        return ChangeFeedPosition.before(oldestRunning == null ? 0 : oldestRunning);
+    }
+
+    /**
+     * Returns up to {@code limit} entries after {@code position}, ordered by transaction id and sequence. Only
+     * entries of transactions older than the oldest one still running are returned: an entry that commits later
+     * always has a higher transaction id than every entry returned now, so a client resuming from the last entry it
+     * got never skips one, however long the writing transaction took. A long running writer holds the feed back
+     * until it ends.
+     */
+    public List<ChangeLogEntry> findAfter(ChangeFeedPosition position, int limit) {
+        return jdbcTemplate.query(FIND_AFTER_SQL, (rs, rowNum) -> new ChangeLogEntry(
+                rs.getLong(1),
+                rs.getLong(2),
+                InventoryItemType.valueOf(rs.getString(3)),
+                rs.getString(4),
+                ChangeOperation.valueOf(rs.getString(5)),
+                rs.getTimestamp(6).toInstant()), position.transactionId(), position.sequence(), limit);
+    }
+}
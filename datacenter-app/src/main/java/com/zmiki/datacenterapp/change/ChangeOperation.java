@@ -0,0 +1,6 @@
+package com.zmiki.datacenterapp.change;
+
+public enum ChangeOperation {
+    UPSERT,
+    DELETE
+}
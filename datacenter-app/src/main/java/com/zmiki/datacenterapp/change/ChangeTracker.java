@@ -0,0 +1,126 @@
+package com.zmiki.datacenterapp.change;
+
+import com.zmiki.datacenterapp.inventory.InventoryItemType;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Records every change to racks and devices in the change log that the delta sync feed reads, and keeps the
+ * per-table change counters that the ETags of rack and device listings are derived from, so a conditional listing
+ * request that matches costs one counter query.
+ * <p>
+ * Log entries are collected per transaction and, just before it commits, appended and counted in the counters of
+ * their item types. Both commit or roll back together with the change, so a committed change always moves the
+ * ETags and a failed counter update fails the write instead of surfacing after it committed. Appending takes no
+ * lock, and the counters are bumped last, so their row locks are only held for the commit itself. A reader that
+ * takes the ETag before the body can at worst pair an old tag with a newer body, which only costs one extra
+ * download.
+ */
+@Component
+public class ChangeTracker {
+
+    private final ChangeCounterRepository changeCounterRepository;
+    private final ChangeLogRepository changeLogRepository;
+    private final TransactionTemplate standaloneTransaction;
+
+    public ChangeTracker(ChangeCounterRepository changeCounterRepository, ChangeLogRepository changeLogRepository,
+                         PlatformTransactionManager transactionManager) {
+        this.changeCounterRepository = changeCounterRepository;
+        this.changeLogRepository = changeLogRepository;
+        this.standaloneTransaction = new TransactionTemplate(transactionManager);
+        this.standaloneTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    public void recordChange(InventoryItemType itemType, ChangeOperation operation, String serialNumber) {
+        recordChanges(itemType, operation, List.of(serialNumber));
+    }
+
+    /**
+     * Records that the current transaction created, updated or deleted the listed items, or that such a change
+     * outside any transaction has just been written.
+     */
+    public void recordChanges(InventoryItemType itemType, ChangeOperation operation, Collection<String> serialNumbers) {
+        if (serialNumbers.isEmpty()) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            currentPendingChanges().add(itemType, operation, serialNumbers);
+            return;
+        }
+        PendingChanges pending = new PendingChanges();
+        pending.add(itemType, operation, serialNumbers);
+        standaloneTransaction.executeWithoutResult(status -> pending.write());
+    }
+
+    /**
+     * Tag of rack representations, which embed their devices and therefore change with either table.
+     */
+    @Transactional(readOnly = true)
+    public String rackETag() {
+        Map<InventoryItemType, Long> counters = changeCounterRepository.findAll();
+        return "\"" + counters.get(InventoryItemType.RACK) + "-" + counters.get(InventoryItemType.DEVICE) + "\"";
+    }
+
+    @Transactional(readOnly = true)
+    public String deviceETag() {
+        return "\"" + changeCounterRepository.findAll().get(InventoryItemType.DEVICE) + "\"";
+    }
+
+    /**
+     * Change feed token to hand out with full listings read after this call.
+     */
+    @Transactional(readOnly = true)
+    public String changeToken() {
+        return changeLogRepository.findCurrentPosition().toToken();
+    }
+
+    private PendingChanges currentPendingChanges() {
+        PendingChanges pending = (PendingChanges) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            pending = new PendingChanges();
+            TransactionSynchronizationManager.bindResource(this, pending);
+            TransactionSynchronizationManager.registerSynchronization(pending);
+        }
+        return pending;
+    }
+
+    private final class PendingChanges implements TransactionSynchronization {
+
+        private final List<ChangeLogEntry> entries = new ArrayList<>();
+        private final Set<InventoryItemType> itemTypes = EnumSet.noneOf(InventoryItemType.class);
+
+        void add(InventoryItemType itemType, ChangeOperation operation, Collection<String> serialNumbers) {
+            itemTypes.add(itemType);
+            for (String serialNumber : serialNumbers) {
+                entries.add(ChangeLogEntry.of(itemType, serialNumber, operation));
+            }
+        }
+
+        void write() {
+            changeLogRepository.appendAll(entries);
+            itemTypes.forEach(changeCounterRepository::increment);
+        }
+
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            write();
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(ChangeTracker.this);
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package com.zmiki.datacenterapp.change;
+
+import com.zmiki.datacenterapp.config.BinaryFormatsConfig;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.context.request.WebRequest;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.function.Supplier;
+
+public final class ETags {
+
+    /**
+     * Response header carrying the change feed token a listing is current as of.
+     */
+    public static final String CHANGE_TOKEN_HEADER = "X-Change-Token";
+
+    private static final int CONTENT_TAG_BYTES = 16;
+
+    private ETags() {
+    }
+
+    /**
+     * Answers 304 when the request's {@code If-None-Match} matches {@code eTag}, without calling {@code body};
+     * otherwise returns the body tagged with {@code eTag}. The tag is made specific to the negotiated format, and
+     * both answers carry {@code Vary: Accept}, so caches keep the JSON, CBOR and Smile representations apart.
+     */
+    public static <T> ResponseEntity<T> conditionalGet(WebRequest request, String eTag, Supplier<T> body) {
+        String representationTag = forRepresentation(request, eTag);
+        if (request.checkNotModified(representationTag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(representationTag).varyBy(HttpHeaders.ACCEPT).build();
+        }
+        return ResponseEntity.ok().eTag(representationTag).varyBy(HttpHeaders.ACCEPT).body(body.get());
+    }
+
+    /**
+     * Same as {@link #conditionalGet(WebRequest, String, Supplier)}, and both answers also carry
+     * {@code changeToken} in {@value #CHANGE_TOKEN_HEADER}. The token has to be taken before the tag and the body,
+     * so polling the change feed from it replays at worst changes the listing already contains.
+     */
+    public static <T> ResponseEntity<T> conditionalGet(WebRequest request, String changeToken, String eTag,
+                                                       Supplier<T> body) {
+        ResponseEntity<T> response = conditionalGet(request, eTag, body);
+        return ResponseEntity.status(response.getStatusCode())
+                .headers(response.getHeaders())
+                .header(CHANGE_TOKEN_HEADER, changeToken)
+                .body(response.getBody());
+    }
+
+    /**
+     * Appends the binary format the response will be written in to {@code eTag}, taken from the highest ranked
+     * {@code Accept} entry that CBOR, Smile or JSON satisfies, in the same way the message converters pick it.
+     * JSON keeps the plain tag.
+     */
+    static String forRepresentation(WebRequest request, String eTag) {
+        String accept = request.getHeader(HttpHeaders.ACCEPT);
+        if (accept == null) {
+            return eTag;
+        }
+        List<MediaType> acceptedTypes;
+        try {
+            acceptedTypes = new ArrayList<>(MediaType.parseMediaTypes(accept));
+        } catch (InvalidMediaTypeException e) {
+            return eTag;
+        }
+        acceptedTypes.sort(Comparator.comparingDouble(MediaType::getQualityValue).reversed());
+        for (MediaType acceptedType : acceptedTypes) {
+            if (acceptedType.getQualityValue() == 0) {
+                continue;
+            }
+            if (acceptedType.isCompatibleWith(MediaType.APPLICATION_JSON)) {
+                return eTag;
+            }
+            if (acceptedType.equalsTypeAndSubtype(MediaType.APPLICATION_CBOR)) {
+                return withSuffix(eTag, "cbor");
+            }
+            if (acceptedType.equalsTypeAndSubtype(BinaryFormatsConfig.APPLICATION_SMILE)) {
+                return withSuffix(eTag, "smile");
+            }
+        }
+        return eTag;
+    }
+
+    private static String withSuffix(String eTag, String suffix) {
+        return eTag.substring(0, eTag.length() - 1) + ";" + suffix + "\"";
+    }
+
+    /**
+     * Strong tag derived from a DTO's {@code toString()}, which lists every field, including nested DTOs. Used
+     * for single items served from the serial number caches, whose entries can be older than the change counters.
+     */
+    public static String contentTag(Object dto) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(dto.toString().getBytes(StandardCharsets.UTF_8));
+            return "\"" + HexFormat.of().formatHex(digest, 0, CONTENT_TAG_BYTES) + "\"";
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.zmiki.datacenterapp.change.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.zmiki.datacenterapp.change.ChangeOperation;
+import com.zmiki.datacenterapp.device.dto.DeviceDto;
+import com.zmiki.datacenterapp.inventory.InventoryItemType;
+import com.zmiki.datacenterapp.rack.dto.RackDto;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * Latest change of one item. Upserts carry the item's current state in {@code device} or {@code rack}; deletes
+ * only carry the serial number.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ChangeDto {
+    private long sequence;
+    private InventoryItemType itemType;
+    private String serialNumber;
+    private ChangeOperation operation;
+    private Instant changedAt;
+    private DeviceDto device;
+    private RackDto rack;
+}
@@ -0,0 +1,22 @@
+package com.zmiki.datacenterapp.change.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * One page of the change feed. {@code nextToken} is always set and is passed back as {@code since}, either right
+ * away when {@code hasMore} is true or on the next sync.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ChangeFeedDto {
+    private List<ChangeDto> changes;
+    private String nextToken;
+    private boolean hasMore;
+}
@@ -0,0 +1,20 @@
+package com.zmiki.datacenterapp.config;
+
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+/**
+ * Serial number caches for single device and rack reads; size, expiry and statistics are set by
+ * {@code spring.cache.caffeine.spec}, and hit/miss counts are published as {@code cache.gets} metrics.
+ * <p>
+ * The cache advice runs outside the transaction advice, so evictions happen only after a write has committed and a
+ * concurrent read cannot put the old row back in between.
+ */
+@Configuration
+@EnableCaching(order = Ordered.HIGHEST_PRECEDENCE)
+public class CacheConfig {
+
+    public static final String DEVICES = "devices";
+    public static final String RACKS = "racks";
+}
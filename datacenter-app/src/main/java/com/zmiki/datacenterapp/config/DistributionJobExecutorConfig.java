@@ -0,0 +1,23 @@
+package com.zmiki.datacenterapp.config;
+
+import com.zmiki.datacenterapp.distribution.DistributionProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+@Configuration
+public class DistributionJobExecutorConfig {
+
+    @Bean(destroyMethod = "shutdownNow")
+    public ThreadPoolExecutor distributionJobExecutor(DistributionProperties distributionProperties) {
+        DistributionProperties.Jobs jobs = distributionProperties.getJobs();
+        return new ThreadPoolExecutor(jobs.getThreads(), jobs.getThreads(), 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(jobs.getQueueCapacity()),
+                new CustomizableThreadFactory("distribution-job-"),
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+}
@@ -0,0 +1,16 @@
+package com.zmiki.datacenterapp.config;
+
+import com.zmiki.datacenterapp.distribution.DistributionProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.ForkJoinPool;
+
+@Configuration
+public class DistributionPoolConfig {
+
+    @Bean(destroyMethod = "shutdown")
+    public ForkJoinPool distributionPool(DistributionProperties distributionProperties) {
+        return new ForkJoinPool(distributionProperties.getPortfolio().getPoolSize());
+    }
+}
@@ -0,0 +1,36 @@
+package com.zmiki.datacenterapp.datasource;
+
+import java.util.function.Supplier;
+
+/**
+ * Keeps the read-only queries of a block on the primary. Meant for loads whose result outlives the request, such as
+ * cache entries: a replica that still lags behind a write would otherwise leave a stale item cached for the whole
+ * time to live.
+ */
+public final class PrimaryReads {
+
+    private static final ThreadLocal<Boolean> REQUIRED = new ThreadLocal<>();
+
+    private PrimaryReads() {
+    }
+
+    /**
+     * Runs {@code read} with its connections taken from the primary. The route is picked when a connection is first
+     * used, so this also covers a read-only transaction that is already open but has not queried yet.
+     */
+    public static <T> T read(Supplier<T> read) {
+        if (isRequired()) {
+            return read.get();
+        }
+        REQUIRED.set(Boolean.TRUE);
+        try {
+            return read.get();
+        } finally {
+            REQUIRED.remove();
+        }
+    }
+
+    static boolean isRequired() {
+        return REQUIRED.get() != null;
+    }
+}
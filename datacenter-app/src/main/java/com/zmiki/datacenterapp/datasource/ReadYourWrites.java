@@ -0,0 +1,26 @@
+package com.zmiki.datacenterapp.datasource;
+
+/**
+ * Remembers whether the current thread has opened a read-write transaction, so its later read-only transactions
+ * stay on the primary and see that write even while the replica lags behind. {@link ReadYourWritesFilter} resets
+ * it at the end of each request; threads outside requests keep reading from the primary once they have written.
+ */
+public final class ReadYourWrites {
+
+    private static final ThreadLocal<Boolean> WRITTEN = new ThreadLocal<>();
+
+    private ReadYourWrites() {
+    }
+
+    static void markWritten() {
+        WRITTEN.set(Boolean.TRUE);
+    }
+
+    public static boolean hasWritten() {
+        return WRITTEN.get() != null;
+    }
+
+    public static void clear() {
+        WRITTEN.remove();
+    }
+}
@@ -0,0 +1,27 @@
+package com.zmiki.datacenterapp.datasource;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Connection settings of the read replica. The driver is taken from {@code spring.datasource}.
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "datacenter.datasource.replica")
+public class ReplicaDataSourceProperties {
+
+    /**
+     * Sends read-only transactions to the replica; when off, all traffic goes to {@code spring.datasource}.
+     */
+    private boolean enabled;
+
+    private String url;
+
+    private String username;
+
+    private String password;
+
+    private int maximumPoolSize = 10;
+}
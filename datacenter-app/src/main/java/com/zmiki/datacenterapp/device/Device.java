@@ -15,7 +15,7 @@ import java.util.UUID;
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
-@Table(name = "device")
+@Table(name = "device", indexes = @Index(name = "idx_device_rack_id", columnList = "rack_id"))
 public class Device {
 
     @Id
@@ -1,12 +1,17 @@
 package com.zmiki.datacenterapp.device;
 
+import com.zmiki.datacenterapp.bulk.BulkCreateResult;
+import com.zmiki.datacenterapp.change.ChangeTracker;
+import com.zmiki.datacenterapp.change.ETags;
 import com.zmiki.datacenterapp.device.dto.DeviceCreateDto;
 import com.zmiki.datacenterapp.device.dto.DeviceDto;
+import com.zmiki.datacenterapp.pagination.KeysetPage;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 
@@ -16,6 +21,7 @@ import java.util.List;
 public class DeviceController {
 
     private final DeviceService deviceService;
+    private final ChangeTracker changeTracker;
 
     @PostMapping
     public ResponseEntity<DeviceDto> createDevice(@Valid @RequestBody DeviceCreateDto deviceCreateDto) {
@@ -23,6 +29,11 @@ public class DeviceController {
         return ResponseEntity.status(HttpStatus.CREATED).body(createdDevice);
     }
 
+    @PostMapping("/bulk")
+    public ResponseEntity<BulkCreateResult> createDevices(@RequestBody List<DeviceCreateDto> deviceCreateDtos) {
+        return ResponseEntity.ok(deviceService.createDevices(deviceCreateDtos));
+    }
+
     @PutMapping("/{serialNumber}")
     public ResponseEntity<DeviceDto> updateDevice(@PathVariable String serialNumber, @Valid @RequestBody DeviceDto deviceDto) {
         DeviceDto updatedDevice = deviceService.updateDevice(serialNumber, deviceDto);
@@ -36,14 +47,31 @@ public class DeviceController {
     }
 
     @GetMapping("/{serialNumber}")
-    public ResponseEntity<DeviceDto> getDevice(@PathVariable String serialNumber) {
+    public ResponseEntity<DeviceDto> getDevice(@PathVariable String serialNumber, WebRequest request) {
         DeviceDto device = deviceService.getDevice(serialNumber);
-        return ResponseEntity.ok(device);
+        return ETags.conditionalGet(request, ETags.contentTag(device), () -> device);
     }
 
     @GetMapping
-    public ResponseEntity<List<DeviceDto>> getAllDevices() {
-        List<DeviceDto> devices = deviceService.getAllDevices();
-        return ResponseEntity.ok(devices);
+    public ResponseEntity<List<DeviceDto>> getAllDevices(WebRequest request) {
+        return ETags.conditionalGet(request, changeTracker.changeToken(), changeTracker.deviceETag(),
+                deviceService::getAllDevices);
+    }
+
+    @GetMapping(params = "limit")
+    public ResponseEntity<KeysetPage<DeviceDto>> getDevicesPage(
+            @RequestParam int limit,
+            @RequestParam(required = false) String after,
+            @RequestParam(required = false) Boolean unassigned,
+            @RequestParam(required = false) Integer minPower,
+            @RequestParam(required = false) Integer maxPower,
+            WebRequest request) {
+        DeviceFilter filter = DeviceFilter.builder()
+                .unassigned(unassigned)
+                .minPower(minPower)
+                .maxPower(maxPower)
+                .build();
+        return ETags.conditionalGet(request, changeTracker.changeToken(), changeTracker.deviceETag(),
+                () -> deviceService.getDevicesPage(filter, after, limit));
     }
 }
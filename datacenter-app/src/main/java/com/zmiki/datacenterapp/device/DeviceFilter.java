@@ -0,0 +1,19 @@
+package com.zmiki.datacenterapp.device;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Optional criteria for device listings; {@code null} fields are not applied.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class DeviceFilter {
+    private Boolean unassigned;
+    private Integer minPower;
+    private Integer maxPower;
+}
@@ -0,0 +1,159 @@
+package com.zmiki.datacenterapp.device;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Set-based device writes that would cost one statement per entity through {@link DeviceRepository}.
+ */
+@Repository
+@RequiredArgsConstructor
+public class DeviceJdbcRepository {
+
+    static final int SERIAL_NUMBERS_PER_STATEMENT = 1000;
+    static final int STATEMENTS_PER_BATCH = 100;
+    static final int INSERTS_PER_BATCH = 1000;
+
+    private static final String ASSIGN_TO_RACK_SQL =
+            "UPDATE device SET rack_id = ? WHERE serial_number = ANY(?)";
+
+    private static final String LOCK_DEVICES_SQL =
+            "SELECT r.serial_number FROM device d LEFT JOIN rack r ON r.id = d.rack_id " +
+            "WHERE d.serial_number = ANY(?) ORDER BY d.id FOR UPDATE OF d";
+
+    private static final String ADD_USAGE_OF_DEVICES_SQL =
+            "UPDATE rack r SET used_power = r.used_power + ? * u.power, used_units = r.used_units + ? * u.units, " +
+            "version = r.version + 1 FROM (" +
+            "SELECT rack_id, SUM(power) AS power, SUM(units) AS units FROM device " +
+            "WHERE serial_number = ANY(?) AND rack_id IS NOT NULL GROUP BY rack_id) u WHERE r.id = u.rack_id";
+
+    private static final String ADD_RACK_USAGE_SQL =
+            "UPDATE rack SET used_power = used_power + ?, used_units = used_units + ?, version = version + 1 WHERE id = ?";
+
+    private static final String MISSING_SERIAL_NUMBERS_SQL =
+            "SELECT s.serial_number FROM unnest(?) AS s(serial_number) " +
+            "WHERE NOT EXISTS (SELECT 1 FROM device d WHERE d.serial_number = s.serial_number)";
+
+    private static final String EXISTING_SERIAL_NUMBERS_SQL =
+            "SELECT serial_number FROM device WHERE serial_number = ANY(?)";
+
+    private static final String INSERT_SQL =
+            "INSERT INTO device (id, name, description, serial_number, units, power) VALUES (?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Moves every listed device into its rack with one batched {@code UPDATE} per rack (split into chunks of
+     * {@value #SERIAL_NUMBERS_PER_STATEMENT} serial numbers) and returns the number of device rows updated.
+     * <p>
+     * The devices must already be locked with {@link #lockDevices}; their usage is taken off the racks they leave
+     * and, once assigned, added to the racks they join, so the rack usage counters stay exact when devices move
+     * between racks.
+     */
+    public int assignToRacks(Map<UUID, List<String>> serialNumbersByRackId) {
+        List<RackChunk> chunks = new ArrayList<>();
+        serialNumbersByRackId.forEach((rackId, serialNumbers) -> {
+            for (int from = 0; from < serialNumbers.size(); from += SERIAL_NUMBERS_PER_STATEMENT) {
+                int to = Math.min(from + SERIAL_NUMBERS_PER_STATEMENT, serialNumbers.size());
+                chunks.add(new RackChunk(rackId, serialNumbers.subList(from, to).toArray(String[]::new)));
+            }
+        });
+
+        addUsageOfDevices(chunks, -1);
+
+        int[][] updateCounts = jdbcTemplate.batchUpdate(ASSIGN_TO_RACK_SQL, chunks, STATEMENTS_PER_BATCH, (ps, chunk) -> {
+            ps.setObject(1, chunk.rackId());
+            ps.setArray(2, ps.getConnection().createArrayOf("varchar", chunk.serialNumbers()));
+        });
+
+        addUsageOfDevices(chunks, 1);
+
+        int updated = 0;
+        for (int[] batch : updateCounts) {
+            for (int count : batch) {
+                updated += Math.max(count, 0);
+            }
+        }
+        return updated;
+    }
+
+    /**
+     * Row-locks the listed devices until the transaction ends, in id order within each chunk of
+     * {@value #SERIAL_NUMBERS_PER_STATEMENT} serial numbers, and returns the serial numbers of the racks they are
+     * currently mounted in.
+     */
+    public Set<String> lockDevices(Collection<String> serialNumbers) {
+        List<String> serialNumberList = new ArrayList<>(serialNumbers);
+        Set<String> rackSerialNumbers = new HashSet<>();
+        for (int from = 0; from < serialNumberList.size(); from += SERIAL_NUMBERS_PER_STATEMENT) {
+            String[] chunk = serialNumberList.subList(from, Math.min(from + SERIAL_NUMBERS_PER_STATEMENT, serialNumberList.size()))
+                    .toArray(String[]::new);
+            jdbcTemplate.query(LOCK_DEVICES_SQL,
+                    ps -> ps.setArray(1, ps.getConnection().createArrayOf("varchar", chunk)),
+                    rs -> {
+                        String rackSerialNumber = rs.getString(1);
+                        if (rackSerialNumber != null) {
+                            rackSerialNumbers.add(rackSerialNumber);
+                        }
+                    });
+        }
+        return rackSerialNumbers;
+    }
+
+    /**
+     * Atomically adds the given, possibly negative, power and units to the usage counters of one rack.
+     */
+    public void addRackUsage(UUID rackId, int power, int units) {
+        jdbcTemplate.update(ADD_RACK_USAGE_SQL, power, units, rackId);
+    }
+
+    /**
+     * Adds {@code sign} times the usage of the chunks' devices to the racks they are currently mounted in, with
+     * one aggregated {@code UPDATE} per chunk.
+     */
+    private void addUsageOfDevices(List<RackChunk> chunks, int sign) {
+        jdbcTemplate.batchUpdate(ADD_USAGE_OF_DEVICES_SQL, chunks, STATEMENTS_PER_BATCH, (ps, chunk) -> {
+            ps.setInt(1, sign);
+            ps.setInt(2, sign);
+            ps.setArray(3, ps.getConnection().createArrayOf("varchar", chunk.serialNumbers()));
+        });
+    }
+
+    public List<String> findMissingSerialNumbers(Collection<String> serialNumbers) {
+        return jdbcTemplate.query(MISSING_SERIAL_NUMBERS_SQL,
+                ps -> ps.setArray(1, ps.getConnection().createArrayOf("varchar", serialNumbers.toArray())),
+                (rs, rowNum) -> rs.getString(1));
+    }
+
+    public List<String> findExistingSerialNumbers(Collection<String> serialNumbers) {
+        return jdbcTemplate.query(EXISTING_SERIAL_NUMBERS_SQL,
+                ps -> ps.setArray(1, ps.getConnection().createArrayOf("varchar", serialNumbers.toArray())),
+                (rs, rowNum) -> rs.getString(1));
+    }
+
+    /**
+     * Inserts the devices, which must already carry their ids, in JDBC batches of {@value #INSERTS_PER_BATCH} rows.
+     */
+    public void insertAll(List<Device> devices) {
+        jdbcTemplate.batchUpdate(INSERT_SQL, devices, INSERTS_PER_BATCH, (ps, device) -> {
+            ps.setObject(1, device.getId());
+            ps.setString(2, device.getName());
+            ps.setString(3, device.getDescription());
+            ps.setString(4, device.getSerialNumber());
+            ps.setInt(5, device.getUnits());
+            ps.setInt(6, device.getPower());
+        });
+    }
+
+    private record RackChunk(UUID rackId, String[] serialNumbers) {
+    }
+}
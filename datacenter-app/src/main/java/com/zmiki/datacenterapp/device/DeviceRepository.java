@@ -1,12 +1,38 @@
 package com.zmiki.datacenterapp.device;
 
+import com.zmiki.datacenterapp.device.dto.DeviceDto;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
-public interface DeviceRepository extends JpaRepository<Device, UUID> {
+public interface DeviceRepository extends JpaRepository<Device, UUID>, JpaSpecificationExecutor<Device> {
     Optional<Device> findBySerialNumber(String serialNumber);
 
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select d from Device d where d.serialNumber = :serialNumber")
+    Optional<Device> findForUpdateBySerialNumber(@Param("serialNumber") String serialNumber);
+
     boolean existsBySerialNumber(String serialNumber);
+
+    List<Device> findAllBySerialNumberIn(Collection<String> serialNumbers);
+
+    @Query("select new com.zmiki.datacenterapp.device.dto.DeviceDto(d.id, d.name, d.description, d.serialNumber, d.units, d.power) " +
+            "from Device d where d.serialNumber = :serialNumber")
+    Optional<DeviceDto> findDtoBySerialNumber(@Param("serialNumber") String serialNumber);
+
+    @Query("select new com.zmiki.datacenterapp.device.dto.DeviceDto(d.id, d.name, d.description, d.serialNumber, d.units, d.power) " +
+            "from Device d")
+    List<DeviceDto> findAllDtos();
+
+    @Query("select new com.zmiki.datacenterapp.device.dto.DeviceDto(d.id, d.name, d.description, d.serialNumber, d.units, d.power) " +
+            "from Device d where d.serialNumber in :serialNumbers")
+    List<DeviceDto> findAllDtosBySerialNumberIn(@Param("serialNumbers") Collection<String> serialNumbers);
 }
@@ -1,25 +1,53 @@
 package com.zmiki.datacenterapp.device;
 
 
+import com.zmiki.datacenterapp.bulk.BulkCreateResult;
+import com.zmiki.datacenterapp.bulk.BulkItemResult;
+import com.zmiki.datacenterapp.change.ChangeOperation;
+import com.zmiki.datacenterapp.change.ChangeTracker;
+import com.zmiki.datacenterapp.config.CacheConfig;
+import com.zmiki.datacenterapp.datasource.PrimaryReads;
 import com.zmiki.datacenterapp.device.dto.DeviceCreateDto;
 import com.zmiki.datacenterapp.device.dto.DeviceDto;
+import com.zmiki.datacenterapp.inventory.InventoryItemType;
+import com.zmiki.datacenterapp.pagination.KeysetPage;
+import com.zmiki.datacenterapp.pagination.SerialNumberCursor;
 import jakarta.persistence.EntityNotFoundException;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
 import lombok.RequiredArgsConstructor;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
 import java.util.stream.Collectors;
 
 @RequiredArgsConstructor
 @Service
 public class DeviceService {
 
+    static final int LOOKUP_CHUNK_SIZE = 1000;
+
     private final DeviceRepository deviceRepository;
     private final DeviceConverter deviceConverter;
+    private final DeviceJdbcRepository deviceJdbcRepository;
+    private final Validator validator;
+    private final ChangeTracker changeTracker;
 
     @Transactional
+    @CacheEvict(cacheNames = CacheConfig.DEVICES, key = "#deviceCreateDto.serialNumber")
     public DeviceDto createDevice(DeviceCreateDto deviceCreateDto) {
         if (deviceRepository.existsBySerialNumber(deviceCreateDto.getSerialNumber())) {
             throw new IllegalArgumentException("Device with serial number " + deviceCreateDto.getSerialNumber() + " already exists");
@@ -27,17 +55,77 @@ public class DeviceService {
         
         Device device = deviceConverter.fromCreateDto(deviceCreateDto);
         Device savedDevice = deviceRepository.save(device);
+        changeTracker.recordChange(InventoryItemType.DEVICE, ChangeOperation.UPSERT, deviceCreateDto.getSerialNumber());
         return deviceConverter.toDto(savedDevice);
     }
 
+    /**
+     * Creates every valid device of the request in one transaction and reports the outcome of each item. Invalid
+     * items, serial numbers repeated in the request and serial numbers that already exist are reported as failed;
+     * uniqueness is checked with a single query and the rest is inserted with JDBC batches.
+     */
     @Transactional
+    public BulkCreateResult createDevices(List<DeviceCreateDto> deviceCreateDtos) {
+        BulkItemResult[] results = new BulkItemResult[deviceCreateDtos.size()];
+        Map<String, Integer> indexBySerialNumber = new LinkedHashMap<>();
+
+        for (int i = 0; i < deviceCreateDtos.size(); i++) {
+            DeviceCreateDto dto = deviceCreateDtos.get(i);
+            Set<ConstraintViolation<DeviceCreateDto>> violations = validator.validate(dto);
+            if (!violations.isEmpty()) {
+                results[i] = BulkItemResult.failed(i, dto.getSerialNumber(), violations.stream()
+                        .map(ConstraintViolation::getMessage)
+                        .sorted()
+                        .collect(Collectors.joining(", ")));
+            } else if (indexBySerialNumber.putIfAbsent(dto.getSerialNumber(), i) != null) {
+                results[i] = BulkItemResult.failed(i, dto.getSerialNumber(), "Duplicate serial number in request");
+            }
+        }
+
+        if (!indexBySerialNumber.isEmpty()) {
+            for (String serialNumber : deviceJdbcRepository.findExistingSerialNumbers(indexBySerialNumber.keySet())) {
+                int i = indexBySerialNumber.remove(serialNumber);
+                results[i] = BulkItemResult.failed(i, serialNumber, "Device with serial number " + serialNumber + " already exists");
+            }
+        }
+
+        List<Device> devices = new ArrayList<>(indexBySerialNumber.size());
+        indexBySerialNumber.forEach((serialNumber, i) -> {
+            Device device = deviceConverter.fromCreateDto(deviceCreateDtos.get(i));
+            device.setId(UUID.randomUUID());
+            devices.add(device);
+            results[i] = BulkItemResult.created(i, serialNumber);
+        });
+        deviceJdbcRepository.insertAll(devices);
+        changeTracker.recordChanges(InventoryItemType.DEVICE, ChangeOperation.UPSERT,
+                devices.stream().map(Device::getSerialNumber).toList());
+
+        return BulkCreateResult.of(results);
+    }
+
+    /**
+     * Also drops every cached rack, since racks embed their devices, and records the device's rack as changed for
+     * the same reason. The device row is locked while a change in power or units is applied to its rack's usage
+     * counters.
+     */
+    @Transactional
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CacheConfig.DEVICES, key = "#serialNumber"),
+            @CacheEvict(cacheNames = CacheConfig.RACKS, allEntries = true)
+    })
     public DeviceDto updateDevice(String serialNumber, DeviceDto deviceDto) {
         if (!serialNumber.equals(deviceDto.getSerialNumber())) {
             throw new IllegalArgumentException("Serial number in database must match serial number in request");
         }
         
-        Device existingDevice = deviceRepository.findBySerialNumber(serialNumber)
+        Device existingDevice = deviceRepository.findForUpdateBySerialNumber(serialNumber)
                 .orElseThrow(() -> new EntityNotFoundException("Device not found"));
+
+        int powerDelta = deviceDto.getPower() - existingDevice.getPower();
+        int unitsDelta = deviceDto.getUnits() - existingDevice.getUnits();
+        if (existingDevice.getRack() != null && (powerDelta != 0 || unitsDelta != 0)) {
+            deviceJdbcRepository.addRackUsage(existingDevice.getRack().getId(), powerDelta, unitsDelta);
+        }
         
         existingDevice.setName(deviceDto.getName());
         existingDevice.setDescription(deviceDto.getDescription());
@@ -46,35 +134,106 @@ public class DeviceService {
         existingDevice.setPower(deviceDto.getPower());
         
         Device savedDevice = deviceRepository.save(existingDevice);
+        changeTracker.recordChange(InventoryItemType.DEVICE, ChangeOperation.UPSERT, serialNumber);
+        if (existingDevice.getRack() != null) {
+            changeTracker.recordChange(InventoryItemType.RACK, ChangeOperation.UPSERT, existingDevice.getRack().getSerialNumber());
+        }
         return deviceConverter.toDto(savedDevice);
     }
 
-
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CacheConfig.DEVICES, key = "#serialNumber"),
+            @CacheEvict(cacheNames = CacheConfig.RACKS, allEntries = true)
+    })
+    @Transactional
     public void deleteDevice(String serialNumber) {
-        Device device = deviceRepository.findBySerialNumber(serialNumber)
+        Device device = deviceRepository.findForUpdateBySerialNumber(serialNumber)
                 .orElseThrow(() -> new EntityNotFoundException("Device not found"));
 
+        if (device.getRack() != null) {
+            deviceJdbcRepository.addRackUsage(device.getRack().getId(), -device.getPower(), -device.getUnits());
+            changeTracker.recordChange(InventoryItemType.RACK, ChangeOperation.UPSERT, device.getRack().getSerialNumber());
+        }
         deviceRepository.delete(device);
+        changeTracker.recordChange(InventoryItemType.DEVICE, ChangeOperation.DELETE, serialNumber);
     }
 
+    /**
+     * Reads from the primary, as the result is cached beyond the current request.
+     */
+    @Transactional(readOnly = true)
+    @Cacheable(cacheNames = CacheConfig.DEVICES, key = "#serialNumber")
     public DeviceDto getDevice(String serialNumber) {
-        Device device = deviceRepository.findBySerialNumber(serialNumber)
+        return PrimaryReads.read(() -> deviceRepository.findDtoBySerialNumber(serialNumber))
                 .orElseThrow(() -> new EntityNotFoundException("Device not found"));
-        return deviceConverter.toDto(device);
     }
 
+    /**
+     * Selects the DTOs directly instead of loading managed entities and converting them.
+     */
+    @Transactional(readOnly = true)
     public List<DeviceDto> getAllDevices() {
-        return deviceRepository.findAll().stream()
-                .map(deviceConverter::toDto)
-                .collect(Collectors.toList());
+        return deviceRepository.findAllDtos();
+    }
+
+    /**
+     * Returns the DTOs of the devices that exist among {@code serialNumbers}, in no particular order.
+     */
+    @Transactional(readOnly = true)
+    public List<DeviceDto> findDevices(Collection<String> serialNumbers) {
+        List<DeviceDto> devices = new ArrayList<>(serialNumbers.size());
+        List<String> distinctSerialNumbers = new ArrayList<>(new LinkedHashSet<>(serialNumbers));
+        for (int from = 0; from < distinctSerialNumbers.size(); from += LOOKUP_CHUNK_SIZE) {
+            List<String> chunk = distinctSerialNumbers.subList(from, Math.min(from + LOOKUP_CHUNK_SIZE, distinctSerialNumbers.size()));
+            devices.addAll(deviceRepository.findAllDtosBySerialNumberIn(chunk));
+        }
+        return devices;
+    }
+
+    /**
+     * Returns up to {@code limit} devices matching {@code filter}, ordered by serial number and starting after the
+     * {@code after} cursor. Filtering and paging run in the database; one extra row is fetched to tell whether
+     * another page follows.
+     */
+    @Transactional(readOnly = true)
+    public KeysetPage<DeviceDto> getDevicesPage(DeviceFilter filter, String after, int limit) {
+        int pageSize = SerialNumberCursor.checkLimit(limit);
+        List<Device> devices = deviceRepository.findBy(
+                DeviceSpecifications.matching(filter, SerialNumberCursor.decode(after)),
+                query -> query.sortBy(Sort.by("serialNumber")).limit(pageSize + 1).all());
+        return KeysetPage.of(devices, pageSize, Device::getSerialNumber, deviceConverter::toDto);
     }
 
+    /**
+     * Loads the devices with one {@code IN} query per {@value #LOOKUP_CHUNK_SIZE} serial numbers. Duplicates are
+     * dropped, the result follows the order in which serial numbers first appear, and all unknown serial numbers
+     * are reported together.
+     */
+    @Transactional(readOnly = true)
     public List<Device> getDevicesBySerialNumbers(List<String> serialNumbers) {
-        List<Device> devices = new ArrayList<>();
-        for (String serialNumber : serialNumbers) {
-            Device device = deviceRepository.findBySerialNumber(serialNumber)
-                    .orElseThrow(() -> new EntityNotFoundException("Device not found: " + serialNumber));
-            devices.add(device);
+        List<String> distinctSerialNumbers = new ArrayList<>(new LinkedHashSet<>(serialNumbers));
+
+        Map<String, Device> devicesBySerialNumber = new HashMap<>();
+        for (int from = 0; from < distinctSerialNumbers.size(); from += LOOKUP_CHUNK_SIZE) {
+            List<String> chunk = distinctSerialNumbers.subList(from, Math.min(from + LOOKUP_CHUNK_SIZE, distinctSerialNumbers.size()));
+            for (Device device : deviceRepository.findAllBySerialNumberIn(chunk)) {
+                devicesBySerialNumber.put(device.getSerialNumber(), device);
+            }
+        }
+
+        List<Device> devices = new ArrayList<>(distinctSerialNumbers.size());
+        List<String> missingSerialNumbers = new ArrayList<>();
+        for (String serialNumber : distinctSerialNumbers) {
+            Device device = devicesBySerialNumber.get(serialNumber);
+            if (device == null) {
+                missingSerialNumbers.add(serialNumber);
+            } else {
+                devices.add(device);
+            }
+        }
+
+        if (!missingSerialNumbers.isEmpty()) {
+            throw new EntityNotFoundException("Devices not found: " + missingSerialNumbers);
         }
         return devices;
     }
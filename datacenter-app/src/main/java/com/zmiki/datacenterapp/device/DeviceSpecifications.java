@@ -0,0 +1,35 @@
+package com.zmiki.datacenterapp.device;
+
+import jakarta.persistence.criteria.Predicate;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.ArrayList;
+import java.util.List;
+
+final class DeviceSpecifications {
+
+    private DeviceSpecifications() {
+    }
+
+    /**
+     * Devices matching {@code filter} with a serial number greater than {@code afterSerialNumber}, if given.
+     */
+    static Specification<Device> matching(DeviceFilter filter, String afterSerialNumber) {
+        return (root, query, cb) -> {
+            List<Predicate> predicates = new ArrayList<>();
+            if (afterSerialNumber != null) {
+                predicates.add(cb.greaterThan(root.get("serialNumber"), afterSerialNumber));
+            }
+            if (Boolean.TRUE.equals(filter.getUnassigned())) {
+                predicates.add(cb.isNull(root.get("rack")));
+            }
+            if (filter.getMinPower() != null) {
+                predicates.add(cb.greaterThanOrEqualTo(root.get("power"), filter.getMinPower()));
+            }
+            if (filter.getMaxPower() != null) {
+                predicates.add(cb.lessThanOrEqualTo(root.get("power"), filter.getMaxPower()));
+            }
+            return cb.and(predicates.toArray(new Predicate[0]));
+        };
+    }
+}
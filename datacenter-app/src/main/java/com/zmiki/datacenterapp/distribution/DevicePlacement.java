@@ -0,0 +1,59 @@
+package com.zmiki.datacenterapp.distribution;
+
+import com.zmiki.datacenterapp.device.Device;
+import com.zmiki.datacenterapp.distribution.strategy.SolverResult;
+import com.zmiki.datacenterapp.rack.Rack;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * Outcome of placing the devices of one distribution, before it is turned into DTOs.
+ */
+@Getter
+@AllArgsConstructor
+class DevicePlacement {
+
+    /**
+     * Copies of the requested racks, with their devices as they were before the distribution.
+     */
+    private final List<Rack> racks;
+
+    /**
+     * Devices in the order they were placed in; {@code rackOfDevice} is aligned with it.
+     */
+    private final List<Device> devices;
+    private final int[] rackOfDevice;
+    private final int[] usedPower;
+
+    /**
+     * Set only when the exact solver ran.
+     */
+    private final SolverResult solverResult;
+
+    int countUnplaced() {
+        int unplaced = 0;
+        for (int rack : rackOfDevice) {
+            if (rack == -1) unplaced++;
+        }
+        return unplaced;
+    }
+
+    double powerUsagePercentage(int rack) {
+        double percentageOfPowerUsage = 100.0 * usedPower[rack] / racks.get(rack).getMaxPower();
+        return Math.round(percentageOfPowerUsage * 100.0) / 100.0;
+    }
+
+    String message() {
+        return countUnplaced() == 0 ? "Devices successfully distributed" : "Some devices could not be distributed to any rack.";
+    }
+
+    Boolean provenOptimal() {
+        return solverResult != null ? solverResult.isProvenOptimal() : null;
+    }
+
+    Integer unplacedLowerBound() {
+        return solverResult != null ? solverResult.getUnplacedLowerBound() : null;
+    }
+}
@@ -0,0 +1,16 @@
+package com.zmiki.datacenterapp.distribution;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class DistributionApplyResult {
+    private String message;
+    private int racksUpdated;
+    private int devicesAssigned;
+}
@@ -1,14 +1,28 @@
 package com.zmiki.datacenterapp.distribution;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.zmiki.datacenterapp.fields.FieldSelection;
+import com.zmiki.datacenterapp.rack.dto.RackDistributionDto;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.json.MappingJacksonValue;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
 
 @RestController
 @RequestMapping("/api/distribution")
@@ -17,13 +31,57 @@ import org.springframework.web.bind.annotation.RestController;
 public class DistributionController {
 
     private final DistributionService distributionService;
+    private final DistributionPlanService distributionPlanService;
+    private final ObjectMapper objectMapper;
 
     @PostMapping("/distribute-devices")
     @Operation(summary = "Distributes devices across racks")
-    public ResponseEntity<DistributionResult> distributeDevices(@Valid @RequestBody DistributionRequest request) {
-        DistributionResult result = distributionService.arrangeDevices(
-                request.getDeviceSerialNumbers(),
-                request.getRackSerialNumbers());
+    public ResponseEntity<MappingJacksonValue> distributeDevices(
+            @Valid @RequestBody DistributionRequest request,
+            @Parameter(description = "Comma-separated rack fields to return") @RequestParam(required = false) String fields,
+            @Parameter(description = "Set to devices to list the devices of each rack") @RequestParam(required = false) String include) {
+        FieldSelection selection = FieldSelection.parse(fields, include, RackDistributionDto.class);
+        request.setOmitDevices(!selection.includesDevices());
+        DistributionResult result = distributionService.arrangeDevices(request);
+        return ResponseEntity.ok(selection.apply(result));
+    }
+
+    @PostMapping(value = "/distribute-devices", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(summary = "Distributes devices across racks, streaming one JSON line per rack, per unplaced device and a final summary")
+    public ResponseEntity<StreamingResponseBody> distributeDevicesAsStream(
+            @Valid @RequestBody DistributionRequest request,
+            @Parameter(description = "Comma-separated rack fields to return") @RequestParam(required = false) String fields,
+            @Parameter(description = "Set to devices to list the devices of each rack") @RequestParam(required = false) String include) {
+        FieldSelection selection = FieldSelection.parse(fields, include, RackDistributionDto.class);
+        request.setOmitDevices(!selection.includesDevices());
+        DistributionStream stream = distributionService.arrangeDevicesAsStream(request);
+        ObjectWriter writer = objectMapper.writer(selection.filterProvider())
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+
+        StreamingResponseBody body = outputStream -> {
+            JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream);
+            generator.setRootValueSeparator(null);
+            stream.writeTo(item -> {
+                try {
+                    writer.writeValue(generator, item);
+                    generator.writeRaw('\n');
+                    if (item.getRack() != null) {
+                        generator.flush();
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            generator.flush();
+        };
+
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
+
+    @PostMapping("/apply")
+    @Operation(summary = "Persists the rack assignments of a distribution plan")
+    public ResponseEntity<DistributionApplyResult> applyPlan(@Valid @RequestBody DistributionPlan plan) {
+        DistributionApplyResult result = distributionPlanService.applyPlan(plan);
         return ResponseEntity.ok(result);
     }
 
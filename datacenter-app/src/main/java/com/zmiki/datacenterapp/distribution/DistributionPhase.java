@@ -0,0 +1,10 @@
+package com.zmiki.datacenterapp.distribution;
+
+public enum DistributionPhase {
+    QUEUED,
+    LOADING,
+    PLACING,
+    SOLVING,
+    COLLECTING_RESULT,
+    DONE
+}
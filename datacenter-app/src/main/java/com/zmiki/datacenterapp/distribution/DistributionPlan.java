@@ -0,0 +1,22 @@
+package com.zmiki.datacenterapp.distribution;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Rack assignments to persist, typically taken from the {@code racksWithDevices} of a {@link DistributionResult}.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class DistributionPlan {
+    @NotEmpty(message = "Plan must contain at least one rack assignment")
+    private List<@Valid RackAssignment> assignments;
+}
@@ -0,0 +1,133 @@
+package com.zmiki.datacenterapp.distribution;
+
+import com.zmiki.datacenterapp.change.ChangeOperation;
+import com.zmiki.datacenterapp.change.ChangeTracker;
+import com.zmiki.datacenterapp.config.CacheConfig;
+import com.zmiki.datacenterapp.device.DeviceJdbcRepository;
+import com.zmiki.datacenterapp.exception.InvalidDistributionPlanException;
+import com.zmiki.datacenterapp.exception.RackCapacityExceededException;
+import com.zmiki.datacenterapp.inventory.InventoryItemType;
+import com.zmiki.datacenterapp.rack.Rack;
+import com.zmiki.datacenterapp.rack.RackRepository;
+import jakarta.persistence.EntityNotFoundException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class DistributionPlanService {
+
+    private final RackRepository rackRepository;
+    private final DeviceJdbcRepository deviceJdbcRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final DistributionProperties distributionProperties;
+    private final ChangeTracker changeTracker;
+
+    /**
+     * Sets {@code Device.rack} for every device in the plan within one transaction. Nothing is written when a
+     * rack or device of the plan does not exist, or when a rack would end up over its power or unit capacity.
+     * Cached racks are dropped because their device lists change.
+     * <p>
+     * Concurrent applies only wait for each other on the racks and devices they share. A transaction that loses a
+     * deadlock or lock race is retried from scratch, up to {@code datacenter.distribution.apply.max-attempts} times.
+     */
+    @CacheEvict(cacheNames = CacheConfig.RACKS, allEntries = true)
+    public DistributionApplyResult applyPlan(DistributionPlan plan) {
+        Map<String, List<String>> deviceSerialNumbersByRack = new LinkedHashMap<>();
+        Set<String> deviceSerialNumbers = new HashSet<>();
+        for (RackAssignment assignment : plan.getAssignments()) {
+            List<String> rackDevices = deviceSerialNumbersByRack
+                    .computeIfAbsent(assignment.getRackSerialNumber(), serialNumber -> new ArrayList<>());
+            for (String deviceSerialNumber : assignment.getDeviceSerialNumbers()) {
+                if (!deviceSerialNumbers.add(deviceSerialNumber)) {
+                    throw new InvalidDistributionPlanException("Device " + deviceSerialNumber + " is assigned to more than one rack");
+                }
+                rackDevices.add(deviceSerialNumber);
+            }
+        }
+
+        DistributionProperties.Apply apply = distributionProperties.getApply();
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return transactionTemplate.execute(status -> assign(deviceSerialNumbersByRack, deviceSerialNumbers));
+            } catch (ConcurrencyFailureException e) {
+                if (attempt >= apply.getMaxAttempts()) {
+                    throw e;
+                }
+                log.debug("Applying distribution plan failed on attempt {}, retrying", attempt, e);
+                backOff(apply.getRetryBackoff().multipliedBy(attempt), e);
+            }
+        }
+    }
+
+    /**
+     * Locks the target racks and the devices, moves the devices and checks the racks' usage counters afterwards.
+     * Every target rack stays locked until the transaction ends, so the check sees all placements that can still
+     * commit into it. The devices, the target racks and the racks the devices leave are recorded as changed.
+     */
+    private DistributionApplyResult assign(Map<String, List<String>> deviceSerialNumbersByRack, Set<String> deviceSerialNumbers) {
+        Map<String, UUID> rackIdBySerialNumber = new HashMap<>();
+        for (Rack rack : rackRepository.findAllForUpdateBySerialNumberIn(deviceSerialNumbersByRack.keySet())) {
+            rackIdBySerialNumber.put(rack.getSerialNumber(), rack.getId());
+        }
+
+        List<String> missingRacks = deviceSerialNumbersByRack.keySet().stream()
+                .filter(serialNumber -> !rackIdBySerialNumber.containsKey(serialNumber))
+                .toList();
+        if (!missingRacks.isEmpty()) {
+            throw new EntityNotFoundException("Racks not found: " + missingRacks);
+        }
+
+        Map<UUID, List<String>> deviceSerialNumbersByRackId = new LinkedHashMap<>();
+        deviceSerialNumbersByRack.forEach((rackSerialNumber, devices) ->
+                deviceSerialNumbersByRackId.put(rackIdBySerialNumber.get(rackSerialNumber), devices));
+
+        Set<String> previousRackSerialNumbers = deviceJdbcRepository.lockDevices(deviceSerialNumbers);
+        int devicesAssigned = deviceJdbcRepository.assignToRacks(deviceSerialNumbersByRackId);
+        if (devicesAssigned != deviceSerialNumbers.size()) {
+            throw new EntityNotFoundException("Devices not found: "
+                    + deviceJdbcRepository.findMissingSerialNumbers(deviceSerialNumbers));
+        }
+
+        List<String> overCapacityRacks = rackRepository.findOverCapacitySerialNumbers(deviceSerialNumbersByRackId.keySet());
+        if (!overCapacityRacks.isEmpty()) {
+            throw new RackCapacityExceededException("Plan exceeds the power or unit capacity of racks: " + overCapacityRacks);
+        }
+
+        Set<String> changedRackSerialNumbers = new HashSet<>(previousRackSerialNumbers);
+        changedRackSerialNumbers.addAll(deviceSerialNumbersByRack.keySet());
+        changeTracker.recordChanges(InventoryItemType.DEVICE, ChangeOperation.UPSERT, deviceSerialNumbers);
+        changeTracker.recordChanges(InventoryItemType.RACK, ChangeOperation.UPSERT, changedRackSerialNumbers);
+
+        return DistributionApplyResult.builder()
+                .message("Distribution plan applied")
+                .racksUpdated(deviceSerialNumbersByRackId.size())
+                .devicesAssigned(devicesAssigned)
+                .build();
+    }
+
+    private static void backOff(Duration delay, ConcurrencyFailureException failure) {
+        try {
+            Thread.sleep(delay.toMillis() + ThreadLocalRandom.current().nextLong(delay.toMillis() + 1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw failure;
+        }
+    }
+}
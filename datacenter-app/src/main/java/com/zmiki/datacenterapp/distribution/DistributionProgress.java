@@ -0,0 +1,57 @@
+package com.zmiki.datacenterapp.distribution;
+
+import com.zmiki.datacenterapp.distribution.strategy.PlacementProgress;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Progress of one distribution, written by the thread running it and read by anyone polling it.
+ * <p>
+ * Every phase change and every device reported by the placement strategy is also a cancellation point: when the
+ * running thread has been interrupted the distribution stops there with a {@link CancellationException}, so a
+ * cancelled job does not keep placing the rest of a large request.
+ * <p>
+ * Devices count as processed once the placement strategy has dealt with them, so the count grows while the
+ * distribution is {@link DistributionPhase#PLACING}. The exact solver only improves a placement of all devices,
+ * so the count stays at the total while {@link DistributionPhase#SOLVING}.
+ */
+public class DistributionProgress implements PlacementProgress {
+
+    private volatile DistributionPhase phase = DistributionPhase.QUEUED;
+    private volatile int devicesTotal;
+    private final AtomicInteger devicesProcessed = new AtomicInteger();
+
+    public void startPhase(DistributionPhase phase) {
+        stopIfCancelled();
+        this.phase = phase;
+    }
+
+    public void setDevicesTotal(int devicesTotal) {
+        this.devicesTotal = devicesTotal;
+    }
+
+    @Override
+    public void devicesPlaced(int count) {
+        devicesProcessed.addAndGet(count);
+        stopIfCancelled();
+    }
+
+    private void stopIfCancelled() {
+        if (Thread.currentThread().isInterrupted()) {
+            throw new CancellationException("Distribution cancelled during " + phase);
+        }
+    }
+
+    public DistributionPhase getPhase() {
+        return phase;
+    }
+
+    public int getDevicesTotal() {
+        return devicesTotal;
+    }
+
+    public int getDevicesProcessed() {
+        return devicesProcessed.get();
+    }
+}
@@ -0,0 +1,81 @@
+package com.zmiki.datacenterapp.distribution;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "datacenter.distribution")
+public class DistributionProperties {
+
+    /**
+     * Upper limit for the time budget a request may give the exact solver.
+     */
+    private long maxTimeBudgetMs = 30_000;
+
+    private final Portfolio portfolio = new Portfolio();
+
+    private final Jobs jobs = new Jobs();
+
+    private final Apply apply = new Apply();
+
+    @Data
+    public static class Portfolio {
+
+        /**
+         * Threads of the pool shared by all portfolio runs.
+         */
+        private int poolSize = Runtime.getRuntime().availableProcessors();
+
+        /**
+         * Most pool threads a single request may keep busy, so one request cannot take every core.
+         */
+        private int maxParallelismPerRequest = 4;
+
+        /**
+         * Best-fit runs with a randomly perturbed device order, on top of one run of every built-in strategy.
+         */
+        private int randomRestarts = 8;
+    }
+
+    @Data
+    public static class Jobs {
+
+        /**
+         * Distribution jobs running at the same time.
+         */
+        private int threads = 2;
+
+        /**
+         * Jobs that may wait for a free thread; further submissions are rejected.
+         */
+        private int queueCapacity = 20;
+
+        /**
+         * Finished jobs kept for polling; the oldest are dropped first.
+         */
+        private int maxRetainedJobs = 100;
+
+        /**
+         * How long a finished job stays available for polling.
+         */
+        private Duration retention = Duration.ofHours(1);
+    }
+
+    @Data
+    public static class Apply {
+
+        /**
+         * Attempts at applying a plan whose transaction lost a deadlock or lock race, including the first one.
+         */
+        private int maxAttempts = 3;
+
+        /**
+         * Base delay before a retry; it grows with each attempt and gets random jitter added.
+         */
+        private Duration retryBackoff = Duration.ofMillis(50);
+    }
+}
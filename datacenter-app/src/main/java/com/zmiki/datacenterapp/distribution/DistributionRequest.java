@@ -1,6 +1,9 @@
 package com.zmiki.datacenterapp.distribution;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.zmiki.datacenterapp.distribution.strategy.PlacementStrategyType;
 import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Positive;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -18,4 +21,29 @@ public class DistributionRequest {
 
     @NotEmpty(message = "Rack serial numbers list cannot be empty")
     private List<String> rackSerialNumbers;
+
+    /**
+     * Placement algorithm to use; {@code BEST_FIT} when not given.
+     */
+    private PlacementStrategyType strategy;
+
+    /**
+     * When set, the strategy's placement is improved by the exact solver for at most this many milliseconds.
+     */
+    @Positive(message = "Time budget must be positive")
+    private Long timeBudgetMs;
+
+    /**
+     * Keeps devices already mounted in the racks where they are: racks start from the load of their current
+     * devices and only devices without a rack are placed. Requested devices mounted in racks outside the request
+     * are rejected.
+     */
+    private boolean incremental;
+
+    /**
+     * Leaves the device lists of the result's racks unset instead of converting them. Set by the distribution
+     * endpoints from their {@code fields} and {@code include} query parameters rather than read from the body.
+     */
+    @JsonIgnore
+    private boolean omitDevices;
 }
@@ -17,4 +17,14 @@ public class DistributionResult {
     private String message;
     private List<RackDistributionDto> racksWithDevices;
     private List<Device> unplacedDevices;
+
+    /**
+     * Whether no other placement leaves fewer devices unplaced; only set when the exact solver ran.
+     */
+    private Boolean provenOptimal;
+
+    /**
+     * Fewest unplaced devices any placement can achieve, as far as the exact solver could prove.
+     */
+    private Integer unplacedLowerBound;
 }
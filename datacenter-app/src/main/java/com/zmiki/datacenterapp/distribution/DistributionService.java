@@ -4,6 +4,13 @@ import com.zmiki.datacenterapp.device.Device;
 import com.zmiki.datacenterapp.device.DeviceConverter;
 import com.zmiki.datacenterapp.device.DeviceService;
 import com.zmiki.datacenterapp.device.dto.DeviceDto;
+import com.zmiki.datacenterapp.distribution.strategy.BranchAndBoundSolver;
+import com.zmiki.datacenterapp.distribution.strategy.DeviceSizes;
+import com.zmiki.datacenterapp.distribution.strategy.PlacementStrategies;
+import com.zmiki.datacenterapp.distribution.strategy.PlacementStrategy;
+import com.zmiki.datacenterapp.distribution.strategy.RackLoad;
+import com.zmiki.datacenterapp.distribution.strategy.SolverResult;
+import com.zmiki.datacenterapp.exception.DevicesMountedElsewhereException;
 import com.zmiki.datacenterapp.exception.NoDevicesProvidedException;
 import com.zmiki.datacenterapp.exception.NoRacksProvidedException;
 import com.zmiki.datacenterapp.rack.Rack;
@@ -17,6 +24,8 @@ import org.springframework.stereotype.Service;
 import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.List;
+import java.util.Set;
+import java.util.UUID;
 import java.util.stream.Collectors;
 
 @AllArgsConstructor
@@ -27,71 +36,61 @@ public class DistributionService {
     private final RackConverter rackConverter;
     private final DeviceService deviceService;
     private final RackService rackService;
+    private final PlacementStrategies placementStrategies;
+    private final BranchAndBoundSolver branchAndBoundSolver;
+    private final DistributionProperties distributionProperties;
 
     public DistributionResult arrangeDevices(List<String> deviceSerialNumbers, List<String> rackSerialNumbers) {
-        List<Device> devices = deviceService.getDevicesBySerialNumbers(deviceSerialNumbers);
-        List<Rack> racks = rackService.getRacksBySerialNumbers(rackSerialNumbers);
-        return packDevicesIntoRacks(devices, racks);
+        return arrangeDevices(DistributionRequest.builder()
+                .deviceSerialNumbers(deviceSerialNumbers)
+                .rackSerialNumbers(rackSerialNumbers)
+                .build());
     }
 
-    public DistributionResult packDevicesIntoRacks(List<Device> devices, List<Rack> racks) {
-        if (racks.isEmpty()) {
-            throw new NoRacksProvidedException("No racks provided for device distribution. Cannot proceed.");
-        }
-        if (devices.isEmpty()) {
-            throw new NoDevicesProvidedException("No devices provided for distribution. Cannot proceed.");
-        }
-
-        List<Rack> racksCopy = racks.stream().map(Rack::copy).toList();
-
-        int numberOfRacks = racksCopy.size();
+    public DistributionResult arrangeDevices(DistributionRequest request) {
+        return arrangeDevices(request, new DistributionProgress());
+    }
 
-        int[] usedPower = new int[numberOfRacks];
-        int[] remainingUnits = new int[numberOfRacks];
+    public DistributionResult arrangeDevices(DistributionRequest request, DistributionProgress progress) {
+        progress.startPhase(DistributionPhase.LOADING);
+        List<Device> devices = deviceService.getDevicesBySerialNumbers(request.getDeviceSerialNumbers());
+        List<Rack> racks = loadRacks(request);
+        return packDevicesIntoRacks(devices, racks, request, progress);
+    }
 
-        for (int i = 0; i < numberOfRacks; i++) {
-            usedPower[i] = 0;
-            remainingUnits[i] = racksCopy.get(i).getMaxUnits();
-        }
+    public DistributionResult packDevicesIntoRacks(List<Device> devices, List<Rack> racks) {
+        return packDevicesIntoRacks(devices, racks, new DistributionRequest());
+    }
 
-        List<Device> sortedDevices = new ArrayList<>(devices);
-        sortedDevices.sort(Comparator.comparingInt(Device::getPower).reversed());
+    public DistributionResult packDevicesIntoRacks(List<Device> devices, List<Rack> racks, DistributionRequest options) {
+        return packDevicesIntoRacks(devices, racks, options, new DistributionProgress());
+    }
 
+    /**
+     * Places the devices using the strategy, solver and output settings of {@code options}; its serial number lists
+     * are not used.
+     */
+    public DistributionResult packDevicesIntoRacks(List<Device> devices, List<Rack> racks, DistributionRequest options,
+                                                   DistributionProgress progress) {
+        DevicePlacement placement = placeDevices(devices, racks, options, progress);
+
+        progress.startPhase(DistributionPhase.COLLECTING_RESULT);
+        List<Rack> racksCopy = placement.getRacks();
+        List<Device> sortedDevices = placement.getDevices();
+        int[] rackOfDevice = placement.getRackOfDevice();
         List<Device> unplacedDevices = new ArrayList<>();
 
-        for (Device currentDevice : sortedDevices) {
-            int bestIndex = -1;
-            double bestPower = Double.POSITIVE_INFINITY;
-
-            for (int i = 0; i < numberOfRacks; i++) {
-                Rack currentRack = racksCopy.get(i);
-
-                if (currentDevice.getUnits() > remainingUnits[i]) continue;
-                if (usedPower[i] + currentDevice.getPower() > currentRack.getMaxPower()) continue;
-
-                double powerAfter = ((double) (usedPower[i] + currentDevice.getPower())) / currentRack.getMaxPower();
-
-                if (powerAfter < bestPower || (powerAfter == bestPower && remainingUnits[i] > (bestIndex == -1 ? -1 : remainingUnits[bestIndex]))) {
-                    bestIndex = i;
-                    bestPower = powerAfter;
-                }
-            }
-
-            if (bestIndex == -1) {
-                unplacedDevices.add(currentDevice);
+        for (int d = 0; d < sortedDevices.size(); d++) {
+            if (rackOfDevice[d] == -1) {
+                unplacedDevices.add(sortedDevices.get(d));
             } else {
-                racksCopy.get(bestIndex).getDevices().add(currentDevice);
-                usedPower[bestIndex] += currentDevice.getPower();
-                remainingUnits[bestIndex] -= currentDevice.getUnits();
+                racksCopy.get(rackOfDevice[d]).getDevices().add(sortedDevices.get(d));
             }
         }
 
         List<RackDistributionDto> racksWithDevices = new ArrayList<>();
-        for (int i = 0; i < numberOfRacks; i++) {
-            double percentageOfPowerUsage = 100.0 * usedPower[i] / racksCopy.get(i).getMaxPower();
-            percentageOfPowerUsage = Math.round(percentageOfPowerUsage * 100.0) / 100.0;
-
-            List<DeviceDto> deviceDtos = racksCopy.get(i).getDevices()
+        for (int i = 0; i < racksCopy.size(); i++) {
+            List<DeviceDto> deviceDtos = options.isOmitDevices() ? null : racksCopy.get(i).getDevices()
                     .stream()
                     .map(deviceConverter::toDto)
                     .collect(Collectors.toList());
@@ -102,14 +101,119 @@ public class DistributionService {
                     .rackName(rackDto.getName())
                     .rackSerialNumber(rackDto.getSerialNumber())
                     .devices(deviceDtos)
-                    .powerUsagePercentage(percentageOfPowerUsage)
+                    .powerUsagePercentage(placement.powerUsagePercentage(i))
                     .build());
         }
 
+        progress.startPhase(DistributionPhase.DONE);
         return DistributionResult.builder()
-                .message(unplacedDevices.isEmpty() ? "Devices successfully distributed" : "Some devices could not be distributed to any rack.")
+                .message(placement.message())
                 .racksWithDevices(racksWithDevices)
                 .unplacedDevices(unplacedDevices)
+                .provenOptimal(placement.provenOptimal())
+                .unplacedLowerBound(placement.unplacedLowerBound())
                 .build();
     }
+
+    /**
+     * Computes the whole placement right away but leaves building the DTOs to {@link DistributionStream#writeTo},
+     * which converts one rack at a time, so the response never holds every DTO at once. The entities and placement
+     * arrays are still held until the response ends.
+     */
+    public DistributionStream arrangeDevicesAsStream(DistributionRequest request) {
+        List<Device> devices = deviceService.getDevicesBySerialNumbers(request.getDeviceSerialNumbers());
+        List<Rack> racks = loadRacks(request);
+        return new DistributionStream(placeDevices(devices, racks, request, new DistributionProgress()), deviceConverter,
+                !request.isOmitDevices());
+    }
+
+    /**
+     * Loads the racks together with their current devices when the result lists them, so placing never reads a
+     * lazy collection, which would fail on the job threads that have no session.
+     */
+    private List<Rack> loadRacks(DistributionRequest request) {
+        if (keepsRackDevices(request)) {
+            return rackService.getRacksWithDevicesBySerialNumbers(request.getRackSerialNumbers());
+        }
+        return rackService.getRacksBySerialNumbers(request.getRackSerialNumbers());
+    }
+
+    private static boolean keepsRackDevices(DistributionRequest options) {
+        return !options.isIncremental() && !options.isOmitDevices();
+    }
+
+    private DevicePlacement placeDevices(List<Device> devices, List<Rack> racks, DistributionRequest options,
+                                         DistributionProgress progress) {
+        if (racks.isEmpty()) {
+            throw new NoRacksProvidedException("No racks provided for device distribution. Cannot proceed.");
+        }
+        if (devices.isEmpty()) {
+            throw new NoDevicesProvidedException("No devices provided for distribution. Cannot proceed.");
+        }
+
+        PlacementStrategy strategy = placementStrategies.get(options.getStrategy());
+
+        List<Rack> racksCopy = racks.stream()
+                .map(rack -> keepsRackDevices(options) ? rack.copy() : rack.copyWithoutDevices())
+                .toList();
+
+        RackLoad rackLoad = RackLoad.empty(racksCopy);
+
+        List<Device> devicesToPlace = devices;
+        if (options.isIncremental()) {
+            rejectDevicesMountedElsewhere(devices, racks);
+            seedExistingLoad(racks, rackLoad);
+            devicesToPlace = devices.stream().filter(device -> device.getRack() == null).toList();
+        }
+
+        List<Device> sortedDevices = new ArrayList<>(devicesToPlace);
+        sortedDevices.sort(Comparator.comparingInt(Device::getPower).reversed());
+        progress.setDevicesTotal(sortedDevices.size());
+        DeviceSizes deviceSizes = DeviceSizes.of(sortedDevices);
+
+        progress.startPhase(DistributionPhase.PLACING);
+        SolverResult solverResult = null;
+        int[] rackOfDevice;
+        if (options.getTimeBudgetMs() == null) {
+            rackOfDevice = strategy.place(deviceSizes, rackLoad, progress);
+        } else {
+            int[] heuristicRackOfDevice = strategy.place(deviceSizes, rackLoad.copy(), progress);
+            progress.startPhase(DistributionPhase.SOLVING);
+            long timeBudgetMs = Math.min(options.getTimeBudgetMs(), distributionProperties.getMaxTimeBudgetMs());
+            solverResult = branchAndBoundSolver.solve(deviceSizes, rackLoad, heuristicRackOfDevice, timeBudgetMs);
+            rackOfDevice = solverResult.getRackOfDevice();
+        }
+
+        return new DevicePlacement(racksCopy, sortedDevices, rackOfDevice, rackLoad.getUsedPower(), solverResult);
+    }
+
+    /**
+     * An incremental run leaves mounted devices where they are, so a requested device mounted in a rack outside the
+     * request could be neither placed nor reported as unplaced. Such requests are rejected instead. Racks are
+     * compared by id, which does not load a device's lazy rack.
+     */
+    private void rejectDevicesMountedElsewhere(List<Device> devices, List<Rack> racks) {
+        Set<UUID> requestedRackIds = racks.stream().map(Rack::getId).collect(Collectors.toSet());
+        List<String> mountedElsewhere = devices.stream()
+                .filter(device -> device.getRack() != null && !requestedRackIds.contains(device.getRack().getId()))
+                .map(Device::getSerialNumber)
+                .toList();
+        if (!mountedElsewhere.isEmpty()) {
+            throw new DevicesMountedElsewhereException(
+                    "Devices are mounted in racks that are not part of the request: " + mountedElsewhere);
+        }
+    }
+
+    /**
+     * Starts every rack from the power and units of the devices already mounted in it, read from the rack's usage
+     * counters instead of its device collection.
+     */
+    private void seedExistingLoad(List<Rack> racks, RackLoad rackLoad) {
+        for (int i = 0; i < racks.size(); i++) {
+            Rack rack = racks.get(i);
+            if (rack.getUsedPower() != 0 || rack.getUsedUnits() != 0) {
+                rackLoad.place(i, rack.getUsedPower(), rack.getUsedUnits());
+            }
+        }
+    }
 }
@@ -0,0 +1,99 @@
+package com.zmiki.datacenterapp.distribution;
+
+import com.zmiki.datacenterapp.device.Device;
+import com.zmiki.datacenterapp.device.DeviceConverter;
+import com.zmiki.datacenterapp.device.dto.DeviceDto;
+import com.zmiki.datacenterapp.rack.Rack;
+import com.zmiki.datacenterapp.rack.dto.RackDistributionDto;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * A computed distribution whose DTOs are built only while it is written out, one rack at a time.
+ * <p>
+ * The placement is complete before the first line is written, because the portfolio and the exact solver can still
+ * move any device until they finish. The loaded racks and devices and the placement arrays therefore stay in memory
+ * for the whole response, and only the DTOs are limited to one rack at a time.
+ */
+public class DistributionStream {
+
+    private final DevicePlacement placement;
+    private final DeviceConverter deviceConverter;
+    private final boolean includeDevices;
+
+    DistributionStream(DevicePlacement placement, DeviceConverter deviceConverter, boolean includeDevices) {
+        this.placement = placement;
+        this.deviceConverter = deviceConverter;
+        this.includeDevices = includeDevices;
+    }
+
+    /**
+     * Hands every rack, then every unplaced device, then the summary to {@code sink}. Racks list their devices in
+     * the same order as {@link DistributionResult#getRacksWithDevices()}, unless devices were not requested.
+     */
+    public void writeTo(Consumer<DistributionStreamItem> sink) {
+        List<Rack> racks = placement.getRacks();
+        List<Device> devices = placement.getDevices();
+        int[] rackOfDevice = placement.getRackOfDevice();
+
+        int[] firstOfRack = new int[racks.size() + 1];
+        for (int rack : rackOfDevice) {
+            if (rack != -1) firstOfRack[rack + 1]++;
+        }
+        for (int i = 0; i < racks.size(); i++) {
+            firstOfRack[i + 1] += firstOfRack[i];
+        }
+        int[] devicesByRack = new int[firstOfRack[racks.size()]];
+        int[] nextOfRack = Arrays.copyOf(firstOfRack, racks.size());
+        for (int d = 0; d < devices.size(); d++) {
+            if (rackOfDevice[d] != -1) {
+                devicesByRack[nextOfRack[rackOfDevice[d]]++] = d;
+            }
+        }
+
+        for (int i = 0; i < racks.size(); i++) {
+            Rack rack = racks.get(i);
+            List<DeviceDto> deviceDtos = null;
+            if (includeDevices) {
+                deviceDtos = new ArrayList<>(rack.getDevices().size() + firstOfRack[i + 1] - firstOfRack[i]);
+                for (Device device : rack.getDevices()) {
+                    deviceDtos.add(deviceConverter.toDto(device));
+                }
+                for (int k = firstOfRack[i]; k < firstOfRack[i + 1]; k++) {
+                    deviceDtos.add(deviceConverter.toDto(devices.get(devicesByRack[k])));
+                }
+            }
+
+            sink.accept(DistributionStreamItem.builder()
+                    .rack(RackDistributionDto.builder()
+                            .rackName(rack.getName())
+                            .rackSerialNumber(rack.getSerialNumber())
+                            .devices(deviceDtos)
+                            .powerUsagePercentage(placement.powerUsagePercentage(i))
+                            .build())
+                    .build());
+        }
+
+        for (int d = 0; d < devices.size(); d++) {
+            if (rackOfDevice[d] == -1) {
+                sink.accept(DistributionStreamItem.builder()
+                        .unplacedDevice(deviceConverter.toDto(devices.get(d)))
+                        .build());
+            }
+        }
+
+        int unplaced = placement.countUnplaced();
+        sink.accept(DistributionStreamItem.builder()
+                .summary(DistributionSummary.builder()
+                        .message(placement.message())
+                        .placedDevices(devices.size() - unplaced)
+                        .unplacedDevices(unplaced)
+                        .provenOptimal(placement.provenOptimal())
+                        .unplacedLowerBound(placement.unplacedLowerBound())
+                        .build())
+                .build());
+    }
+}
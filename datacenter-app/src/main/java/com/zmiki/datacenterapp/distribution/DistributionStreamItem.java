@@ -0,0 +1,24 @@
+package com.zmiki.datacenterapp.distribution;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.zmiki.datacenterapp.device.dto.DeviceDto;
+import com.zmiki.datacenterapp.rack.dto.RackDistributionDto;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One line of a streamed distribution: exactly one of the fields is set. Racks come first, then the unplaced
+ * devices, and the summary is always the last line.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class DistributionStreamItem {
+    private RackDistributionDto rack;
+    private DeviceDto unplacedDevice;
+    private DistributionSummary summary;
+}
@@ -0,0 +1,21 @@
+package com.zmiki.datacenterapp.distribution;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Everything of a {@link DistributionResult} except the rack and device lists.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class DistributionSummary {
+    private String message;
+    private int placedDevices;
+    private int unplacedDevices;
+    private Boolean provenOptimal;
+    private Integer unplacedLowerBound;
+}
@@ -0,0 +1,22 @@
+package com.zmiki.datacenterapp.distribution;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RackAssignment {
+    @NotBlank(message = "Rack serial number is required")
+    private String rackSerialNumber;
+
+    @NotEmpty(message = "Device serial numbers list cannot be empty")
+    private List<String> deviceSerialNumbers;
+}
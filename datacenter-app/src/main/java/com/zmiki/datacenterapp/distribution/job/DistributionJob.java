@@ -0,0 +1,85 @@
+package com.zmiki.datacenterapp.distribution.job;
+
+import com.zmiki.datacenterapp.distribution.DistributionProgress;
+import com.zmiki.datacenterapp.distribution.DistributionResult;
+import lombok.Getter;
+
+import java.time.Instant;
+import java.util.UUID;
+import java.util.concurrent.Future;
+
+/**
+ * One submitted distribution. Status changes are synchronized so that a cancel and the worker finishing cannot
+ * both win; whichever comes first decides the final status.
+ */
+@Getter
+class DistributionJob {
+
+    private final UUID id = UUID.randomUUID();
+    private final Instant submittedAt = Instant.now();
+    private final DistributionProgress progress = new DistributionProgress();
+
+    private DistributionJobStatus status = DistributionJobStatus.QUEUED;
+    private Instant finishedAt;
+    private DistributionResult result;
+    private String error;
+    private Future<?> future;
+
+    synchronized void setFuture(Future<?> future) {
+        this.future = future;
+    }
+
+    synchronized boolean start() {
+        if (status != DistributionJobStatus.QUEUED) {
+            return false;
+        }
+        status = DistributionJobStatus.RUNNING;
+        return true;
+    }
+
+    synchronized void complete(DistributionResult result) {
+        if (status == DistributionJobStatus.RUNNING) {
+            this.result = result;
+            finish(DistributionJobStatus.COMPLETED);
+        }
+    }
+
+    synchronized void fail(String error) {
+        if (status == DistributionJobStatus.RUNNING) {
+            this.error = error;
+            finish(DistributionJobStatus.FAILED);
+        }
+    }
+
+    synchronized boolean cancel() {
+        if (status.isFinished()) {
+            return false;
+        }
+        finish(DistributionJobStatus.CANCELLED);
+        if (future != null) {
+            future.cancel(true);
+        }
+        return true;
+    }
+
+    synchronized DistributionJobStatus getStatus() {
+        return status;
+    }
+
+    synchronized Instant getFinishedAt() {
+        return finishedAt;
+    }
+
+    synchronized DistributionResult getResult() {
+        return result;
+    }
+
+    synchronized String getError() {
+        return error;
+    }
+
+    private void finish(DistributionJobStatus finalStatus) {
+        status = finalStatus;
+        finishedAt = Instant.now();
+    }
+}
@@ -0,0 +1,47 @@
+package com.zmiki.datacenterapp.distribution.job;
+
+import com.zmiki.datacenterapp.distribution.DistributionRequest;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/api/distribution/jobs")
+@RequiredArgsConstructor
+@Tag(name = "Distribution jobs", description = "API for running device distributions in the background")
+public class DistributionJobController {
+
+    private final DistributionJobService distributionJobService;
+
+    @PostMapping
+    @Operation(summary = "Starts a distribution in the background and returns its job id")
+    public ResponseEntity<DistributionJobDto> submitJob(@Valid @RequestBody DistributionRequest request) {
+        DistributionJobDto job = distributionJobService.submit(request);
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(job);
+    }
+
+    @GetMapping("/{id}")
+    @Operation(summary = "Returns the progress of a distribution job, and its result once completed")
+    public ResponseEntity<DistributionJobDto> getJob(@PathVariable UUID id) {
+        DistributionJobDto job = distributionJobService.getJob(id);
+        return ResponseEntity.ok(job);
+    }
+
+    @PostMapping("/{id}/cancel")
+    @Operation(summary = "Cancels a queued or running distribution job")
+    public ResponseEntity<DistributionJobDto> cancelJob(@PathVariable UUID id) {
+        DistributionJobDto job = distributionJobService.cancel(id);
+        return ResponseEntity.ok(job);
+    }
+}
@@ -0,0 +1,31 @@
+package com.zmiki.datacenterapp.distribution.job;
+
+import com.zmiki.datacenterapp.distribution.DistributionPhase;
+import com.zmiki.datacenterapp.distribution.DistributionResult;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.UUID;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class DistributionJobDto {
+    private UUID id;
+    private DistributionJobStatus status;
+    private DistributionPhase phase;
+    private int devicesTotal;
+    private int devicesProcessed;
+    private Instant submittedAt;
+    private Instant finishedAt;
+    private String error;
+
+    /**
+     * Only set once the job has completed.
+     */
+    private DistributionResult result;
+}
@@ -0,0 +1,119 @@
+package com.zmiki.datacenterapp.distribution.job;
+
+import com.zmiki.datacenterapp.distribution.DistributionProperties;
+import com.zmiki.datacenterapp.distribution.DistributionRequest;
+import com.zmiki.datacenterapp.distribution.DistributionResult;
+import com.zmiki.datacenterapp.distribution.DistributionService;
+import jakarta.persistence.EntityNotFoundException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * Runs distributions in the background on the bounded job executor and keeps their state in memory for polling.
+ * <p>
+ * Finished jobs are dropped once they are older than the configured retention, or when more than
+ * {@code maxRetainedJobs} of them are kept; pruning happens whenever a job is submitted.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class DistributionJobService {
+
+    private final DistributionService distributionService;
+    private final ThreadPoolExecutor distributionJobExecutor;
+    private final DistributionProperties distributionProperties;
+
+    private final Map<UUID, DistributionJob> jobs = new ConcurrentHashMap<>();
+
+    /**
+     * @throws RejectedExecutionException when the job queue is full
+     */
+    public DistributionJobDto submit(DistributionRequest request) {
+        pruneFinishedJobs();
+
+        DistributionJob job = new DistributionJob();
+        jobs.put(job.getId(), job);
+        try {
+            job.setFuture(distributionJobExecutor.submit(() -> run(job, request)));
+        } catch (RejectedExecutionException e) {
+            jobs.remove(job.getId());
+            throw e;
+        }
+        return toDto(job);
+    }
+
+    public DistributionJobDto getJob(UUID id) {
+        return toDto(findJob(id));
+    }
+
+    public DistributionJobDto cancel(UUID id) {
+        DistributionJob job = findJob(id);
+        job.cancel();
+        return toDto(job);
+    }
+
+    private void run(DistributionJob job, DistributionRequest request) {
+        if (!job.start()) {
+            return;
+        }
+        try {
+            DistributionResult result = distributionService.arrangeDevices(request, job.getProgress());
+            job.complete(result);
+        } catch (CancellationException e) {
+            log.debug("Distribution job {} stopped after being cancelled", job.getId());
+        } catch (RuntimeException e) {
+            log.warn("Distribution job {} failed", job.getId(), e);
+            job.fail(e.getMessage());
+        }
+    }
+
+    private DistributionJob findJob(UUID id) {
+        DistributionJob job = jobs.get(id);
+        if (job == null) {
+            throw new EntityNotFoundException("Distribution job not found: " + id);
+        }
+        return job;
+    }
+
+    void pruneFinishedJobs() {
+        DistributionProperties.Jobs settings = distributionProperties.getJobs();
+        Instant expiry = Instant.now().minus(settings.getRetention());
+
+        List<DistributionJob> finished = jobs.values().stream()
+                .filter(job -> job.getStatus().isFinished())
+                .sorted(Comparator.comparing(DistributionJob::getFinishedAt).reversed())
+                .toList();
+
+        for (int i = 0; i < finished.size(); i++) {
+            DistributionJob job = finished.get(i);
+            if (i >= settings.getMaxRetainedJobs() || job.getFinishedAt().isBefore(expiry)) {
+                jobs.remove(job.getId());
+            }
+        }
+    }
+
+    private DistributionJobDto toDto(DistributionJob job) {
+        return DistributionJobDto.builder()
+                .id(job.getId())
+                .status(job.getStatus())
+                .phase(job.getProgress().getPhase())
+                .devicesTotal(job.getProgress().getDevicesTotal())
+                .devicesProcessed(job.getProgress().getDevicesProcessed())
+                .submittedAt(job.getSubmittedAt())
+                .finishedAt(job.getFinishedAt())
+                .error(job.getError())
+                .result(job.getResult())
+                .build();
+    }
+}
@@ -0,0 +1,13 @@
+package com.zmiki.datacenterapp.distribution.job;
+
+public enum DistributionJobStatus {
+    QUEUED,
+    RUNNING,
+    COMPLETED,
+    FAILED,
+    CANCELLED;
+
+    public boolean isFinished() {
+        return this == COMPLETED || this == FAILED || this == CANCELLED;
+    }
+}
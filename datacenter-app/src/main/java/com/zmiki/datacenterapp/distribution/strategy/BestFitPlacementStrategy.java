@@ -0,0 +1,40 @@
+package com.zmiki.datacenterapp.distribution.strategy;
+
+import org.springframework.stereotype.Component;
+
+@Component
+public class BestFitPlacementStrategy implements PlacementStrategy {
+
+    @Override
+    public PlacementStrategyType getType() {
+        return PlacementStrategyType.BEST_FIT;
+    }
+
+    @Override
+    public int[] place(DeviceSizes devices, RackLoad rackLoad, PlacementProgress progress) {
+        return place(devices, rackLoad, DeviceOrder.byPowerDescending(devices), progress);
+    }
+
+    /**
+     * Same rule, but devices are taken in the given {@code order} of indexes into {@code devices}.
+     */
+    int[] place(DeviceSizes devices, RackLoad rackLoad, int[] order, PlacementProgress progress) {
+        RackCapacityIndex capacityIndex = new RackCapacityIndex(
+                rackLoad.getMaxPower(), rackLoad.getUsedPower(), rackLoad.getRemainingUnits());
+
+        int[] power = devices.getPower();
+        int[] units = devices.getUnits();
+        int[] rackOfDevice = new int[devices.size()];
+
+        for (int deviceIndex : order) {
+            int bestIndex = capacityIndex.findBestRack(power[deviceIndex], units[deviceIndex]);
+
+            rackOfDevice[deviceIndex] = bestIndex;
+            if (bestIndex != -1) {
+                capacityIndex.place(bestIndex, power[deviceIndex], units[deviceIndex]);
+            }
+            progress.devicesPlaced(1);
+        }
+        return rackOfDevice;
+    }
+}
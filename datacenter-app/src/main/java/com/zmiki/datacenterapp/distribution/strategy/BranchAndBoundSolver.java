@@ -0,0 +1,348 @@
+package com.zmiki.datacenterapp.distribution.strategy;
+
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * Exact solver that minimises the number of unplaced devices within a time budget.
+ * <p>
+ * The search is a depth-first branch and bound over devices in decreasing power order: every device either goes
+ * into one of the racks that can take it or stays unplaced. It starts from a heuristic placement as the incumbent,
+ * prunes nodes whose bound cannot beat it, and only tries the lowest indexed of several racks that are in exactly
+ * the same state. The bound relaxes all free power and all free units into two single bins and counts how many of
+ * the remaining devices, smallest first, could still fit into each.
+ * <p>
+ * When the budget runs out the best placement found so far is returned together with a lower bound on the number
+ * of unplaced devices; when the search finishes that placement is proven optimal.
+ */
+@Component
+public class BranchAndBoundSolver {
+
+    private static final int CLOCK_CHECK_INTERVAL = 1024;
+
+    /**
+     * Improves on {@code initialRackOfDevice} and applies the best placement found to {@code rackLoad}.
+     *
+     * @param rackLoad            rack state before any of the devices is placed
+     * @param initialRackOfDevice heuristic placement of the same devices, used as the starting incumbent
+     */
+    public SolverResult solve(DeviceSizes devices, RackLoad rackLoad, int[] initialRackOfDevice, long timeBudgetMs) {
+        long deadline = System.nanoTime() + timeBudgetMs * 1_000_000L;
+
+        Search search = new Search(devices, rackLoad.copy(), initialRackOfDevice);
+        int lowerBound = rootLowerBound(devices, rackLoad);
+        boolean provenOptimal = search.bestUnplaced <= lowerBound || search.run(lowerBound, deadline);
+
+        for (int d = 0; d < devices.size(); d++) {
+            if (search.bestRackOfDevice[d] != -1) {
+                rackLoad.place(search.bestRackOfDevice[d], devices.getPower()[d], devices.getUnits()[d]);
+            }
+        }
+
+        return new SolverResult(search.bestRackOfDevice, provenOptimal, provenOptimal ? search.bestUnplaced : lowerBound);
+    }
+
+    /**
+     * Devices that fit no rack on their own are always unplaced; for the rest, no more can be placed than fit
+     * into the total free power or the total free units when taken smallest first.
+     */
+    private int rootLowerBound(DeviceSizes devices, RackLoad rackLoad) {
+        long freePower = 0;
+        long freeUnits = 0;
+        for (int i = 0; i < rackLoad.size(); i++) {
+            freePower += freePower(rackLoad, i);
+            freeUnits += freeUnits(rackLoad, i);
+        }
+
+        int maxRemainingUnits = 0;
+        for (int i = 0; i < rackLoad.size(); i++) {
+            maxRemainingUnits = Math.max(maxRemainingUnits, rackLoad.getRemainingUnits()[i]);
+        }
+        // largest free power among racks with at least u units left
+        int[] freePowerWithUnits = new int[maxRemainingUnits + 2];
+        Arrays.fill(freePowerWithUnits, -1);
+        for (int i = 0; i < rackLoad.size(); i++) {
+            int remaining = rackLoad.getRemainingUnits()[i];
+            if (remaining >= 0) {
+                freePowerWithUnits[remaining] = Math.max(freePowerWithUnits[remaining], rackLoad.getMaxPower()[i] - rackLoad.getUsedPower()[i]);
+            }
+        }
+        for (int u = maxRemainingUnits - 1; u >= 0; u--) {
+            freePowerWithUnits[u] = Math.max(freePowerWithUnits[u], freePowerWithUnits[u + 1]);
+        }
+
+        int[] powers = new int[devices.size()];
+        int[] units = new int[devices.size()];
+        int fitting = 0;
+        for (int d = 0; d < devices.size(); d++) {
+            int neededUnits = Math.min(Math.max(devices.getUnits()[d], 0), maxRemainingUnits + 1);
+            if (freePowerWithUnits[neededUnits] >= devices.getPower()[d]) {
+                powers[fitting] = devices.getPower()[d];
+                units[fitting] = devices.getUnits()[d];
+                fitting++;
+            }
+        }
+
+        int placeable = Math.min(countSmallestFitting(powers, fitting, freePower), countSmallestFitting(units, fitting, freeUnits));
+        return devices.size() - placeable;
+    }
+
+    private static int freePower(RackLoad rackLoad, int rack) {
+        return Math.max(rackLoad.getMaxPower()[rack] - rackLoad.getUsedPower()[rack], 0);
+    }
+
+    private static int freeUnits(RackLoad rackLoad, int rack) {
+        return Math.max(rackLoad.getRemainingUnits()[rack], 0);
+    }
+
+    private static int countSmallestFitting(int[] sizes, int length, long capacity) {
+        int[] sorted = Arrays.copyOf(sizes, length);
+        Arrays.sort(sorted);
+
+        long total = 0;
+        for (int k = 0; k < length; k++) {
+            total += sorted[k];
+            if (total > capacity) {
+                return k;
+            }
+        }
+        return length;
+    }
+
+    private static final class Search {
+
+        private final int numberOfDevices;
+        private final int numberOfRacks;
+        private final int[] power;
+        private final int[] units;
+        private final int[] deviceOrder;
+        private final RackLoad rackLoad;
+
+        /**
+         * Sum of the power of the last {@code k} devices in search order, i.e. the {@code k} smallest remaining.
+         */
+        private final long[] tailPower;
+        private final int[] remainingWithUnits;
+
+        private final int[] rackType;
+        private final Map<Long, TreeSet<Integer>>[] racksByState;
+
+        private final int[] choice;
+        private final int[] nextCandidate;
+        private long freePower;
+        private long freeUnits;
+        private int unplaced;
+
+        private final int[] bestRackOfDevice;
+        private int bestUnplaced;
+
+        @SuppressWarnings("unchecked")
+        Search(DeviceSizes devices, RackLoad rackLoad, int[] initialRackOfDevice) {
+            this.numberOfDevices = devices.size();
+            this.numberOfRacks = rackLoad.size();
+            this.rackLoad = rackLoad;
+            this.deviceOrder = DeviceOrder.byPowerDescending(devices);
+
+            this.power = new int[numberOfDevices];
+            this.units = new int[numberOfDevices];
+            int maxDeviceUnits = 0;
+            for (int k = 0; k < numberOfDevices; k++) {
+                power[k] = devices.getPower()[deviceOrder[k]];
+                units[k] = Math.max(devices.getUnits()[deviceOrder[k]], 0);
+                maxDeviceUnits = Math.max(maxDeviceUnits, units[k]);
+            }
+
+            this.tailPower = new long[numberOfDevices + 1];
+            for (int k = 1; k <= numberOfDevices; k++) {
+                tailPower[k] = tailPower[k - 1] + power[numberOfDevices - k];
+            }
+            this.remainingWithUnits = new int[maxDeviceUnits + 1];
+            for (int k = 0; k < numberOfDevices; k++) {
+                remainingWithUnits[units[k]]++;
+            }
+
+            this.rackType = new int[numberOfRacks];
+            Map<Long, Integer> types = new HashMap<>();
+            for (int i = 0; i < numberOfRacks; i++) {
+                long capacity = ((long) rackLoad.getMaxPower()[i] << 32) | (rackLoad.getMaxUnits()[i] & 0xffffffffL);
+                rackType[i] = types.computeIfAbsent(capacity, c -> types.size());
+            }
+            this.racksByState = new Map[types.size()];
+            for (int t = 0; t < racksByState.length; t++) {
+                racksByState[t] = new HashMap<>();
+            }
+            for (int i = 0; i < numberOfRacks; i++) {
+                racksByState[rackType[i]].computeIfAbsent(stateOf(i), s -> new TreeSet<>()).add(i);
+                freePower += freePower(rackLoad, i);
+                freeUnits += freeUnits(rackLoad, i);
+            }
+
+            this.choice = new int[numberOfDevices];
+            this.nextCandidate = new int[numberOfDevices + 1];
+
+            this.bestRackOfDevice = initialRackOfDevice.clone();
+            int initiallyUnplaced = 0;
+            for (int rack : initialRackOfDevice) {
+                if (rack == -1) initiallyUnplaced++;
+            }
+            this.bestUnplaced = initiallyUnplaced;
+        }
+
+        /**
+         * Runs the search until it is exhausted, the incumbent reaches {@code lowerBound}, or the deadline passes or
+         * the thread is interrupted.
+         *
+         * @return whether the incumbent is proven optimal
+         */
+        boolean run(int lowerBound, long deadline) {
+            int depth = 0;
+            long iterations = 0;
+
+            while (true) {
+                if (++iterations % CLOCK_CHECK_INTERVAL == 0
+                        && (System.nanoTime() > deadline || Thread.currentThread().isInterrupted())) {
+                    return false;
+                }
+
+                if (depth == numberOfDevices) {
+                    if (unplaced < bestUnplaced) {
+                        recordIncumbent();
+                        if (bestUnplaced <= lowerBound) {
+                            return true;
+                        }
+                    }
+                    if (depth == 0) {
+                        return true;
+                    }
+                    undo(--depth);
+                    continue;
+                }
+
+                int candidate = unplaced + bound(depth) < bestUnplaced ? nextCandidate(depth) : -1;
+
+                if (candidate == -1) {
+                    if (depth == 0) {
+                        return true;
+                    }
+                    undo(--depth);
+                    continue;
+                }
+
+                apply(depth, candidate);
+                nextCandidate[depth] = candidate + 1;
+                nextCandidate[++depth] = 0;
+            }
+        }
+
+        /**
+         * Next branch to try at {@code depth}: a rack index, {@code numberOfRacks} for leaving the device
+         * unplaced, or {@code -1} when all branches are exhausted.
+         */
+        private int nextCandidate(int depth) {
+            for (int i = nextCandidate[depth]; i < numberOfRacks; i++) {
+                if (rackLoad.fits(i, power[depth], units[depth]) && racksByState[rackType[i]].get(stateOf(i)).first() == i) {
+                    return i;
+                }
+            }
+            if (nextCandidate[depth] <= numberOfRacks && unplaced + 1 + boundWithout(depth) < bestUnplaced) {
+                return numberOfRacks;
+            }
+            return -1;
+        }
+
+        /**
+         * Lower bound on how many of the devices from {@code depth} on stay unplaced.
+         */
+        private int bound(int depth) {
+            int remaining = numberOfDevices - depth;
+
+            int low = 0;
+            int high = remaining;
+            while (low < high) {
+                int mid = (low + high + 1) >>> 1;
+                if (tailPower[mid] <= freePower) {
+                    low = mid;
+                } else {
+                    high = mid - 1;
+                }
+            }
+            int placeableByPower = low;
+
+            int placeableByUnits = 0;
+            long unitsLeft = freeUnits;
+            for (int u = 0; u < remainingWithUnits.length && placeableByUnits < remaining; u++) {
+                int count = remainingWithUnits[u];
+                if (count == 0) continue;
+                long take = u == 0 ? count : Math.min(count, unitsLeft / u);
+                placeableByUnits += (int) take;
+                unitsLeft -= take * u;
+                if (take < count) break;
+            }
+
+            return remaining - Math.min(placeableByPower, placeableByUnits);
+        }
+
+        /**
+         * {@link #bound(int)} for the devices after {@code depth}, as if the device at {@code depth} were left out.
+         */
+        private int boundWithout(int depth) {
+            remainingWithUnits[units[depth]]--;
+            int bound = bound(depth + 1);
+            remainingWithUnits[units[depth]]++;
+            return bound;
+        }
+
+        private void apply(int depth, int candidate) {
+            choice[depth] = candidate;
+            remainingWithUnits[units[depth]]--;
+            if (candidate == numberOfRacks) {
+                unplaced++;
+            } else {
+                move(candidate, power[depth], units[depth]);
+            }
+        }
+
+        private void undo(int depth) {
+            int candidate = choice[depth];
+            remainingWithUnits[units[depth]]++;
+            if (candidate == numberOfRacks) {
+                unplaced--;
+            } else {
+                move(candidate, -power[depth], -units[depth]);
+            }
+        }
+
+        private void move(int rack, int powerDelta, int unitsDelta) {
+            Map<Long, TreeSet<Integer>> states = racksByState[rackType[rack]];
+            long oldState = stateOf(rack);
+            TreeSet<Integer> sameState = states.get(oldState);
+            sameState.remove(rack);
+            if (sameState.isEmpty()) {
+                states.remove(oldState);
+            }
+
+            freePower -= freePower(rackLoad, rack);
+            freeUnits -= freeUnits(rackLoad, rack);
+            rackLoad.place(rack, powerDelta, unitsDelta);
+            freePower += freePower(rackLoad, rack);
+            freeUnits += freeUnits(rackLoad, rack);
+
+            states.computeIfAbsent(stateOf(rack), s -> new TreeSet<>()).add(rack);
+        }
+
+        private long stateOf(int rack) {
+            return ((long) rackLoad.getUsedPower()[rack] << 32) | (rackLoad.getRemainingUnits()[rack] & 0xffffffffL);
+        }
+
+        private void recordIncumbent() {
+            for (int k = 0; k < numberOfDevices; k++) {
+                bestRackOfDevice[deviceOrder[k]] = choice[k] == numberOfRacks ? -1 : choice[k];
+            }
+            bestUnplaced = unplaced;
+        }
+    }
+}
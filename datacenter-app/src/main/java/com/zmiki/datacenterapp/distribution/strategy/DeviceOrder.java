@@ -0,0 +1,60 @@
+package com.zmiki.datacenterapp.distribution.strategy;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Random;
+import java.util.function.IntToDoubleFunction;
+
+/**
+ * Processing orders over the devices of a distribution, expressed as indexes into {@link DeviceSizes}. Sorting is
+ * stable, so devices that compare equal keep the order they were given in.
+ */
+final class DeviceOrder {
+
+    private DeviceOrder() {
+    }
+
+    /**
+     * Sorts packed {@code (inverted power, index)} longs, so no index is boxed and ties keep their original order.
+     */
+    static int[] byPowerDescending(DeviceSizes devices) {
+        int[] power = devices.getPower();
+
+        long[] keys = new long[power.length];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = ((long) (Integer.MAX_VALUE - power[i]) << 32) | i;
+        }
+        Arrays.sort(keys);
+
+        int[] order = new int[keys.length];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = (int) keys[i];
+        }
+        return order;
+    }
+
+    /**
+     * Decreasing power, with every power scaled by a random factor in {@code [1, 1 + jitter)} so that devices of
+     * similar power swap places between seeds.
+     */
+    static int[] byJitteredPowerDescending(DeviceSizes devices, double jitter, long seed) {
+        int[] power = devices.getPower();
+
+        Random random = new Random(seed);
+        double[] keys = new double[power.length];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = power[i] * (1 + jitter * random.nextDouble());
+        }
+        return descending(keys.length, i -> keys[i]);
+    }
+
+    static int[] descending(int size, IntToDoubleFunction key) {
+        Integer[] order = new Integer[size];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+
+        Arrays.sort(order, Comparator.<Integer>comparingDouble(key::applyAsDouble).reversed());
+        return Arrays.stream(order).mapToInt(Integer::intValue).toArray();
+    }
+}
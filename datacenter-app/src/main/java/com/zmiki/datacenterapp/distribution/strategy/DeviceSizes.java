@@ -0,0 +1,45 @@
+package com.zmiki.datacenterapp.distribution.strategy;
+
+import com.zmiki.datacenterapp.device.Device;
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * Power and units of the devices taking part in one distribution, indexed like the device list it was built from.
+ * <p>
+ * Strategies only read these arrays, so the entities are touched once when the distribution starts and again
+ * when the result is mapped back, never inside the placement loops.
+ */
+@Getter
+public class DeviceSizes {
+
+    private final int[] power;
+    private final int[] units;
+
+    public DeviceSizes(int[] power, int[] units) {
+        if (power.length != units.length) {
+            throw new IllegalArgumentException("Power and units must describe the same number of devices");
+        }
+        this.power = power;
+        this.units = units;
+    }
+
+    public static DeviceSizes of(List<Device> devices) {
+        int numberOfDevices = devices.size();
+
+        int[] power = new int[numberOfDevices];
+        int[] units = new int[numberOfDevices];
+
+        for (int i = 0; i < numberOfDevices; i++) {
+            Device device = devices.get(i);
+            power[i] = device.getPower();
+            units[i] = device.getUnits();
+        }
+        return new DeviceSizes(power, units);
+    }
+
+    public int size() {
+        return power.length;
+    }
+}
@@ -0,0 +1,36 @@
+package com.zmiki.datacenterapp.distribution.strategy;
+
+import org.springframework.stereotype.Component;
+
+@Component
+public class FirstFitDecreasingPlacementStrategy implements PlacementStrategy {
+
+    @Override
+    public PlacementStrategyType getType() {
+        return PlacementStrategyType.FIRST_FIT_DECREASING;
+    }
+
+    @Override
+    public int[] place(DeviceSizes devices, RackLoad rackLoad, PlacementProgress progress) {
+        int[] power = devices.getPower();
+        int[] units = devices.getUnits();
+        int[] rackOfDevice = new int[devices.size()];
+
+        for (int deviceIndex : DeviceOrder.byPowerDescending(devices)) {
+            int firstIndex = -1;
+            for (int i = 0; i < rackLoad.size(); i++) {
+                if (rackLoad.fits(i, power[deviceIndex], units[deviceIndex])) {
+                    firstIndex = i;
+                    break;
+                }
+            }
+
+            rackOfDevice[deviceIndex] = firstIndex;
+            if (firstIndex != -1) {
+                rackLoad.place(firstIndex, power[deviceIndex], units[deviceIndex]);
+            }
+            progress.devicesPlaced(1);
+        }
+        return rackOfDevice;
+    }
+}
@@ -0,0 +1,15 @@
+package com.zmiki.datacenterapp.distribution.strategy;
+
+/**
+ * Told by a strategy how many devices it has dealt with while it runs, placed or not, so that a running
+ * distribution can report how far it got. An implementation may stop the strategy by throwing, for instance a
+ * {@link java.util.concurrent.CancellationException} once the distribution has been cancelled.
+ */
+@FunctionalInterface
+public interface PlacementProgress {
+
+    PlacementProgress NONE = count -> {
+    };
+
+    void devicesPlaced(int count);
+}
@@ -0,0 +1,30 @@
+package com.zmiki.datacenterapp.distribution.strategy;
+
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+@Component
+public class PlacementStrategies {
+
+    public static final PlacementStrategyType DEFAULT_TYPE = PlacementStrategyType.BEST_FIT;
+
+    private final Map<PlacementStrategyType, PlacementStrategy> strategies = new EnumMap<>(PlacementStrategyType.class);
+
+    public PlacementStrategies(List<PlacementStrategy> strategies) {
+        for (PlacementStrategy strategy : strategies) {
+            this.strategies.put(strategy.getType(), strategy);
+        }
+    }
+
+    public PlacementStrategy get(PlacementStrategyType type) {
+        PlacementStrategyType resolvedType = type == null ? DEFAULT_TYPE : type;
+        PlacementStrategy strategy = strategies.get(resolvedType);
+        if (strategy == null) {
+            throw new IllegalArgumentException("Placement strategy " + resolvedType + " is not available");
+        }
+        return strategy;
+    }
+}
@@ -0,0 +1,26 @@
+package com.zmiki.datacenterapp.distribution.strategy;
+
+/**
+ * Algorithm that decides which rack every device of a distribution goes to.
+ * <p>
+ * Implementations are Spring beans picked up by {@link PlacementStrategies}; adding a new one only needs a new
+ * {@link PlacementStrategyType} constant and a component returning it.
+ */
+public interface PlacementStrategy {
+
+    PlacementStrategyType getType();
+
+    /**
+     * Places the devices into the racks described by {@code rackLoad}, updating it as devices are placed.
+     *
+     * Every device is reported to {@code progress} once it has been dealt with.
+     *
+     * @return the rack index chosen for each device, in the order of {@code devices}, or {@code -1} for devices
+     * that could not be placed
+     */
+    int[] place(DeviceSizes devices, RackLoad rackLoad, PlacementProgress progress);
+
+    default int[] place(DeviceSizes devices, RackLoad rackLoad) {
+        return place(devices, rackLoad, PlacementProgress.NONE);
+    }
+}
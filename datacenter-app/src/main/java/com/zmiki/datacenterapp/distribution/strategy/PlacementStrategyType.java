@@ -0,0 +1,35 @@
+package com.zmiki.datacenterapp.distribution.strategy;
+
+/**
+ * Built-in placement algorithms, roughly from the cheapest to the most expensive.
+ */
+public enum PlacementStrategyType {
+
+    /**
+     * Each device goes to the rack with the lowest power ratio after placement. Uses the capacity index and is
+     * the default.
+     */
+    BEST_FIT,
+
+    /**
+     * Each device goes to the first rack, in request order, that can still take it.
+     */
+    FIRST_FIT_DECREASING,
+
+    /**
+     * Each device goes to the rack left with the most absolute power headroom after placement.
+     */
+    WORST_FIT,
+
+    /**
+     * Weighs units and power together and picks the rack whose normalised remaining capacity is closest to the
+     * device's demand. Packs tighter than the one dimensional rules but scores every rack for every device.
+     */
+    VECTOR_PACKING,
+
+    /**
+     * Runs every other strategy plus a number of randomised best-fit restarts in parallel and keeps the placement
+     * with the most devices placed, then the most even power usage.
+     */
+    PORTFOLIO
+}
@@ -0,0 +1,165 @@
+package com.zmiki.datacenterapp.distribution.strategy;
+
+import com.zmiki.datacenterapp.distribution.DistributionProperties;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * Runs several placements of the same request side by side on the shared distribution pool, each on its own copy
+ * of the rack load, and keeps the best one.
+ * <p>
+ * The candidates are one run of every other strategy and a configurable number of best-fit runs over a randomly
+ * perturbed device order. They are spread over at most {@code maxParallelismPerRequest} tasks, each working through
+ * its share one after the other. Seeds are fixed, so the same request always gives the same placement.
+ * <p>
+ * When the calling thread is interrupted while waiting, the lanes are told to stop before their next candidate, the
+ * tasks are cancelled and the placement ends with a {@link CancellationException}.
+ */
+@Component
+@RequiredArgsConstructor
+public class PortfolioPlacementStrategy implements PlacementStrategy {
+
+    private static final double RESTART_JITTER = 0.2;
+
+    private final List<PlacementStrategy> strategies;
+    private final BestFitPlacementStrategy bestFitPlacementStrategy;
+    private final ForkJoinPool distributionPool;
+    private final DistributionProperties distributionProperties;
+
+    @Override
+    public PlacementStrategyType getType() {
+        return PlacementStrategyType.PORTFOLIO;
+    }
+
+    @Override
+    public int[] place(DeviceSizes devices, RackLoad rackLoad, PlacementProgress progress) {
+        List<Function<RackLoad, int[]>> candidates = new ArrayList<>();
+        for (PlacementStrategy strategy : strategies) {
+            if (strategy.getType() != PlacementStrategyType.PORTFOLIO) {
+                candidates.add(load -> strategy.place(devices, load));
+            }
+        }
+        for (int seed = 1; seed <= distributionProperties.getPortfolio().getRandomRestarts(); seed++) {
+            long restartSeed = seed;
+            candidates.add(load -> bestFitPlacementStrategy.place(devices, load,
+                    DeviceOrder.byJitteredPowerDescending(devices, RESTART_JITTER, restartSeed), PlacementProgress.NONE));
+        }
+
+        int lanes = Math.max(1, Math.min(distributionProperties.getPortfolio().getMaxParallelismPerRequest(), candidates.size()));
+
+        AtomicBoolean abandoned = new AtomicBoolean();
+        AtomicInteger finishedCandidates = new AtomicInteger();
+        List<ForkJoinTask<Candidate>> tasks = new ArrayList<>();
+        for (int lane = 0; lane < lanes; lane++) {
+            int firstCandidate = lane;
+            tasks.add(distributionPool.submit(() -> {
+                Candidate best = null;
+                for (int c = firstCandidate; c < candidates.size() && !abandoned.get(); c += lanes) {
+                    RackLoad load = rackLoad.copy();
+                    best = Candidate.better(best, new Candidate(c, candidates.get(c).apply(load), load));
+                    reportFinishedCandidate(progress, devices.size(), candidates.size(), finishedCandidates.incrementAndGet());
+                }
+                return best;
+            }));
+        }
+
+        Candidate best = null;
+        try {
+            for (ForkJoinTask<Candidate> task : tasks) {
+                best = Candidate.better(best, task.get());
+            }
+        } catch (InterruptedException e) {
+            abandon(tasks, abandoned);
+            Thread.currentThread().interrupt();
+            throw new CancellationException("Portfolio placement cancelled");
+        } catch (ExecutionException e) {
+            abandon(tasks, abandoned);
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+
+        for (int d = 0; d < devices.size(); d++) {
+            if (best.rackOfDevice[d] != -1) {
+                rackLoad.place(best.rackOfDevice[d], devices.getPower()[d], devices.getUnits()[d]);
+            }
+        }
+        return best.rackOfDevice;
+    }
+
+    /**
+     * Reports the devices in proportion to the candidates that have finished, so the total reported reaches the
+     * number of devices when the last candidate does.
+     */
+    private static void reportFinishedCandidate(PlacementProgress progress, int devices, int candidates, int finished) {
+        long reportedBefore = (long) devices * (finished - 1) / candidates;
+        long reportedNow = (long) devices * finished / candidates;
+        progress.devicesPlaced((int) (reportedNow - reportedBefore));
+    }
+
+    private static void abandon(List<ForkJoinTask<Candidate>> tasks, AtomicBoolean abandoned) {
+        abandoned.set(true);
+        tasks.forEach(task -> task.cancel(false));
+    }
+
+    private static final class Candidate {
+
+        private final int rank;
+        private final int[] rackOfDevice;
+        private final int placed;
+        private final double powerImbalance;
+
+        Candidate(int rank, int[] rackOfDevice, RackLoad rackLoad) {
+            this.rank = rank;
+            this.rackOfDevice = rackOfDevice;
+
+            int placedDevices = 0;
+            for (int rack : rackOfDevice) {
+                if (rack != -1) placedDevices++;
+            }
+            this.placed = placedDevices;
+            this.powerImbalance = powerUsageVariance(rackLoad);
+        }
+
+        /**
+         * More placed devices wins, then a lower variance of the racks' power usage, then the earlier candidate.
+         */
+        static Candidate better(Candidate a, Candidate b) {
+            if (a == null) return b;
+            if (b == null) return a;
+            if (a.placed != b.placed) {
+                return a.placed > b.placed ? a : b;
+            }
+            if (a.powerImbalance != b.powerImbalance) {
+                return a.powerImbalance < b.powerImbalance ? a : b;
+            }
+            return a.rank < b.rank ? a : b;
+        }
+
+        private static double powerUsageVariance(RackLoad rackLoad) {
+            double sum = 0;
+            double sumOfSquares = 0;
+            for (int i = 0; i < rackLoad.size(); i++) {
+                double usage = (double) rackLoad.getUsedPower()[i] / rackLoad.getMaxPower()[i];
+                sum += usage;
+                sumOfSquares += usage * usage;
+            }
+            double mean = sum / rackLoad.size();
+            return sumOfSquares / rackLoad.size() - mean * mean;
+        }
+    }
+}
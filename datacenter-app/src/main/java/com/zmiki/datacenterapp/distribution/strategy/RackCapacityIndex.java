@@ -0,0 +1,173 @@
+package com.zmiki.datacenterapp.distribution.strategy;
+
+/**
+ * Index over the per-rack {@code usedPower} / {@code remainingUnits} arrays that finds the best feasible
+ * rack for a device without scanning every rack.
+ * <p>
+ * "Best" is the rule the distribution has always used: the lowest power ratio after placement, then the
+ * most remaining units, then the lowest rack index. Ratios are compared exactly, by cross-multiplying. How
+ * two racks compare depends on the device's power when their {@code maxPower} differs, so the index is a
+ * kinetic tournament tree over all racks: every node keeps the winner of its racks together with the range of
+ * device powers for which that winner holds, and a lookup only replays the matches whose range excludes the
+ * device's power. Devices are placed in (nearly) decreasing power, so most stored winners carry over from one
+ * lookup to the next. Placing a device only invalidates the path from its rack to the root.
+ * <p>
+ * There is one tree per number of units asked for, created on first use and holding only the racks with at
+ * least that many units left, so its winner is the best rack on units. It also fits the device's power
+ * exactly when its ratio after placement is at most 1, and if it does not, no other rack does.
+ * <p>
+ * The arrays are shared with the caller and must only be changed through {@link #place(int, int, int)}.
+ */
+public final class RackCapacityIndex {
+
+    private final int[] maxPower;
+    private final int[] usedPower;
+    private final int[] remainingUnits;
+
+    private final int leafCount;
+    private final Tournament[] tournamentsByUnits;
+
+    public RackCapacityIndex(int[] maxPower, int[] usedPower, int[] remainingUnits) {
+        this.maxPower = maxPower;
+        this.usedPower = usedPower;
+        this.remainingUnits = remainingUnits;
+
+        int size = 1;
+        while (size < maxPower.length) {
+            size <<= 1;
+        }
+        this.leafCount = size;
+
+        int maxRemainingUnits = 0;
+        for (int units : remainingUnits) {
+            maxRemainingUnits = Math.max(maxRemainingUnits, units);
+        }
+        this.tournamentsByUnits = new Tournament[maxRemainingUnits + 1];
+    }
+
+    /**
+     * Returns the index of the rack the device should go to, or {@code -1} if no rack can take it.
+     */
+    public int findBestRack(int power, int units) {
+        int threshold = Math.max(units, 0);
+        if (threshold >= tournamentsByUnits.length) {
+            return -1;
+        }
+        if (tournamentsByUnits[threshold] == null) {
+            tournamentsByUnits[threshold] = new Tournament(threshold);
+        }
+
+        int best = tournamentsByUnits[threshold].winnerAt(1, power);
+        if (best == -1 || usedPower[best] + power > maxPower[best]) {
+            return -1;
+        }
+        return best;
+    }
+
+    /**
+     * Records a device placed into {@code rack}, updating the shared arrays and the index.
+     */
+    public void place(int rack, int power, int units) {
+        usedPower[rack] += power;
+        remainingUnits[rack] -= units;
+        for (Tournament tournament : tournamentsByUnits) {
+            if (tournament != null) {
+                tournament.update(rack);
+            }
+        }
+    }
+
+    private final class Tournament {
+
+        private final int threshold;
+        private final int[] winner;
+        private final long[] validFrom;
+        private final long[] validTo;
+
+        Tournament(int threshold) {
+            this.threshold = threshold;
+            this.winner = new int[2 * leafCount];
+            this.validFrom = new long[2 * leafCount];
+            this.validTo = new long[2 * leafCount];
+
+            for (int leaf = 0; leaf < leafCount; leaf++) {
+                refreshLeaf(leaf);
+            }
+            for (int node = 1; node < leafCount; node++) {
+                invalidate(node);
+            }
+        }
+
+        void update(int rack) {
+            refreshLeaf(rack);
+            for (int node = (rack + leafCount) >> 1; node > 0 && validFrom[node] <= validTo[node]; node >>= 1) {
+                invalidate(node);
+            }
+        }
+
+        /**
+         * Winner of the racks below {@code node} for a device of {@code power}, replaying only the matches whose
+         * stored result does not hold for it. A parent's range always lies within its children's ranges.
+         */
+        int winnerAt(int node, int power) {
+            if (validFrom[node] <= power && power <= validTo[node]) {
+                return winner[node];
+            }
+            int left = 2 * node;
+            int right = left + 1;
+            int a = winnerAt(left, power);
+            int b = winnerAt(right, power);
+            validFrom[node] = Math.max(validFrom[left], validFrom[right]);
+            validTo[node] = Math.min(validTo[left], validTo[right]);
+
+            if (a == -1 || b == -1) {
+                winner[node] = a == -1 ? b : a;
+                return winner[node];
+            }
+
+            long constant = (long) usedPower[a] * maxPower[b] - (long) usedPower[b] * maxPower[a];
+            long slope = (long) maxPower[b] - maxPower[a];
+            long difference = constant + slope * power;
+            if (difference == 0) {
+                winner[node] = isBetterOnTie(a, b) ? a : b;
+                if (slope != 0) {
+                    validFrom[node] = Math.max(validFrom[node], power);
+                    validTo[node] = Math.min(validTo[node], power);
+                }
+                return winner[node];
+            }
+
+            winner[node] = difference < 0 ? a : b;
+            if (difference > 0) {
+                constant = -constant;
+                slope = -slope;
+            }
+            if (slope > 0) {
+                validTo[node] = Math.min(validTo[node], Math.floorDiv(-constant - 1, slope));
+            } else if (slope < 0) {
+                validFrom[node] = Math.max(validFrom[node], Math.floorDiv(constant, -slope) + 1);
+            }
+            return winner[node];
+        }
+
+        private void refreshLeaf(int leaf) {
+            int node = leaf + leafCount;
+            boolean present = leaf < maxPower.length && remainingUnits[leaf] >= threshold;
+            winner[node] = present ? leaf : -1;
+            validFrom[node] = Long.MIN_VALUE;
+            validTo[node] = Long.MAX_VALUE;
+        }
+
+        private void invalidate(int node) {
+            validFrom[node] = Long.MAX_VALUE;
+            validTo[node] = Long.MIN_VALUE;
+        }
+    }
+
+    private boolean isBetterOnTie(int candidate, int current) {
+        if (remainingUnits[candidate] != remainingUnits[current]) {
+            return remainingUnits[candidate] > remainingUnits[current];
+        }
+        return candidate < current;
+    }
+}
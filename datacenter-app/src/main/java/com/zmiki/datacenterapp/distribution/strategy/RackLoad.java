@@ -0,0 +1,62 @@
+package com.zmiki.datacenterapp.distribution.strategy;
+
+import com.zmiki.datacenterapp.rack.Rack;
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * Capacity state of the racks taking part in one distribution, indexed like the rack list it was built from.
+ */
+@Getter
+public class RackLoad {
+
+    private final int[] maxPower;
+    private final int[] maxUnits;
+    private final int[] usedPower;
+    private final int[] remainingUnits;
+
+    private RackLoad(int[] maxPower, int[] maxUnits, int[] usedPower, int[] remainingUnits) {
+        this.maxPower = maxPower;
+        this.maxUnits = maxUnits;
+        this.usedPower = usedPower;
+        this.remainingUnits = remainingUnits;
+    }
+
+    public static RackLoad empty(List<Rack> racks) {
+        int numberOfRacks = racks.size();
+
+        int[] maxPower = new int[numberOfRacks];
+        int[] maxUnits = new int[numberOfRacks];
+
+        for (int i = 0; i < numberOfRacks; i++) {
+            maxPower[i] = racks.get(i).getMaxPower();
+            maxUnits[i] = racks.get(i).getMaxUnits();
+        }
+        return empty(maxPower, maxUnits);
+    }
+
+    public static RackLoad empty(int[] maxPower, int[] maxUnits) {
+        if (maxPower.length != maxUnits.length) {
+            throw new IllegalArgumentException("Max power and max units must describe the same number of racks");
+        }
+        return new RackLoad(maxPower, maxUnits, new int[maxPower.length], maxUnits.clone());
+    }
+
+    public int size() {
+        return maxPower.length;
+    }
+
+    public boolean fits(int rack, int power, int units) {
+        return units <= remainingUnits[rack] && usedPower[rack] + power <= maxPower[rack];
+    }
+
+    public void place(int rack, int power, int units) {
+        usedPower[rack] += power;
+        remainingUnits[rack] -= units;
+    }
+
+    public RackLoad copy() {
+        return new RackLoad(maxPower, maxUnits, usedPower.clone(), remainingUnits.clone());
+    }
+}
@@ -0,0 +1,21 @@
+package com.zmiki.datacenterapp.distribution.strategy;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class SolverResult {
+
+    /**
+     * Rack index chosen for each device, or {@code -1} for unplaced devices.
+     */
+    private final int[] rackOfDevice;
+
+    private final boolean provenOptimal;
+
+    /**
+     * No placement of these devices leaves fewer of them unplaced.
+     */
+    private final int unplacedLowerBound;
+}
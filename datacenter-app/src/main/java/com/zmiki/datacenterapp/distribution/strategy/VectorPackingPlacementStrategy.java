@@ -0,0 +1,68 @@
+package com.zmiki.datacenterapp.distribution.strategy;
+
+import org.springframework.stereotype.Component;
+
+/**
+ * Two-dimensional packing over power and units. Both are normalised by the rack's capacity, devices are taken
+ * largest first by their combined normalised size, and each goes to the feasible rack left with the shortest
+ * remaining capacity vector, i.e. the tightest fit across both dimensions at once.
+ */
+@Component
+public class VectorPackingPlacementStrategy implements PlacementStrategy {
+
+    @Override
+    public PlacementStrategyType getType() {
+        return PlacementStrategyType.VECTOR_PACKING;
+    }
+
+    @Override
+    public int[] place(DeviceSizes devices, RackLoad rackLoad, PlacementProgress progress) {
+        int[] power = devices.getPower();
+        int[] units = devices.getUnits();
+        int[] maxPower = rackLoad.getMaxPower();
+        int[] maxUnits = rackLoad.getMaxUnits();
+        int[] usedPower = rackLoad.getUsedPower();
+        int[] remainingUnits = rackLoad.getRemainingUnits();
+
+        double averageMaxPower = average(maxPower);
+        double averageMaxUnits = average(maxUnits);
+
+        int[] order = DeviceOrder.descending(devices.size(),
+                d -> power[d] / averageMaxPower + units[d] / averageMaxUnits);
+
+        int[] rackOfDevice = new int[devices.size()];
+
+        for (int deviceIndex : order) {
+            int bestIndex = -1;
+            double bestResidual = Double.POSITIVE_INFINITY;
+
+            for (int i = 0; i < rackLoad.size(); i++) {
+                if (!rackLoad.fits(i, power[deviceIndex], units[deviceIndex])) continue;
+
+                double powerLeft = (double) (maxPower[i] - usedPower[i] - power[deviceIndex]) / maxPower[i];
+                double unitsLeft = (double) (remainingUnits[i] - units[deviceIndex]) / maxUnits[i];
+                double residual = powerLeft * powerLeft + unitsLeft * unitsLeft;
+
+                if (residual < bestResidual) {
+                    bestIndex = i;
+                    bestResidual = residual;
+                }
+            }
+
+            rackOfDevice[deviceIndex] = bestIndex;
+            if (bestIndex != -1) {
+                rackLoad.place(bestIndex, power[deviceIndex], units[deviceIndex]);
+            }
+            progress.devicesPlaced(1);
+        }
+        return rackOfDevice;
+    }
+
+    private static double average(int[] values) {
+        long sum = 0;
+        for (int value : values) {
+            sum += value;
+        }
+        return (double) sum / values.length;
+    }
+}
@@ -0,0 +1,46 @@
+package com.zmiki.datacenterapp.distribution.strategy;
+
+import org.springframework.stereotype.Component;
+
+@Component
+public class WorstFitPlacementStrategy implements PlacementStrategy {
+
+    @Override
+    public PlacementStrategyType getType() {
+        return PlacementStrategyType.WORST_FIT;
+    }
+
+    @Override
+    public int[] place(DeviceSizes devices, RackLoad rackLoad, PlacementProgress progress) {
+        int[] power = devices.getPower();
+        int[] units = devices.getUnits();
+        int[] maxPower = rackLoad.getMaxPower();
+        int[] usedPower = rackLoad.getUsedPower();
+        int[] remainingUnits = rackLoad.getRemainingUnits();
+
+        int[] rackOfDevice = new int[devices.size()];
+
+        for (int deviceIndex : DeviceOrder.byPowerDescending(devices)) {
+            int bestIndex = -1;
+            int bestHeadroom = -1;
+
+            for (int i = 0; i < rackLoad.size(); i++) {
+                if (!rackLoad.fits(i, power[deviceIndex], units[deviceIndex])) continue;
+
+                int headroom = maxPower[i] - usedPower[i] - power[deviceIndex];
+
+                if (headroom > bestHeadroom || (headroom == bestHeadroom && remainingUnits[i] > remainingUnits[bestIndex])) {
+                    bestIndex = i;
+                    bestHeadroom = headroom;
+                }
+            }
+
+            rackOfDevice[deviceIndex] = bestIndex;
+            if (bestIndex != -1) {
+                rackLoad.place(bestIndex, power[deviceIndex], units[deviceIndex]);
+            }
+            progress.devicesPlaced(1);
+        }
+        return rackOfDevice;
+    }
+}
@@ -0,0 +1,8 @@
+package com.zmiki.datacenterapp.exception;
+
+public class DevicesMountedElsewhereException extends RuntimeException {
+
+    public DevicesMountedElsewhereException(String message) {
+        super(message);
+    }
+}
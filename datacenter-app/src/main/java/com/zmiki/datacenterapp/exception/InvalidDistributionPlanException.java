@@ -0,0 +1,8 @@
+package com.zmiki.datacenterapp.exception;
+
+public class InvalidDistributionPlanException extends RuntimeException {
+
+    public InvalidDistributionPlanException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,8 @@
+package com.zmiki.datacenterapp.exception;
+
+public class InvalidFieldSelectionException extends RuntimeException {
+
+    public InvalidFieldSelectionException(String message) {
+        super(message);
+    }
+}
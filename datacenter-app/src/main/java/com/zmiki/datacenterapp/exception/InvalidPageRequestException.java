@@ -0,0 +1,8 @@
+package com.zmiki.datacenterapp.exception;
+
+public class InvalidPageRequestException extends RuntimeException {
+
+    public InvalidPageRequestException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,8 @@
+package com.zmiki.datacenterapp.exception;
+
+public class RackCapacityExceededException extends RuntimeException {
+
+    public RackCapacityExceededException(String message) {
+        super(message);
+    }
+}
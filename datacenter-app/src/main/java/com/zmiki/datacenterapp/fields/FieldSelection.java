@@ -0,0 +1,130 @@
+package com.zmiki.datacenterapp.fields;
+
+import com.fasterxml.jackson.databind.ser.FilterProvider;
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+import com.zmiki.datacenterapp.exception.InvalidFieldSelectionException;
+import org.springframework.http.converter.json.MappingJacksonValue;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+
+/**
+ * Properties of rack representations requested through the {@code fields} and {@code include} query parameters.
+ * Without either parameter the full representation, devices included, is returned. Once either is given, only the
+ * listed fields are returned, all of them when {@code fields} is absent, and devices only when {@code devices} is
+ * listed in {@code fields} or {@code include}, so callers that skip them also skip loading and converting them.
+ * <p>
+ * Selections are applied by the {@value #FILTER_ID} Jackson filter of the annotated DTOs; {@link #apply} wraps a
+ * response body with the matching filter.
+ */
+public final class FieldSelection {
+
+    public static final String FILTER_ID = "fieldSelection";
+    public static final String DEVICES = "devices";
+
+    private static final FieldSelection ALL = new FieldSelection(null, true);
+
+    /**
+     * Selected properties, or {@code null} for all of them.
+     */
+    private final Set<String> fields;
+    private final boolean includeDevices;
+
+    private FieldSelection(Set<String> fields, boolean includeDevices) {
+        this.fields = fields;
+        this.includeDevices = includeDevices;
+    }
+
+    public static FieldSelection all() {
+        return ALL;
+    }
+
+    /**
+     * Parses the comma-separated query parameters, checking {@code fields} against the properties of {@code type}.
+     */
+    public static FieldSelection parse(String fields, String include, Class<?> type) {
+        if (fields == null && include == null) {
+            return ALL;
+        }
+
+        Set<String> includes = split(include);
+        for (String name : includes) {
+            if (!DEVICES.equals(name)) {
+                throw new InvalidFieldSelectionException("Unknown include: " + name);
+            }
+        }
+
+        if (fields == null) {
+            return new FieldSelection(null, includes.contains(DEVICES));
+        }
+        Set<String> properties = propertiesOf(type);
+        Set<String> selected = split(fields);
+        for (String name : selected) {
+            if (!properties.contains(name)) {
+                throw new InvalidFieldSelectionException("Unknown field: " + name);
+            }
+        }
+        if (includes.contains(DEVICES)) {
+            selected.add(DEVICES);
+        }
+        return new FieldSelection(Set.copyOf(selected), selected.contains(DEVICES));
+    }
+
+    public boolean includesDevices() {
+        return includeDevices;
+    }
+
+    public FilterProvider filterProvider() {
+        SimpleBeanPropertyFilter filter;
+        if (fields != null) {
+            filter = SimpleBeanPropertyFilter.filterOutAllExcept(fields);
+        } else if (!includeDevices) {
+            filter = SimpleBeanPropertyFilter.serializeAllExcept(DEVICES);
+        } else {
+            filter = SimpleBeanPropertyFilter.serializeAll();
+        }
+        return new SimpleFilterProvider().addFilter(FILTER_ID, filter);
+    }
+
+    public MappingJacksonValue apply(Object body) {
+        MappingJacksonValue value = new MappingJacksonValue(body);
+        value.setFilters(filterProvider());
+        return value;
+    }
+
+    /**
+     * Derives the strong ETag of this selection from the tag of the full representation, since every selection is
+     * a representation of its own.
+     */
+    public String tag(String eTag) {
+        if (fields == null && includeDevices) {
+            return eTag;
+        }
+        String selection = (fields == null ? "*" : String.join(",", new TreeSet<>(fields)))
+                + (includeDevices ? "+" + DEVICES : "");
+        return eTag.substring(0, eTag.length() - 1) + ";" + selection + "\"";
+    }
+
+    private static Set<String> split(String value) {
+        if (value == null) {
+            return new LinkedHashSet<>();
+        }
+        return Arrays.stream(value.split(","))
+                .map(String::trim)
+                .filter(name -> !name.isEmpty())
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+    }
+
+    private static Set<String> propertiesOf(Class<?> type) {
+        return Arrays.stream(type.getDeclaredFields())
+                .filter(field -> !Modifier.isStatic(field.getModifiers()))
+                .map(Field::getName)
+                .collect(Collectors.toSet());
+    }
+}
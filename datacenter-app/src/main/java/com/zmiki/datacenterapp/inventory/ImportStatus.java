@@ -0,0 +1,11 @@
+package com.zmiki.datacenterapp.inventory;
+
+public enum ImportStatus {
+    RUNNING,
+    COMPLETED,
+    FAILED;
+
+    public boolean isFinished() {
+        return this != RUNNING;
+    }
+}
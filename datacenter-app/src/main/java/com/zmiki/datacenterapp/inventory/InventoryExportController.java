@@ -0,0 +1,27 @@
+package com.zmiki.datacenterapp.inventory;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+@RestController
+@RequestMapping("/api/export")
+@RequiredArgsConstructor
+@Tag(name = "Inventory export", description = "API for exporting the whole rack and device inventory")
+public class InventoryExportController {
+
+    private final InventoryExportService inventoryExportService;
+
+    @GetMapping
+    @Operation(summary = "Streams all racks and devices with their rack assignments as NDJSON or CSV")
+    public ResponseEntity<StreamingResponseBody> export(@RequestParam(defaultValue = "NDJSON") InventoryFormat format) {
+        StreamingResponseBody body = outputStream -> inventoryExportService.export(format, outputStream);
+        return ResponseEntity.ok().contentType(format.getMediaType()).body(body);
+    }
+}
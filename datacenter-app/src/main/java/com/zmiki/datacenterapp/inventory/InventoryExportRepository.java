@@ -0,0 +1,61 @@
+package com.zmiki.datacenterapp.inventory;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.function.Consumer;
+
+/**
+ * Reads the whole inventory through forward-only cursors. Postgres only fetches {@value #FETCH_SIZE} rows per round
+ * trip when this runs inside a transaction; otherwise the driver loads the complete result set.
+ */
+@Repository
+@RequiredArgsConstructor
+public class InventoryExportRepository {
+
+    static final int FETCH_SIZE = 1000;
+
+    private static final String RACKS_SQL =
+            "SELECT serial_number, name, description, max_units, max_power FROM rack ORDER BY serial_number";
+
+    private static final String DEVICES_SQL =
+            "SELECT d.serial_number, d.name, d.description, d.units, d.power, r.serial_number AS rack_serial_number " +
+            "FROM device d LEFT JOIN rack r ON r.id = d.rack_id ORDER BY d.serial_number";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public void forEachRack(Consumer<InventoryExportRow> sink) {
+        query(RACKS_SQL, rs -> sink.accept(InventoryExportRow.builder()
+                .type(InventoryItemType.RACK)
+                .serialNumber(rs.getString("serial_number"))
+                .name(rs.getString("name"))
+                .description(rs.getString("description"))
+                .units(rs.getInt("max_units"))
+                .power(rs.getInt("max_power"))
+                .build()));
+    }
+
+    public void forEachDevice(Consumer<InventoryExportRow> sink) {
+        query(DEVICES_SQL, rs -> sink.accept(InventoryExportRow.builder()
+                .type(InventoryItemType.DEVICE)
+                .serialNumber(rs.getString("serial_number"))
+                .name(rs.getString("name"))
+                .description(rs.getString("description"))
+                .units(rs.getInt("units"))
+                .power(rs.getInt("power"))
+                .rackSerialNumber(rs.getString("rack_serial_number"))
+                .build()));
+    }
+
+    private void query(String sql, RowCallbackHandler handler) {
+        jdbcTemplate.query(connection -> {
+            PreparedStatement ps = connection.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            ps.setFetchSize(FETCH_SIZE);
+            return ps;
+        }, handler);
+    }
+}
@@ -0,0 +1,26 @@
+package com.zmiki.datacenterapp.inventory;
+
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One exported rack or device. For racks {@code units} and {@code power} are the rack's capacity; for devices they
+ * are what the device takes, and {@code rackSerialNumber} is the rack it is mounted in, if any.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonPropertyOrder({"type", "serialNumber", "name", "description", "units", "power", "rackSerialNumber"})
+public class InventoryExportRow {
+    private InventoryItemType type;
+    private String serialNumber;
+    private String name;
+    private String description;
+    private int units;
+    private int power;
+    private String rackSerialNumber;
+}
@@ -0,0 +1,80 @@
+package com.zmiki.datacenterapp.inventory;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.function.Consumer;
+
+@Service
+@RequiredArgsConstructor
+public class InventoryExportService {
+
+    private static final CsvMapper CSV_MAPPER = new CsvMapper();
+
+    private final InventoryExportRepository inventoryExportRepository;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Writes all racks, then all devices, each ordered by serial number, while they are read from the database. Only
+     * one fetch of rows is held in memory at a time; the read-only transaction keeps the cursors open.
+     */
+    @Transactional(readOnly = true)
+    public void export(InventoryFormat format, OutputStream outputStream) throws IOException {
+        switch (format) {
+            case CSV -> exportCsv(outputStream);
+            case NDJSON -> exportNdjson(outputStream);
+        }
+    }
+
+    private void exportCsv(OutputStream outputStream) throws IOException {
+        ObjectWriter writer = CSV_MAPPER.writerFor(InventoryExportRow.class)
+                .with(CSV_MAPPER.schemaFor(InventoryExportRow.class).withHeader())
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        try (SequenceWriter rows = writer.writeValues(outputStream)) {
+            forEachRow(rows::write);
+        }
+    }
+
+    /**
+     * Every record, the last one included, ends with a newline, as NDJSON requires of each line.
+     */
+    private void exportNdjson(OutputStream outputStream) throws IOException {
+        ObjectWriter writer = objectMapper.writerFor(InventoryExportRow.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        try (JsonGenerator generator = objectMapper.createGenerator(outputStream)) {
+            generator.setRootValueSeparator(null);
+            forEachRow(row -> {
+                writer.writeValue(generator, row);
+                generator.writeRaw('\n');
+            });
+        }
+    }
+
+    private void forEachRow(RowWriter rowWriter) {
+        Consumer<InventoryExportRow> sink = row -> {
+            try {
+                rowWriter.write(row);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        };
+        inventoryExportRepository.forEachRack(sink);
+        inventoryExportRepository.forEachDevice(sink);
+    }
+
+    @FunctionalInterface
+    private interface RowWriter {
+
+        void write(InventoryExportRow row) throws IOException;
+    }
+}
@@ -0,0 +1,102 @@
+package com.zmiki.datacenterapp.inventory;
+
+import com.zmiki.datacenterapp.bulk.BulkCreateResult;
+import com.zmiki.datacenterapp.bulk.BulkItemResult;
+import com.zmiki.datacenterapp.bulk.BulkItemStatus;
+import lombok.Getter;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * One running or finished import. It is updated by the request thread and read by pollers, hence the
+ * synchronized accessors.
+ */
+@Getter
+class InventoryImport {
+
+    private final UUID id = UUID.randomUUID();
+    private final Instant startedAt = Instant.now();
+    private final ImportTarget target;
+    private final InventoryFormat format;
+    private final long startOffset;
+    private final int maxReportedFailures;
+
+    private ImportStatus status = ImportStatus.RUNNING;
+    private Instant finishedAt;
+    private long recordsRead;
+    private long committedOffset;
+    private long created;
+    private long failed;
+    private final List<BulkItemResult> failures = new ArrayList<>();
+    private String error;
+
+    InventoryImport(ImportTarget target, InventoryFormat format, long startOffset, int maxReportedFailures) {
+        this.target = target;
+        this.format = format;
+        this.startOffset = startOffset;
+        this.maxReportedFailures = maxReportedFailures;
+        this.committedOffset = startOffset;
+    }
+
+    synchronized void recordRead() {
+        recordsRead++;
+    }
+
+    /**
+     * Counts a written batch whose first record is at {@code committedOffset}.
+     */
+    synchronized void batchCommitted(int size, BulkCreateResult result) {
+        for (BulkItemResult item : result.getItems()) {
+            if (item.getStatus() == BulkItemStatus.FAILED && failures.size() < maxReportedFailures) {
+                failures.add(BulkItemResult.failed((int) (committedOffset + item.getIndex()), item.getSerialNumber(),
+                        item.getMessage()));
+            }
+        }
+        created += result.getCreated();
+        failed += result.getFailed();
+        committedOffset += size;
+    }
+
+    synchronized void complete() {
+        finish(ImportStatus.COMPLETED);
+    }
+
+    synchronized void fail(String error) {
+        this.error = error;
+        finish(ImportStatus.FAILED);
+    }
+
+    synchronized InventoryImportDto toDto() {
+        return InventoryImportDto.builder()
+                .id(id)
+                .target(target)
+                .format(format)
+                .status(status)
+                .startedAt(startedAt)
+                .finishedAt(finishedAt)
+                .startOffset(startOffset)
+                .recordsRead(recordsRead)
+                .committedOffset(committedOffset)
+                .created(created)
+                .failed(failed)
+                .failures(List.copyOf(failures))
+                .error(error)
+                .build();
+    }
+
+    synchronized ImportStatus getStatus() {
+        return status;
+    }
+
+    synchronized Instant getFinishedAt() {
+        return finishedAt;
+    }
+
+    private void finish(ImportStatus finalStatus) {
+        status = finalStatus;
+        finishedAt = Instant.now();
+    }
+}
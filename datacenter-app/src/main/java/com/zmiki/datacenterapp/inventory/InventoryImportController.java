@@ -0,0 +1,63 @@
+package com.zmiki.datacenterapp.inventory;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.InputStream;
+import java.util.List;
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/api/import")
+@RequiredArgsConstructor
+@Tag(name = "Inventory import", description = "API for importing large CSV or NDJSON inventory files")
+public class InventoryImportController {
+
+    private final InventoryImportService inventoryImportService;
+
+    @PostMapping(path = "/devices", consumes = {"text/csv", "application/x-ndjson"})
+    @Operation(summary = "Imports devices from a CSV or NDJSON stream, resuming after offset records if given")
+    public ResponseEntity<InventoryImportDto> importDevices(
+            InputStream body,
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+            @RequestParam(defaultValue = "0") long offset) {
+        return toResponse(inventoryImportService.importDevices(body, InventoryFormat.fromContentType(contentType), offset));
+    }
+
+    @PostMapping(path = "/racks", consumes = {"text/csv", "application/x-ndjson"})
+    @Operation(summary = "Imports racks from a CSV or NDJSON stream, resuming after offset records if given")
+    public ResponseEntity<InventoryImportDto> importRacks(
+            InputStream body,
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+            @RequestParam(defaultValue = "0") long offset) {
+        return toResponse(inventoryImportService.importRacks(body, InventoryFormat.fromContentType(contentType), offset));
+    }
+
+    @GetMapping
+    @Operation(summary = "Lists running and recently finished imports")
+    public ResponseEntity<List<InventoryImportDto>> getImports() {
+        return ResponseEntity.ok(inventoryImportService.getImports());
+    }
+
+    @GetMapping("/{id}")
+    @Operation(summary = "Returns the progress of an import")
+    public ResponseEntity<InventoryImportDto> getImport(@PathVariable UUID id) {
+        return ResponseEntity.ok(inventoryImportService.getImport(id));
+    }
+
+    private ResponseEntity<InventoryImportDto> toResponse(InventoryImportDto inventoryImport) {
+        HttpStatus status = inventoryImport.getStatus() == ImportStatus.FAILED ? HttpStatus.UNPROCESSABLE_ENTITY : HttpStatus.OK;
+        return ResponseEntity.status(status).body(inventoryImport);
+    }
+}
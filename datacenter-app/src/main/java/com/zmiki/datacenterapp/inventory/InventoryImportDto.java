@@ -0,0 +1,38 @@
+package com.zmiki.datacenterapp.inventory;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.zmiki.datacenterapp.bulk.BulkItemResult;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * State of an import. {@code committedOffset} counts the records of the file, skipped ones included, that are
+ * written; passing it as {@code offset} when uploading the same file again resumes after the last committed batch.
+ * Failure indexes are record positions in the file.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class InventoryImportDto {
+    private UUID id;
+    private ImportTarget target;
+    private InventoryFormat format;
+    private ImportStatus status;
+    private Instant startedAt;
+    private Instant finishedAt;
+    private long startOffset;
+    private long recordsRead;
+    private long committedOffset;
+    private long created;
+    private long failed;
+    private List<BulkItemResult> failures;
+    private String error;
+}
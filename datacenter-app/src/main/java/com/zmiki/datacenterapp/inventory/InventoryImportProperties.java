@@ -0,0 +1,33 @@
+package com.zmiki.datacenterapp.inventory;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "datacenter.import")
+public class InventoryImportProperties {
+
+    /**
+     * Records parsed and written per transaction; also the most records held in memory at once.
+     */
+    private int batchSize = 1000;
+
+    /**
+     * Failed items kept in the report of one import; further failures are only counted.
+     */
+    private int maxReportedFailures = 100;
+
+    /**
+     * Finished imports kept for polling; the oldest are dropped first.
+     */
+    private int maxRetainedImports = 100;
+
+    /**
+     * How long a finished import stays available for polling.
+     */
+    private Duration retention = Duration.ofHours(1);
+}
@@ -0,0 +1,138 @@
+package com.zmiki.datacenterapp.inventory;
+
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvSchema;
+import com.zmiki.datacenterapp.bulk.BulkCreateResult;
+import com.zmiki.datacenterapp.device.DeviceService;
+import com.zmiki.datacenterapp.device.dto.DeviceCreateDto;
+import com.zmiki.datacenterapp.rack.RackService;
+import com.zmiki.datacenterapp.rack.dto.RackCreateDto;
+import jakarta.persistence.EntityNotFoundException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Imports inventory files of any size. Records are parsed one at a time from the request body and written through
+ * the bulk create path in batches of {@code batchSize}, each in its own transaction, so memory use does not depend
+ * on the file size and reading the upload only goes as fast as the database accepts the batches.
+ * <p>
+ * Imports are tracked in memory for polling and pruned like distribution jobs whenever a new import starts.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class InventoryImportService {
+
+    private static final CsvMapper CSV_MAPPER = new CsvMapper();
+
+    private final DeviceService deviceService;
+    private final RackService rackService;
+    private final ObjectMapper objectMapper;
+    private final InventoryImportProperties importProperties;
+
+    private final Map<UUID, InventoryImport> imports = new ConcurrentHashMap<>();
+
+    public InventoryImportDto importDevices(InputStream body, InventoryFormat format, long offset) {
+        return runImport(ImportTarget.DEVICES, body, format, offset, DeviceCreateDto.class, deviceService::createDevices);
+    }
+
+    public InventoryImportDto importRacks(InputStream body, InventoryFormat format, long offset) {
+        return runImport(ImportTarget.RACKS, body, format, offset, RackCreateDto.class, rackService::createRacks);
+    }
+
+    public InventoryImportDto getImport(UUID id) {
+        InventoryImport inventoryImport = imports.get(id);
+        if (inventoryImport == null) {
+            throw new EntityNotFoundException("Import not found: " + id);
+        }
+        return inventoryImport.toDto();
+    }
+
+    public List<InventoryImportDto> getImports() {
+        return imports.values().stream()
+                .sorted(Comparator.comparing(InventoryImport::getStartedAt).reversed())
+                .map(InventoryImport::toDto)
+                .toList();
+    }
+
+    /**
+     * Skips the first {@code offset} records, then writes the rest batch by batch. A record that cannot be parsed
+     * or a batch that cannot be written stops the import; batches committed before stay written.
+     */
+    private <T> InventoryImportDto runImport(ImportTarget target, InputStream body, InventoryFormat format, long offset,
+                                             Class<T> type, Function<List<T>, BulkCreateResult> writer) {
+        pruneFinishedImports();
+
+        InventoryImport inventoryImport = new InventoryImport(target, format, offset, importProperties.getMaxReportedFailures());
+        imports.put(inventoryImport.getId(), inventoryImport);
+        if (offset < 0) {
+            inventoryImport.fail("Offset must not be negative");
+            return inventoryImport.toDto();
+        }
+
+        int batchSize = importProperties.getBatchSize();
+        long position = 0;
+        try (MappingIterator<T> records = readerFor(format, type).readValues(body)) {
+            List<T> batch = new ArrayList<>(batchSize);
+            while (records.hasNextValue()) {
+                T record = records.nextValue();
+                position++;
+                inventoryImport.recordRead();
+                if (position <= offset) {
+                    continue;
+                }
+                batch.add(record);
+                if (batch.size() == batchSize) {
+                    inventoryImport.batchCommitted(batch.size(), writer.apply(batch));
+                    batch.clear();
+                }
+            }
+            if (!batch.isEmpty()) {
+                inventoryImport.batchCommitted(batch.size(), writer.apply(batch));
+            }
+            inventoryImport.complete();
+        } catch (IOException | RuntimeException e) {
+            log.warn("Import {} stopped after reading {} records", inventoryImport.getId(), position, e);
+            inventoryImport.fail(e.getMessage());
+        }
+        return inventoryImport.toDto();
+    }
+
+    private ObjectReader readerFor(InventoryFormat format, Class<?> type) {
+        return switch (format) {
+            case CSV -> CSV_MAPPER.readerFor(type).with(CsvSchema.emptySchema().withHeader());
+            case NDJSON -> objectMapper.readerFor(type);
+        };
+    }
+
+    void pruneFinishedImports() {
+        Instant expiry = Instant.now().minus(importProperties.getRetention());
+
+        List<InventoryImport> finished = imports.values().stream()
+                .filter(inventoryImport -> inventoryImport.getStatus().isFinished())
+                .sorted(Comparator.comparing(InventoryImport::getFinishedAt).reversed())
+                .toList();
+
+        for (int i = 0; i < finished.size(); i++) {
+            InventoryImport inventoryImport = finished.get(i);
+            if (i >= importProperties.getMaxRetainedImports() || inventoryImport.getFinishedAt().isBefore(expiry)) {
+                imports.remove(inventoryImport.getId());
+            }
+        }
+    }
+}
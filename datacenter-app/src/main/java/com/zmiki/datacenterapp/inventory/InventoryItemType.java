@@ -0,0 +1,6 @@
+package com.zmiki.datacenterapp.inventory;
+
+public enum InventoryItemType {
+    RACK,
+    DEVICE
+}
@@ -0,0 +1,36 @@
+package com.zmiki.datacenterapp.pagination;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * One page of a listing ordered by serial number. {@code nextCursor} is passed back as {@code after} to get the
+ * following page and is {@code null} on the last page.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class KeysetPage<T> {
+    private List<T> items;
+    private String nextCursor;
+
+    /**
+     * Builds a page from rows fetched with {@code limit + 1}: the extra row only tells that another page exists and
+     * is not returned.
+     */
+    public static <E, T> KeysetPage<T> of(List<E> rows, int limit, Function<E, String> serialNumber, Function<E, T> mapper) {
+        boolean hasMore = rows.size() > limit;
+        List<E> pageRows = hasMore ? rows.subList(0, limit) : rows;
+
+        return KeysetPage.<T>builder()
+                .items(pageRows.stream().map(mapper).toList())
+                .nextCursor(hasMore ? SerialNumberCursor.encode(serialNumber.apply(pageRows.get(limit - 1))) : null)
+                .build();
+    }
+}
@@ -0,0 +1,43 @@
+package com.zmiki.datacenterapp.pagination;
+
+import com.zmiki.datacenterapp.exception.InvalidPageRequestException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Opaque cursor for keyset pagination over serial numbers. It only carries the last serial number of a page, but
+ * clients must not rely on its format.
+ */
+public final class SerialNumberCursor {
+
+    public static final int MAX_LIMIT = 1000;
+
+    private SerialNumberCursor() {
+    }
+
+    public static String encode(String serialNumber) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(serialNumber.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Returns the serial number after which the next page starts, or {@code null} for the first page.
+     */
+    public static String decode(String cursor) {
+        if (cursor == null || cursor.isEmpty()) {
+            return null;
+        }
+        try {
+            return new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new InvalidPageRequestException("Invalid cursor: " + cursor);
+        }
+    }
+
+    public static int checkLimit(int limit) {
+        if (limit < 1 || limit > MAX_LIMIT) {
+            throw new InvalidPageRequestException("Limit must be between 1 and " + MAX_LIMIT);
+        }
+        return limit;
+    }
+}
@@ -6,6 +6,7 @@ import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Positive;
 import lombok.*;
+import org.hibernate.annotations.ColumnDefault;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -43,22 +44,53 @@ public class Rack {
     @Column(name = "max_power", nullable = false)
     private int maxPower;
 
+    /**
+     * Power and units of the devices mounted in the rack. The entity never writes them: they change only through
+     * atomic SQL increments when devices are assigned, resized or deleted, and are rebuilt by the usage repair job.
+     */
+    @ColumnDefault("0")
+    @Column(name = "used_power", nullable = false, insertable = false, updatable = false)
+    private int usedPower;
+
+    @ColumnDefault("0")
+    @Column(name = "used_units", nullable = false, insertable = false, updatable = false)
+    private int usedUnits;
+
+    /**
+     * Bumped by every JPA update and by every usage counter increment, so a rack edited from a stale read fails
+     * instead of overwriting capacity that placements have already been checked against.
+     */
+    @Version
+    @ColumnDefault("0")
+    @Column(name = "version", nullable = false)
+    private long version;
+
     @OneToMany(mappedBy = "rack", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     private List<Device> devices = new ArrayList<>();
 
     public Rack copy() {
+        Rack r = copyWithoutDevices();
+        if (this.getDevices() != null ){
+            r.getDevices().addAll(this.devices);
+        }
+        return r;
+    }
+
+    /**
+     * Same as {@link #copy()} but with an empty device list, so the lazy {@code devices} collection is not loaded.
+     */
+    public Rack copyWithoutDevices() {
         Rack r = Rack.builder()
                 .name(name)
                 .description(description)
                 .serialNumber(serialNumber)
                 .maxUnits(maxUnits)
                 .maxPower(maxPower)
+                .usedPower(usedPower)
+                .usedUnits(usedUnits)
                 .build();
 
         r.setDevices(new ArrayList<>());
-        if (this.getDevices() != null ){
-            r.getDevices().addAll(this.devices);
-        }
         return r;
     }
 
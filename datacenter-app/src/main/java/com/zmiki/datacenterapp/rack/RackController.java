@@ -1,12 +1,19 @@
 package com.zmiki.datacenterapp.rack;
 
+import com.zmiki.datacenterapp.bulk.BulkCreateResult;
+import com.zmiki.datacenterapp.change.ChangeTracker;
+import com.zmiki.datacenterapp.change.ETags;
+import com.zmiki.datacenterapp.fields.FieldSelection;
 import com.zmiki.datacenterapp.rack.dto.RackCreateDto;
 import com.zmiki.datacenterapp.rack.dto.RackDto;
+import com.zmiki.datacenterapp.rack.dto.RackUsageRepairDto;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.json.MappingJacksonValue;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 
@@ -16,6 +23,7 @@ import java.util.List;
 public class RackController {
 
     private final RackService rackService;
+    private final ChangeTracker changeTracker;
 
     @PostMapping
     public ResponseEntity<RackDto> createRack(@Valid @RequestBody RackCreateDto rackCreateDto) {
@@ -23,6 +31,11 @@ public class RackController {
         return ResponseEntity.status(HttpStatus.CREATED).body(createdRack);
     }
 
+    @PostMapping("/bulk")
+    public ResponseEntity<BulkCreateResult> createRacks(@RequestBody List<RackCreateDto> rackCreateDtos) {
+        return ResponseEntity.ok(rackService.createRacks(rackCreateDtos));
+    }
+
     @PutMapping("/{serialNumber}")
     public ResponseEntity<RackDto> updateRack(
             @PathVariable String serialNumber,
@@ -38,15 +51,54 @@ public class RackController {
     }
 
     @GetMapping("/{serialNumber}")
-    public ResponseEntity<RackDto> getRack(
-            @PathVariable String serialNumber) {
-        RackDto rack = rackService.getRack(serialNumber);
-        return ResponseEntity.ok(rack);
+    public ResponseEntity<MappingJacksonValue> getRack(
+            @PathVariable String serialNumber,
+            @RequestParam(required = false) String fields,
+            @RequestParam(required = false) String include,
+            WebRequest request) {
+        FieldSelection selection = FieldSelection.parse(fields, include, RackDto.class);
+        RackDto rack = selection.includesDevices()
+                ? rackService.getRack(serialNumber)
+                : rackService.getRackWithoutDevices(serialNumber);
+        return ETags.conditionalGet(request, selection.tag(ETags.contentTag(rack)), () -> selection.apply(rack));
+    }
+
+    @PostMapping("/usage/repair")
+    public ResponseEntity<RackUsageRepairDto> repairUsage() {
+        return ResponseEntity.ok(rackService.repairUsage());
     }
 
     @GetMapping
-    public ResponseEntity<List<RackDto>> getAllRacks() {
-        List<RackDto> racks = rackService.getAllRacks();
-        return ResponseEntity.ok(racks);
+    public ResponseEntity<MappingJacksonValue> getAllRacks(
+            @RequestParam(required = false) String fields,
+            @RequestParam(required = false) String include,
+            WebRequest request) {
+        FieldSelection selection = FieldSelection.parse(fields, include, RackDto.class);
+        return ETags.conditionalGet(request, changeTracker.changeToken(), selection.tag(changeTracker.rackETag()),
+                () -> selection.apply(selection.includesDevices()
+                        ? rackService.getAllRacks()
+                        : rackService.getAllRacksWithoutDevices()));
+    }
+
+    @GetMapping(params = "limit")
+    public ResponseEntity<MappingJacksonValue> getRacksPage(
+            @RequestParam int limit,
+            @RequestParam(required = false) String after,
+            @RequestParam(required = false) String fields,
+            @RequestParam(required = false) String include,
+            @RequestParam(required = false) Integer minFreeUnits,
+            @RequestParam(required = false) Integer minFreePower,
+            @RequestParam(required = false) Integer minPower,
+            @RequestParam(required = false) Integer maxPower,
+            WebRequest request) {
+        RackFilter filter = RackFilter.builder()
+                .minFreeUnits(minFreeUnits)
+                .minFreePower(minFreePower)
+                .minPower(minPower)
+                .maxPower(maxPower)
+                .build();
+        FieldSelection selection = FieldSelection.parse(fields, include, RackDto.class);
+        return ETags.conditionalGet(request, changeTracker.changeToken(), selection.tag(changeTracker.rackETag()),
+                () -> selection.apply(rackService.getRacksPage(filter, after, limit, selection.includesDevices())));
     }
 }
@@ -1,11 +1,17 @@
 package com.zmiki.datacenterapp.rack;
 
 import com.zmiki.datacenterapp.device.DeviceConverter;
+import com.zmiki.datacenterapp.device.dto.DeviceDto;
 import com.zmiki.datacenterapp.rack.dto.RackCreateDto;
 import com.zmiki.datacenterapp.rack.dto.RackDto;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Component;
 
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
 import java.util.stream.Collectors;
 
 @Component
@@ -47,6 +53,13 @@ public class RackConverter {
     }
 
     public RackDto toDto(Rack rack) {
+        return toDto(rack, true);
+    }
+
+    /**
+     * Leaves {@code devices} unset when {@code withDevices} is false, without initializing the rack's devices.
+     */
+    public RackDto toDto(Rack rack, boolean withDevices) {
         if (rack == null) {
             return null;
         }
@@ -57,9 +70,48 @@ public class RackConverter {
                 .serialNumber(rack.getSerialNumber())
                 .unit(rack.getMaxUnits())
                 .maxPower(rack.getMaxPower())
-                .devices(rack.getDevices() != null ? rack.getDevices().stream()
+                .usedUnits(rack.getUsedUnits())
+                .usedPower(rack.getUsedPower())
+                .devices(withDevices && rack.getDevices() != null ? rack.getDevices().stream()
                         .map(deviceConverter::toDto)
                         .collect(Collectors.toList()) : null)
                 .build();
     }
+
+    public List<RackDto> toDtos(List<RackDeviceRow> rows) {
+        return toDtos(rows, true);
+    }
+
+    /**
+     * Groups projection rows into racks with their devices, in the order in which the racks first appear. When
+     * {@code withDevices} is false the device columns are ignored and {@code devices} is left unset.
+     */
+    public List<RackDto> toDtos(List<RackDeviceRow> rows, boolean withDevices) {
+        Map<UUID, RackDto> racks = new LinkedHashMap<>();
+        for (RackDeviceRow row : rows) {
+            RackDto rack = racks.computeIfAbsent(row.getRackId(), id -> RackDto.builder()
+                    .id(id)
+                    .name(row.getRackName())
+                    .description(row.getRackDescription())
+                    .serialNumber(row.getRackSerialNumber())
+                    .unit(row.getMaxUnits())
+                    .maxPower(row.getMaxPower())
+                    .usedUnits(row.getUsedUnits())
+                    .usedPower(row.getUsedPower())
+                    .devices(withDevices ? new ArrayList<>() : null)
+                    .build());
+
+            if (withDevices && row.getDeviceId() != null) {
+                rack.getDevices().add(DeviceDto.builder()
+                        .id(row.getDeviceId())
+                        .name(row.getDeviceName())
+                        .description(row.getDeviceDescription())
+                        .serialNumber(row.getDeviceSerialNumber())
+                        .units(row.getDeviceUnits())
+                        .power(row.getDevicePower())
+                        .build());
+            }
+        }
+        return new ArrayList<>(racks.values());
+    }
 }
@@ -0,0 +1,35 @@
+package com.zmiki.datacenterapp.rack;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.UUID;
+
+/**
+ * One rack joined with one of its devices, selected straight from the rack projection queries. The device fields
+ * are {@code null} for a rack without devices and for queries that do not select devices.
+ */
+@Data
+@AllArgsConstructor
+public class RackDeviceRow {
+    private UUID rackId;
+    private String rackName;
+    private String rackDescription;
+    private String rackSerialNumber;
+    private int maxUnits;
+    private int maxPower;
+    private int usedUnits;
+    private int usedPower;
+    private UUID deviceId;
+    private String deviceName;
+    private String deviceDescription;
+    private String deviceSerialNumber;
+    private Integer deviceUnits;
+    private Integer devicePower;
+
+    public RackDeviceRow(UUID rackId, String rackName, String rackDescription, String rackSerialNumber, int maxUnits,
+                         int maxPower, int usedUnits, int usedPower) {
+        this(rackId, rackName, rackDescription, rackSerialNumber, maxUnits, maxPower, usedUnits, usedPower,
+                null, null, null, null, null, null);
+    }
+}
@@ -0,0 +1,21 @@
+package com.zmiki.datacenterapp.rack;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Optional criteria for rack listings; {@code null} fields are not applied. The power bounds apply to the rack's
+ * maximum power.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RackFilter {
+    private Integer minFreeUnits;
+    private Integer minFreePower;
+    private Integer minPower;
+    private Integer maxPower;
+}
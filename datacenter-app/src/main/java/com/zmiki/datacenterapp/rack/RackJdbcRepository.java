@@ -0,0 +1,64 @@
+package com.zmiki.datacenterapp.rack;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Set-based rack writes that would cost one statement per entity through {@link RackRepository}.
+ */
+@Repository
+@RequiredArgsConstructor
+public class RackJdbcRepository {
+
+    static final int INSERTS_PER_BATCH = 1000;
+
+    private static final String EXISTING_SERIAL_NUMBERS_SQL =
+            "SELECT serial_number FROM rack WHERE serial_number = ANY(?)";
+
+    private static final String INSERT_SQL =
+            "INSERT INTO rack (id, name, description, serial_number, max_units, max_power) VALUES (?, ?, ?, ?, ?, ?)";
+
+    private static final String LOCK_DEVICES_SQL = "LOCK TABLE device IN SHARE MODE";
+
+    private static final String RECOMPUTE_USAGE_SQL =
+            "UPDATE rack r SET used_power = u.power, used_units = u.units, version = r.version + 1 FROM (" +
+            "SELECT r2.id, COALESCE(SUM(d.power), 0) AS power, COALESCE(SUM(d.units), 0) AS units " +
+            "FROM rack r2 LEFT JOIN device d ON d.rack_id = r2.id GROUP BY r2.id) u " +
+            "WHERE r.id = u.id AND (r.used_power <> u.power OR r.used_units <> u.units) RETURNING r.serial_number";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public List<String> findExistingSerialNumbers(Collection<String> serialNumbers) {
+        return jdbcTemplate.query(EXISTING_SERIAL_NUMBERS_SQL,
+                ps -> ps.setArray(1, ps.getConnection().createArrayOf("varchar", serialNumbers.toArray())),
+                (rs, rowNum) -> rs.getString(1));
+    }
+
+    /**
+     * Inserts the racks, which must already carry their ids, in JDBC batches of {@value #INSERTS_PER_BATCH} rows.
+     */
+    public void insertAll(List<Rack> racks) {
+        jdbcTemplate.batchUpdate(INSERT_SQL, racks, INSERTS_PER_BATCH, (ps, rack) -> {
+            ps.setObject(1, rack.getId());
+            ps.setString(2, rack.getName());
+            ps.setString(3, rack.getDescription());
+            ps.setString(4, rack.getSerialNumber());
+            ps.setInt(5, rack.getMaxUnits());
+            ps.setInt(6, rack.getMaxPower());
+        });
+    }
+
+    /**
+     * Recomputes every rack's usage counters from its devices and returns the serial numbers of the racks whose
+     * counters were wrong. Device writes are blocked until the surrounding transaction ends, so the sums cannot go stale while
+     * they are written back.
+     */
+    public List<String> recomputeUsage() {
+        jdbcTemplate.execute(LOCK_DEVICES_SQL);
+        return jdbcTemplate.queryForList(RECOMPUTE_USAGE_SQL, String.class);
+    }
+}
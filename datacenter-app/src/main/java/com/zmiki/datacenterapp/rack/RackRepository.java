@@ -1,10 +1,54 @@
 package com.zmiki.datacenterapp.rack;
 
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
-public interface RackRepository extends JpaRepository<Rack, UUID> {
+public interface RackRepository extends JpaRepository<Rack, UUID>, JpaSpecificationExecutor<Rack> {
     Optional<Rack> findBySerialNumber(String serialNumber);
+
+    List<Rack> findAllBySerialNumberIn(Collection<String> serialNumbers);
+
+    /**
+     * Loads and row-locks the racks in id order, so concurrent callers locking overlapping racks queue up instead
+     * of deadlocking.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select r from Rack r where r.serialNumber in :serialNumbers order by r.id")
+    List<Rack> findAllForUpdateBySerialNumberIn(@Param("serialNumbers") Collection<String> serialNumbers);
+
+    @Query("select r.serialNumber from Rack r where r.id in :rackIds " +
+            "and (r.usedPower > r.maxPower or r.usedUnits > r.maxUnits) order by r.serialNumber")
+    List<String> findOverCapacitySerialNumbers(@Param("rackIds") Collection<UUID> rackIds);
+
+    @Query("select new com.zmiki.datacenterapp.rack.RackDeviceRow(r.id, r.name, r.description, r.serialNumber, " +
+            "r.maxUnits, r.maxPower, r.usedUnits, r.usedPower, d.id, d.name, d.description, d.serialNumber, d.units, d.power) " +
+            "from Rack r left join r.devices d")
+    List<RackDeviceRow> findAllRackDeviceRows();
+
+    @Query("select new com.zmiki.datacenterapp.rack.RackDeviceRow(r.id, r.name, r.description, r.serialNumber, " +
+            "r.maxUnits, r.maxPower, r.usedUnits, r.usedPower) from Rack r")
+    List<RackDeviceRow> findAllRackRows();
+
+    @Query("select new com.zmiki.datacenterapp.rack.RackDeviceRow(r.id, r.name, r.description, r.serialNumber, " +
+            "r.maxUnits, r.maxPower, r.usedUnits, r.usedPower) from Rack r where r.serialNumber = :serialNumber")
+    Optional<RackDeviceRow> findRackRowBySerialNumber(@Param("serialNumber") String serialNumber);
+
+    @Query("select new com.zmiki.datacenterapp.rack.RackDeviceRow(r.id, r.name, r.description, r.serialNumber, " +
+            "r.maxUnits, r.maxPower, r.usedUnits, r.usedPower, d.id, d.name, d.description, d.serialNumber, d.units, d.power) " +
+            "from Rack r left join r.devices d where r.serialNumber = :serialNumber")
+    List<RackDeviceRow> findRackDeviceRowsBySerialNumber(@Param("serialNumber") String serialNumber);
+
+    @Query("select new com.zmiki.datacenterapp.rack.RackDeviceRow(r.id, r.name, r.description, r.serialNumber, " +
+            "r.maxUnits, r.maxPower, r.usedUnits, r.usedPower, d.id, d.name, d.description, d.serialNumber, d.units, d.power) " +
+            "from Rack r left join r.devices d where r.serialNumber in :serialNumbers")
+    List<RackDeviceRow> findRackDeviceRowsBySerialNumberIn(@Param("serialNumbers") Collection<String> serialNumbers);
 }
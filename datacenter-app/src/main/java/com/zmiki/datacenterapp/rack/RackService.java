@@ -2,21 +2,52 @@ package com.zmiki.datacenterapp.rack;
 
 import com.zmiki.datacenterapp.rack.dto.RackCreateDto;
 import com.zmiki.datacenterapp.rack.dto.RackDto;
+import com.zmiki.datacenterapp.rack.dto.RackUsageRepairDto;
+import com.zmiki.datacenterapp.bulk.BulkCreateResult;
+import com.zmiki.datacenterapp.bulk.BulkItemResult;
+import com.zmiki.datacenterapp.change.ChangeOperation;
+import com.zmiki.datacenterapp.change.ChangeTracker;
+import com.zmiki.datacenterapp.config.CacheConfig;
+import com.zmiki.datacenterapp.datasource.PrimaryReads;
+import com.zmiki.datacenterapp.inventory.InventoryItemType;
+import com.zmiki.datacenterapp.pagination.KeysetPage;
+import com.zmiki.datacenterapp.pagination.SerialNumberCursor;
 import jakarta.persistence.EntityNotFoundException;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
 import lombok.RequiredArgsConstructor;
+import org.hibernate.Hibernate;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
 import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class RackService {
 
+    static final int LOOKUP_CHUNK_SIZE = 1000;
+
     private final RackRepository rackRepository;
     private final RackConverter rackConverter;
+    private final RackJdbcRepository rackJdbcRepository;
+    private final Validator validator;
+    private final ChangeTracker changeTracker;
 
+    @Transactional
+    @CacheEvict(cacheNames = CacheConfig.RACKS, key = "#rackCreateDto.serialNumber")
     public RackDto createRack(RackCreateDto rackCreateDto) {
         if (rackRepository.findBySerialNumber(rackCreateDto.getSerialNumber()).isPresent()) {
             throw new IllegalArgumentException("Rack with serial number " + rackCreateDto.getSerialNumber() + " already exists");
@@ -25,9 +56,60 @@ public class RackService {
         
         Rack rack = rackConverter.fromCreateDto(rackCreateDto);
         Rack savedRack = rackRepository.save(rack);
+        changeTracker.recordChange(InventoryItemType.RACK, ChangeOperation.UPSERT, rackCreateDto.getSerialNumber());
         return rackConverter.toDto(savedRack);
     }
 
+    /**
+     * Creates every valid rack of the request in one transaction and reports the outcome of each item. Invalid
+     * items, serial numbers repeated in the request and serial numbers that already exist are reported as failed;
+     * uniqueness is checked with a single query and the rest is inserted with JDBC batches.
+     */
+    @Transactional
+    public BulkCreateResult createRacks(List<RackCreateDto> rackCreateDtos) {
+        BulkItemResult[] results = new BulkItemResult[rackCreateDtos.size()];
+        Map<String, Integer> indexBySerialNumber = new LinkedHashMap<>();
+
+        for (int i = 0; i < rackCreateDtos.size(); i++) {
+            RackCreateDto dto = rackCreateDtos.get(i);
+            Set<ConstraintViolation<RackCreateDto>> violations = validator.validate(dto);
+            if (!violations.isEmpty()) {
+                results[i] = BulkItemResult.failed(i, dto.getSerialNumber(), violations.stream()
+                        .map(ConstraintViolation::getMessage)
+                        .sorted()
+                        .collect(Collectors.joining(", ")));
+            } else if (indexBySerialNumber.putIfAbsent(dto.getSerialNumber(), i) != null) {
+                results[i] = BulkItemResult.failed(i, dto.getSerialNumber(), "Duplicate serial number in request");
+            }
+        }
+
+        if (!indexBySerialNumber.isEmpty()) {
+            for (String serialNumber : rackJdbcRepository.findExistingSerialNumbers(indexBySerialNumber.keySet())) {
+                int i = indexBySerialNumber.remove(serialNumber);
+                results[i] = BulkItemResult.failed(i, serialNumber, "Rack with serial number " + serialNumber + " already exists");
+            }
+        }
+
+        List<Rack> racks = new ArrayList<>(indexBySerialNumber.size());
+        indexBySerialNumber.forEach((serialNumber, i) -> {
+            Rack rack = rackConverter.fromCreateDto(rackCreateDtos.get(i));
+            rack.setId(UUID.randomUUID());
+            racks.add(rack);
+            results[i] = BulkItemResult.created(i, serialNumber);
+        });
+        rackJdbcRepository.insertAll(racks);
+        changeTracker.recordChanges(InventoryItemType.RACK, ChangeOperation.UPSERT,
+                racks.stream().map(Rack::getSerialNumber).toList());
+
+        return BulkCreateResult.of(results);
+    }
+
+    /**
+     * Rejects capacities below the rack's current usage. A placement committed after the rack was read bumps its
+     * version, so saving then fails with an optimistic locking error instead of undercutting that placement.
+     */
+    @Transactional
+    @CacheEvict(cacheNames = CacheConfig.RACKS, key = "#serialNumber")
     public RackDto updateRack(String serialNumber, RackDto rackDto) {
         if (!serialNumber.equals(rackDto.getSerialNumber())) {
             throw new IllegalArgumentException("Serial number in path must match serial number in request body");
@@ -35,6 +117,10 @@ public class RackService {
         
         Rack existingRack = rackRepository.findBySerialNumber(serialNumber)
                 .orElseThrow(() -> new EntityNotFoundException("Rack not found"));
+
+        if (rackDto.getUnit() < existingRack.getUsedUnits() || rackDto.getMaxPower() < existingRack.getUsedPower()) {
+            throw new IllegalArgumentException("Rack capacity cannot be lowered below the capacity its devices use");
+        }
         
         existingRack.setName(rackDto.getName());
         existingRack.setDescription(rackDto.getDescription());
@@ -43,9 +129,12 @@ public class RackService {
         existingRack.setMaxPower(rackDto.getMaxPower());
         
         Rack savedRack = rackRepository.save(existingRack);
+        changeTracker.recordChange(InventoryItemType.RACK, ChangeOperation.UPSERT, serialNumber);
         return rackConverter.toDto(savedRack);
     }
 
+    @Transactional
+    @CacheEvict(cacheNames = CacheConfig.RACKS, key = "#serialNumber")
     public void deleteRack(String serialNumber) {
         Rack rack = rackRepository.findBySerialNumber(serialNumber)
                 .orElseThrow(() -> new EntityNotFoundException("Rack not found"));
@@ -55,27 +144,137 @@ public class RackService {
         }
 
         rackRepository.delete(rack);
+        changeTracker.recordChange(InventoryItemType.RACK, ChangeOperation.DELETE, serialNumber);
     }
 
+    /**
+     * Selects the rack and its devices as one joined projection query, without loading managed entities. Reads from
+     * the primary, as the result is cached beyond the current request.
+     */
+    @Transactional(readOnly = true)
+    @Cacheable(cacheNames = CacheConfig.RACKS, key = "#serialNumber")
     public RackDto getRack(String serialNumber) {
-        Rack rack = rackRepository.findBySerialNumber(serialNumber)
+        List<RackDeviceRow> rows = PrimaryReads.read(
+                () -> rackRepository.findRackDeviceRowsBySerialNumber(serialNumber));
+        if (rows.isEmpty()) {
+            throw new EntityNotFoundException("Rack not found");
+        }
+        return rackConverter.toDtos(rows).get(0);
+    }
+
+    /**
+     * Selects the rack alone, leaving {@code devices} unset; not cached, as the query never touches the devices.
+     */
+    @Transactional(readOnly = true)
+    public RackDto getRackWithoutDevices(String serialNumber) {
+        RackDeviceRow row = rackRepository.findRackRowBySerialNumber(serialNumber)
                 .orElseThrow(() -> new EntityNotFoundException("Rack not found"));
-        return rackConverter.toDto(rack);
+        return rackConverter.toDtos(List.of(row), false).get(0);
     }
 
+    /**
+     * Selects all racks and their devices as one joined projection query, so the number of queries does not grow
+     * with the number of racks and no managed entities are loaded.
+     */
+    @Transactional(readOnly = true)
     public List<RackDto> getAllRacks() {
-        return rackRepository.findAll().stream()
-                .map(rackConverter::toDto)
-                .collect(Collectors.toList());
+        return rackConverter.toDtos(rackRepository.findAllRackDeviceRows());
+    }
+
+    /**
+     * Selects all racks without joining their devices, leaving {@code devices} unset.
+     */
+    @Transactional(readOnly = true)
+    public List<RackDto> getAllRacksWithoutDevices() {
+        return rackConverter.toDtos(rackRepository.findAllRackRows(), false);
     }
 
+    /**
+     * Returns the DTOs of the racks that exist among {@code serialNumbers}, with their devices, in no particular
+     * order.
+     */
+    @Transactional(readOnly = true)
+    public List<RackDto> findRacks(Collection<String> serialNumbers) {
+        List<RackDto> racks = new ArrayList<>(serialNumbers.size());
+        List<String> distinctSerialNumbers = new ArrayList<>(new LinkedHashSet<>(serialNumbers));
+        for (int from = 0; from < distinctSerialNumbers.size(); from += LOOKUP_CHUNK_SIZE) {
+            List<String> chunk = distinctSerialNumbers.subList(from, Math.min(from + LOOKUP_CHUNK_SIZE, distinctSerialNumbers.size()));
+            racks.addAll(rackConverter.toDtos(rackRepository.findRackDeviceRowsBySerialNumberIn(chunk)));
+        }
+        return racks;
+    }
+
+    /**
+     * Returns up to {@code limit} racks matching {@code filter}, ordered by serial number and starting after the
+     * {@code after} cursor. With {@code includeDevices}, the devices of the page are loaded in batches rather than
+     * fetch-joined, since a collection fetch cannot be limited in SQL; without it they are not loaded at all.
+     */
+    @Transactional(readOnly = true)
+    public KeysetPage<RackDto> getRacksPage(RackFilter filter, String after, int limit, boolean includeDevices) {
+        int pageSize = SerialNumberCursor.checkLimit(limit);
+        List<Rack> racks = rackRepository.findBy(
+                RackSpecifications.matching(filter, SerialNumberCursor.decode(after)),
+                query -> query.sortBy(Sort.by("serialNumber")).limit(pageSize + 1).all());
+        return KeysetPage.of(racks, pageSize, Rack::getSerialNumber, rack -> rackConverter.toDto(rack, includeDevices));
+    }
+
+    /**
+     * Rebuilds the used power and units counters of every rack from its devices and reports how many racks were
+     * out of date.
+     */
+    @Transactional
+    @CacheEvict(cacheNames = CacheConfig.RACKS, allEntries = true)
+    public RackUsageRepairDto repairUsage() {
+        List<String> repairedSerialNumbers = rackJdbcRepository.recomputeUsage();
+        changeTracker.recordChanges(InventoryItemType.RACK, ChangeOperation.UPSERT, repairedSerialNumbers);
+        return RackUsageRepairDto.builder()
+                .racksRepaired(repairedSerialNumbers.size())
+                .build();
+    }
+
+    /**
+     * Loads the racks with one {@code IN} query per {@value #LOOKUP_CHUNK_SIZE} serial numbers. Duplicates are
+     * dropped, the result follows the order in which serial numbers first appear, and all unknown serial numbers
+     * are reported together.
+     */
+    @Transactional(readOnly = true)
     public List<Rack> getRacksBySerialNumbers(List<String> serialNumbers) {
-        List<Rack> racks = new ArrayList<>();
-        for (String serialNumber : serialNumbers) {
-            Rack rack = rackRepository.findBySerialNumber(serialNumber)
-                    .orElseThrow(() -> new EntityNotFoundException("Rack not found: " + serialNumber));
-            racks.add(rack);
+        List<String> distinctSerialNumbers = new ArrayList<>(new LinkedHashSet<>(serialNumbers));
+
+        Map<String, Rack> racksBySerialNumber = new HashMap<>();
+        for (int from = 0; from < distinctSerialNumbers.size(); from += LOOKUP_CHUNK_SIZE) {
+            List<String> chunk = distinctSerialNumbers.subList(from, Math.min(from + LOOKUP_CHUNK_SIZE, distinctSerialNumbers.size()));
+            for (Rack rack : rackRepository.findAllBySerialNumberIn(chunk)) {
+                racksBySerialNumber.put(rack.getSerialNumber(), rack);
+            }
+        }
+
+        List<Rack> racks = new ArrayList<>(distinctSerialNumbers.size());
+        List<String> missingSerialNumbers = new ArrayList<>();
+        for (String serialNumber : distinctSerialNumbers) {
+            Rack rack = racksBySerialNumber.get(serialNumber);
+            if (rack == null) {
+                missingSerialNumbers.add(serialNumber);
+            } else {
+                racks.add(rack);
+            }
+        }
+
+        if (!missingSerialNumbers.isEmpty()) {
+            throw new EntityNotFoundException("Racks not found: " + missingSerialNumbers);
         }
         return racks;
     }
+
+    /**
+     * Same as {@link #getRacksBySerialNumbers}, with the devices of every rack loaded before the transaction ends,
+     * {@code default_batch_fetch_size} racks per query. The racks can then be copied with their devices on threads
+     * without a session, such as the distribution job threads.
+     */
+    @Transactional(readOnly = true)
+    public List<Rack> getRacksWithDevicesBySerialNumbers(List<String> serialNumbers) {
+        List<Rack> racks = getRacksBySerialNumbers(serialNumbers);
+        racks.forEach(rack -> Hibernate.initialize(rack.getDevices()));
+        return racks;
+    }
 }
@@ -0,0 +1,41 @@
+package com.zmiki.datacenterapp.rack;
+
+import jakarta.persistence.criteria.Predicate;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.ArrayList;
+import java.util.List;
+
+final class RackSpecifications {
+
+    private RackSpecifications() {
+    }
+
+    /**
+     * Racks matching {@code filter} with a serial number greater than {@code afterSerialNumber}, if given. Free
+     * units and power are read from the rack's usage counters, so the rack's devices are not scanned.
+     */
+    static Specification<Rack> matching(RackFilter filter, String afterSerialNumber) {
+        return (root, query, cb) -> {
+            List<Predicate> predicates = new ArrayList<>();
+            if (afterSerialNumber != null) {
+                predicates.add(cb.greaterThan(root.get("serialNumber"), afterSerialNumber));
+            }
+            if (filter.getMinFreeUnits() != null) {
+                predicates.add(cb.greaterThanOrEqualTo(
+                        cb.diff(root.<Integer>get("maxUnits"), root.<Integer>get("usedUnits")), filter.getMinFreeUnits()));
+            }
+            if (filter.getMinFreePower() != null) {
+                predicates.add(cb.greaterThanOrEqualTo(
+                        cb.diff(root.<Integer>get("maxPower"), root.<Integer>get("usedPower")), filter.getMinFreePower()));
+            }
+            if (filter.getMinPower() != null) {
+                predicates.add(cb.greaterThanOrEqualTo(root.get("maxPower"), filter.getMinPower()));
+            }
+            if (filter.getMaxPower() != null) {
+                predicates.add(cb.lessThanOrEqualTo(root.get("maxPower"), filter.getMaxPower()));
+            }
+            return cb.and(predicates.toArray(new Predicate[0]));
+        };
+    }
+}
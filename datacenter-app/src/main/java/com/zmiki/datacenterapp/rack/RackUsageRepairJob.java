@@ -0,0 +1,27 @@
+package com.zmiki.datacenterapp.rack;
+
+import com.zmiki.datacenterapp.rack.dto.RackUsageRepairDto;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Periodically rebuilds the rack usage counters from the devices, in case a write outside the application left
+ * them out of date. Disabled when {@code datacenter.racks.usage-repair-cron} is not set.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class RackUsageRepairJob {
+
+    private final RackService rackService;
+
+    @Scheduled(cron = "${datacenter.racks.usage-repair-cron:-}")
+    public void repairUsage() {
+        RackUsageRepairDto result = rackService.repairUsage();
+        if (result.getRacksRepaired() > 0) {
+            log.warn("Recomputed out-of-date usage counters of {} racks", result.getRacksRepaired());
+        }
+    }
+}
@@ -1,6 +1,8 @@
 package com.zmiki.datacenterapp.rack.dto;
 
+import com.fasterxml.jackson.annotation.JsonFilter;
 import com.zmiki.datacenterapp.device.dto.DeviceDto;
+import com.zmiki.datacenterapp.fields.FieldSelection;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -12,6 +14,7 @@ import java.util.List;
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
+@JsonFilter(FieldSelection.FILTER_ID)
 public class RackDistributionDto {
     private String rackName;
     private String rackSerialNumber;
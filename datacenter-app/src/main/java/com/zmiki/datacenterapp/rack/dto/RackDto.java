@@ -1,6 +1,8 @@
 package com.zmiki.datacenterapp.rack.dto;
 
+import com.fasterxml.jackson.annotation.JsonFilter;
 import com.zmiki.datacenterapp.device.dto.DeviceDto;
+import com.zmiki.datacenterapp.fields.FieldSelection;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Positive;
@@ -16,6 +18,7 @@ import java.util.UUID;
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
+@JsonFilter(FieldSelection.FILTER_ID)
 public class RackDto {
     private UUID id;
 
@@ -33,5 +36,9 @@ public class RackDto {
     @Positive(message = "Racks's maximum power must be positive")
     private int maxPower;
 
+    private int usedUnits;
+
+    private int usedPower;
+
     private List<DeviceDto> devices;
 }
@@ -0,0 +1,14 @@
+package com.zmiki.datacenterapp.rack.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RackUsageRepairDto {
+    private int racksRepaired;
+}
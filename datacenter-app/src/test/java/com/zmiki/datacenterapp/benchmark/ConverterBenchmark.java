@@ -0,0 +1,84 @@
+package com.zmiki.datacenterapp.benchmark;
+
+import com.zmiki.datacenterapp.device.Device;
+import com.zmiki.datacenterapp.device.DeviceConverter;
+import com.zmiki.datacenterapp.device.dto.DeviceDto;
+import com.zmiki.datacenterapp.rack.Rack;
+import com.zmiki.datacenterapp.rack.RackConverter;
+import com.zmiki.datacenterapp.rack.dto.RackDto;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of the entity to DTO conversions used by every listing and distribution response, reported per
+ * converted entity. Each rack carries {@code devicesPerRack} devices, which {@link RackConverter#toDto} converts too.
+ * <p>
+ * Run with {@code mvn -Pbenchmark verify -Djmh.args="ConverterBenchmark -prof gc"}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ConverterBenchmark {
+
+    private static final int BATCH = 1000;
+
+    @Param({"0", "20"})
+    private int devicesPerRack;
+
+    private final DeviceConverter deviceConverter = new DeviceConverter();
+    private final RackConverter rackConverter = new RackConverter(deviceConverter);
+
+    private List<Device> devices;
+    private List<Rack> racks;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        InventoryGenerator generator = new InventoryGenerator(42);
+        devices = generator.devices(BATCH * Math.max(1, devicesPerRack), InventoryGenerator.PowerDistribution.UNIFORM);
+        racks = generator.racks(BATCH, Math.max(1, devicesPerRack));
+        for (int i = 0; i < BATCH; i++) {
+            Rack rack = racks.get(i);
+            for (int d = 0; d < devicesPerRack; d++) {
+                Device device = devices.get(i * devicesPerRack + d);
+                device.setRack(rack);
+                rack.getDevices().add(device);
+            }
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public void deviceToDto(Blackhole blackhole) {
+        for (int i = 0; i < BATCH; i++) {
+            DeviceDto dto = deviceConverter.toDto(devices.get(i));
+            blackhole.consume(dto);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public void rackToDto(Blackhole blackhole) {
+        for (Rack rack : racks) {
+            RackDto dto = rackConverter.toDto(rack);
+            blackhole.consume(dto);
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.zmiki.datacenterapp.benchmark;
+
+import com.zmiki.datacenterapp.device.Device;
+import com.zmiki.datacenterapp.device.DeviceConverter;
+import com.zmiki.datacenterapp.distribution.DistributionProperties;
+import com.zmiki.datacenterapp.distribution.DistributionResult;
+import com.zmiki.datacenterapp.distribution.DistributionService;
+import com.zmiki.datacenterapp.distribution.strategy.BestFitPlacementStrategy;
+import com.zmiki.datacenterapp.distribution.strategy.BranchAndBoundSolver;
+import com.zmiki.datacenterapp.distribution.strategy.FirstFitDecreasingPlacementStrategy;
+import com.zmiki.datacenterapp.distribution.strategy.PlacementStrategies;
+import com.zmiki.datacenterapp.distribution.strategy.VectorPackingPlacementStrategy;
+import com.zmiki.datacenterapp.distribution.strategy.WorstFitPlacementStrategy;
+import com.zmiki.datacenterapp.rack.Rack;
+import com.zmiki.datacenterapp.rack.RackConverter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * End-to-end {@link DistributionService#packDevicesIntoRacks} with the default strategy, from fetched entities to
+ * the finished {@link DistributionResult}. The rack count is scaled so the racks can take roughly all devices.
+ * <p>
+ * Run with {@code mvn -Pbenchmark verify -Djmh.args="DistributionServiceBenchmark -prof gc"}; the gc profiler adds
+ * the allocation rate and bytes allocated per call next to the timings.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class DistributionServiceBenchmark {
+
+    @Param({"1000", "10000", "100000", "1000000"})
+    private int numberOfDevices;
+
+    /**
+     * Average devices per rack, which gives 50k racks for 1M devices; at least 100 racks are generated.
+     */
+    @Param({"20"})
+    private int devicesPerRack;
+
+    @Param({"UNIFORM", "SKEWED"})
+    private InventoryGenerator.PowerDistribution powerDistribution;
+
+    private DistributionService distributionService;
+    private List<Device> devices;
+    private List<Rack> racks;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        DeviceConverter deviceConverter = new DeviceConverter();
+        distributionService = new DistributionService(
+                deviceConverter,
+                new RackConverter(deviceConverter),
+                null,
+                null,
+                new PlacementStrategies(List.of(
+                        new BestFitPlacementStrategy(),
+                        new FirstFitDecreasingPlacementStrategy(),
+                        new WorstFitPlacementStrategy(),
+                        new VectorPackingPlacementStrategy())),
+                new BranchAndBoundSolver(),
+                new DistributionProperties());
+
+        InventoryGenerator generator = new InventoryGenerator(42);
+        devices = generator.devices(numberOfDevices, powerDistribution);
+        racks = generator.racks(Math.max(100, numberOfDevices / devicesPerRack), devicesPerRack);
+    }
+
+    @Benchmark
+    public DistributionResult packDevicesIntoRacks() {
+        return distributionService.packDevicesIntoRacks(devices, racks);
+    }
+}
@@ -0,0 +1,80 @@
+package com.zmiki.datacenterapp.benchmark;
+
+import com.zmiki.datacenterapp.device.Device;
+import com.zmiki.datacenterapp.rack.Rack;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+
+/**
+ * Synthetic racks and devices for the benchmarks. Output only depends on the seed, so runs stay comparable.
+ */
+public final class InventoryGenerator {
+
+    public enum PowerDistribution {
+        /**
+         * Device power spread evenly between 100 and 1000 W.
+         */
+        UNIFORM,
+        /**
+         * Mostly small devices with a long tail of power-hungry ones (Pareto, shape 1.5), capped at 4000 W.
+         */
+        SKEWED
+    }
+
+    private static final int MIN_DEVICE_POWER = 100;
+    private static final int MAX_UNIFORM_DEVICE_POWER = 1000;
+    private static final int MAX_SKEWED_DEVICE_POWER = 4000;
+    private static final double PARETO_SHAPE = 1.5;
+
+    private final Random random;
+
+    public InventoryGenerator(long seed) {
+        this.random = new Random(seed);
+    }
+
+    public List<Device> devices(int count, PowerDistribution powerDistribution) {
+        List<Device> devices = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            devices.add(Device.builder()
+                    .id(new UUID(0, i))
+                    .name("Device " + i)
+                    .description("Generated device " + i)
+                    .serialNumber(String.format("DEV%08d", i))
+                    .power(power(powerDistribution))
+                    .units(1 + random.nextInt(4))
+                    .build());
+        }
+        return devices;
+    }
+
+    /**
+     * Racks sized so that {@code devicesPerRack} average devices fit, with capacities varying by up to 50%.
+     */
+    public List<Rack> racks(int count, int devicesPerRack) {
+        List<Rack> racks = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            double scale = 0.75 + random.nextDouble() / 2;
+            racks.add(Rack.builder()
+                    .id(new UUID(1, i))
+                    .name("Rack " + i)
+                    .description("Generated rack " + i)
+                    .serialNumber(String.format("RCK%08d", i))
+                    .maxPower((int) Math.max(MAX_UNIFORM_DEVICE_POWER, devicesPerRack * 550 * scale))
+                    .maxUnits((int) Math.max(4, devicesPerRack * 2.5 * scale))
+                    .devices(new ArrayList<>())
+                    .build());
+        }
+        return racks;
+    }
+
+    private int power(PowerDistribution powerDistribution) {
+        return switch (powerDistribution) {
+            case UNIFORM -> MIN_DEVICE_POWER + random.nextInt(MAX_UNIFORM_DEVICE_POWER - MIN_DEVICE_POWER + 1);
+            case SKEWED -> (int) Math.min(MAX_SKEWED_DEVICE_POWER,
+                    MIN_DEVICE_POWER / Math.pow(1 - random.nextDouble(), 1 / PARETO_SHAPE));
+        };
+    }
+}
@@ -0,0 +1,103 @@
+package com.zmiki.datacenterapp.benchmark;
+
+import com.zmiki.datacenterapp.device.Device;
+import com.zmiki.datacenterapp.distribution.strategy.BestFitPlacementStrategy;
+import com.zmiki.datacenterapp.distribution.strategy.DeviceSizes;
+import com.zmiki.datacenterapp.distribution.strategy.RackCapacityIndex;
+import com.zmiki.datacenterapp.distribution.strategy.RackLoad;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Best-fit placement driven by device entities, the way the packing loop used to read them, against the same
+ * placement over {@link DeviceSizes}. Both sides include building their input from the fetched entities.
+ * <p>
+ * Run with {@code mvn -Pbenchmark verify -Djmh.args="PackingModelBenchmark -prof gc"}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PackingModelBenchmark {
+
+    @Param({"10000", "100000"})
+    private int numberOfDevices;
+
+    @Param({"1000"})
+    private int numberOfRacks;
+
+    private List<Device> devices;
+    private int[] rackMaxPower;
+    private int[] rackMaxUnits;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(42);
+
+        devices = new ArrayList<>(numberOfDevices);
+        for (int i = 0; i < numberOfDevices; i++) {
+            devices.add(Device.builder()
+                    .serialNumber("DEV-" + i)
+                    .name("Device " + i)
+                    .power(100 + random.nextInt(900))
+                    .units(1 + random.nextInt(4))
+                    .build());
+        }
+
+        rackMaxPower = new int[numberOfRacks];
+        rackMaxUnits = new int[numberOfRacks];
+        for (int i = 0; i < numberOfRacks; i++) {
+            rackMaxPower[i] = 5000 + 1000 * random.nextInt(10);
+            rackMaxUnits[i] = 42;
+        }
+    }
+
+    @Benchmark
+    public int[] entityGetters() {
+        RackLoad rackLoad = RackLoad.empty(rackMaxPower, rackMaxUnits);
+        RackCapacityIndex capacityIndex = new RackCapacityIndex(
+                rackLoad.getMaxPower(), rackLoad.getUsedPower(), rackLoad.getRemainingUnits());
+
+        Integer[] order = new Integer[devices.size()];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, Comparator.<Integer>comparingInt(i -> devices.get(i).getPower()).reversed());
+
+        int[] rackOfDevice = new int[devices.size()];
+        for (int deviceIndex : order) {
+            Device currentDevice = devices.get(deviceIndex);
+            int bestIndex = capacityIndex.findBestRack(currentDevice.getPower(), currentDevice.getUnits());
+
+            rackOfDevice[deviceIndex] = bestIndex;
+            if (bestIndex != -1) {
+                capacityIndex.place(bestIndex, currentDevice.getPower(), currentDevice.getUnits());
+            }
+        }
+        return rackOfDevice;
+    }
+
+    @Benchmark
+    public int[] primitiveArrays() {
+        return new BestFitPlacementStrategy().place(DeviceSizes.of(devices), RackLoad.empty(rackMaxPower, rackMaxUnits));
+    }
+}
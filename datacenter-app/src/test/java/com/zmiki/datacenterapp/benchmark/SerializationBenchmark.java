@@ -0,0 +1,90 @@
+package com.zmiki.datacenterapp.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+import com.zmiki.datacenterapp.device.Device;
+import com.zmiki.datacenterapp.device.DeviceConverter;
+import com.zmiki.datacenterapp.fields.FieldSelection;
+import com.zmiki.datacenterapp.rack.Rack;
+import com.zmiki.datacenterapp.rack.RackConverter;
+import com.zmiki.datacenterapp.rack.dto.RackDto;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time to encode a rack listing of {@code racks} racks with {@code devicesPerRack} devices each as JSON, CBOR and
+ * Smile, the formats the controllers negotiate. How the encoded sizes compare is asserted in
+ * {@code BinaryFormatsConfigTest}.
+ * <p>
+ * Run with {@code mvn -Pbenchmark verify -Djmh.args="SerializationBenchmark -prof gc"}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SerializationBenchmark {
+
+    @Param({"JSON", "CBOR", "SMILE"})
+    private String format;
+
+    @Param({"100", "1000"})
+    private int racks;
+
+    @Param({"0", "20"})
+    private int devicesPerRack;
+
+    private ObjectWriter writer;
+    private List<RackDto> rackListing;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        ObjectMapper mapper = switch (format) {
+            case "CBOR" -> new CBORMapper();
+            case "SMILE" -> new SmileMapper();
+            default -> new ObjectMapper();
+        };
+        writer = mapper.writer(new SimpleFilterProvider()
+                .addFilter(FieldSelection.FILTER_ID, SimpleBeanPropertyFilter.serializeAll()));
+
+        InventoryGenerator generator = new InventoryGenerator(42);
+        List<Device> devices = generator.devices(racks * devicesPerRack, InventoryGenerator.PowerDistribution.UNIFORM);
+        RackConverter rackConverter = new RackConverter(new DeviceConverter());
+        rackListing = new ArrayList<>(racks);
+        List<Rack> generatedRacks = generator.racks(racks, Math.max(1, devicesPerRack));
+        for (int i = 0; i < racks; i++) {
+            Rack rack = generatedRacks.get(i);
+            for (int d = 0; d < devicesPerRack; d++) {
+                Device device = devices.get(i * devicesPerRack + d);
+                device.setRack(rack);
+                rack.getDevices().add(device);
+            }
+            rackListing.add(rackConverter.toDto(rack));
+        }
+    }
+
+    @Benchmark
+    public byte[] encodeRackListing() throws JsonProcessingException {
+        return writer.writeValueAsBytes(rackListing);
+    }
+}
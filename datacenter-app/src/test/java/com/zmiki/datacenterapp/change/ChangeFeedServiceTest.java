@@ -0,0 +1,110 @@
+package com.zmiki.datacenterapp.change;
+
+import com.zmiki.datacenterapp.change.dto.ChangeDto;
+import com.zmiki.datacenterapp.change.dto.ChangeFeedDto;
+import com.zmiki.datacenterapp.device.DeviceService;
+import com.zmiki.datacenterapp.device.dto.DeviceDto;
+import com.zmiki.datacenterapp.exception.InvalidPageRequestException;
+import com.zmiki.datacenterapp.inventory.InventoryItemType;
+import com.zmiki.datacenterapp.rack.RackService;
+import com.zmiki.datacenterapp.rack.dto.RackDto;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ChangeFeedServiceTest {
+
+    @Mock
+    private ChangeLogRepository changeLogRepository;
+
+    @Mock
+    private DeviceService deviceService;
+
+    @Mock
+    private RackService rackService;
+
+    @InjectMocks
+    private ChangeFeedService changeFeedService;
+
+    @Test
+    void getChanges_collapsesEntriesOfAnItemIntoItsLatestState() {
+        when(changeLogRepository.findAfter(new ChangeFeedPosition(7, 10), 4)).thenReturn(List.of(
+                entry(8, 11, InventoryItemType.DEVICE, "DEV-1", ChangeOperation.UPSERT),
+                entry(8, 12, InventoryItemType.RACK, "RACK-1", ChangeOperation.UPSERT),
+                entry(9, 13, InventoryItemType.DEVICE, "DEV-1", ChangeOperation.UPSERT)));
+        DeviceDto device = DeviceDto.builder().serialNumber("DEV-1").build();
+        RackDto rack = RackDto.builder().serialNumber("RACK-1").build();
+        when(deviceService.findDevices(List.of("DEV-1"))).thenReturn(List.of(device));
+        when(rackService.findRacks(List.of("RACK-1"))).thenReturn(List.of(rack));
+
+        ChangeFeedDto feed = changeFeedService.getChanges("7-10", 3);
+
+        assertEquals(List.of("RACK-1", "DEV-1"), feed.getChanges().stream().map(ChangeDto::getSerialNumber).toList());
+        assertEquals(rack, feed.getChanges().get(0).getRack());
+        assertEquals(13, feed.getChanges().get(1).getSequence());
+        assertEquals(device, feed.getChanges().get(1).getDevice());
+        assertEquals("9-13", feed.getNextToken());
+        assertFalse(feed.isHasMore());
+    }
+
+    @Test
+    void getChanges_reportsUpsertedItemThatNoLongerExistsAsDeleted() {
+        when(changeLogRepository.findAfter(ChangeFeedPosition.START, 3)).thenReturn(List.of(
+                entry(4, 1, InventoryItemType.DEVICE, "DEV-1", ChangeOperation.UPSERT),
+                entry(4, 2, InventoryItemType.RACK, "RACK-1", ChangeOperation.DELETE)));
+
+        ChangeFeedDto feed = changeFeedService.getChanges(null, 2);
+
+        assertEquals(ChangeOperation.DELETE, feed.getChanges().get(0).getOperation());
+        assertNull(feed.getChanges().get(0).getDevice());
+        assertEquals(ChangeOperation.DELETE, feed.getChanges().get(1).getOperation());
+        verify(rackService).findRacks(List.of());
+    }
+
+    @Test
+    void getChanges_fullPage_setsHasMoreAndStopsAtLastReturnedEntry() {
+        when(changeLogRepository.findAfter(ChangeFeedPosition.START, 2)).thenReturn(List.of(
+                entry(3, 5, InventoryItemType.RACK, "RACK-1", ChangeOperation.DELETE),
+                entry(3, 6, InventoryItemType.RACK, "RACK-2", ChangeOperation.DELETE)));
+
+        ChangeFeedDto feed = changeFeedService.getChanges("", 1);
+
+        assertEquals(1, feed.getChanges().size());
+        assertEquals("3-5", feed.getNextToken());
+        assertTrue(feed.isHasMore());
+    }
+
+    @Test
+    void getChanges_noNewEntries_keepsToken() {
+        when(changeLogRepository.findAfter(new ChangeFeedPosition(42, 3), 11)).thenReturn(List.of());
+
+        ChangeFeedDto feed = changeFeedService.getChanges("42-3", 10);
+
+        assertTrue(feed.getChanges().isEmpty());
+        assertEquals("42-3", feed.getNextToken());
+        assertFalse(feed.isHasMore());
+    }
+
+    @Test
+    void getChanges_invalidToken_throwsException() {
+        assertThrows(InvalidPageRequestException.class, () -> changeFeedService.getChanges("abc", 10));
+        assertThrows(InvalidPageRequestException.class, () -> changeFeedService.getChanges("42", 10));
+        assertThrows(InvalidPageRequestException.class, () -> changeFeedService.getChanges("-1-2", 10));
+        assertThrows(InvalidPageRequestException.class, () -> changeFeedService.getChanges("1--2", 10));
+        verifyNoInteractions(changeLogRepository);
+    }
+
+    private static ChangeLogEntry entry(long transactionId, long sequence, InventoryItemType itemType,
+                                        String serialNumber, ChangeOperation operation) {
+        return new ChangeLogEntry(sequence, transactionId, itemType, serialNumber, operation, Instant.EPOCH);
+    }
+}
@@ -0,0 +1,122 @@
+package com.zmiki.datacenterapp.change;
+
+import com.zmiki.datacenterapp.inventory.InventoryItemType;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ChangeTrackerTest {
+
+    @Mock
+    private ChangeCounterRepository changeCounterRepository;
+
+    @Mock
+    private ChangeLogRepository changeLogRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private ChangeTracker changeTracker;
+
+    @BeforeEach
+    void setUp() {
+        changeTracker = new ChangeTracker(changeCounterRepository, changeLogRepository, transactionManager);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        TransactionSynchronizationManager.unbindResourceIfPossible(changeTracker);
+    }
+
+    @Test
+    void recordChange_outsideTransaction_writesRightAway() {
+        changeTracker.recordChange(InventoryItemType.DEVICE, ChangeOperation.DELETE, "DEV-1");
+
+        verify(changeLogRepository).appendAll(argThat(entries -> entries.size() == 1
+                && entries.get(0).getItemType() == InventoryItemType.DEVICE
+                && entries.get(0).getSerialNumber().equals("DEV-1")
+                && entries.get(0).getOperation() == ChangeOperation.DELETE));
+        verify(changeCounterRepository).increment(InventoryItemType.DEVICE);
+    }
+
+    @Test
+    void recordChanges_insideTransaction_appendsAndIncrementsBeforeCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+
+        changeTracker.recordChanges(InventoryItemType.DEVICE, ChangeOperation.UPSERT, List.of("DEV-1", "DEV-2"));
+        changeTracker.recordChange(InventoryItemType.RACK, ChangeOperation.UPSERT, "RACK-1");
+        verifyNoInteractions(changeLogRepository, changeCounterRepository);
+        assertEquals(1, TransactionSynchronizationManager.getSynchronizations().size());
+
+        TransactionSynchronizationUtils.triggerBeforeCommit(false);
+        verify(changeLogRepository).appendAll(argThat(entries -> entries.stream()
+                .map(ChangeLogEntry::getSerialNumber)
+                .toList()
+                .equals(List.of("DEV-1", "DEV-2", "RACK-1"))));
+        verify(changeCounterRepository).increment(InventoryItemType.DEVICE);
+        verify(changeCounterRepository).increment(InventoryItemType.RACK);
+        verifyNoInteractions(transactionManager);
+
+        TransactionSynchronizationUtils.invokeAfterCommit(TransactionSynchronizationManager.getSynchronizations());
+        verifyNoMoreInteractions(changeLogRepository, changeCounterRepository);
+
+        TransactionSynchronizationUtils.invokeAfterCompletion(TransactionSynchronizationManager.getSynchronizations(),
+                TransactionSynchronization.STATUS_COMMITTED);
+        assertFalse(TransactionSynchronizationManager.hasResource(changeTracker));
+    }
+
+    @Test
+    void recordChanges_failingCounterUpdate_failsBeforeCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+        doThrow(new IllegalStateException("counter unavailable")).when(changeCounterRepository).increment(any());
+
+        changeTracker.recordChange(InventoryItemType.RACK, ChangeOperation.UPSERT, "RACK-1");
+
+        assertThrows(IllegalStateException.class, () -> TransactionSynchronizationUtils.triggerBeforeCommit(false));
+    }
+
+    @Test
+    void recordChanges_withoutItems_recordsNothing() {
+        changeTracker.recordChanges(InventoryItemType.RACK, ChangeOperation.UPSERT, List.of());
+
+        verifyNoInteractions(changeLogRepository, changeCounterRepository);
+    }
+
+    @Test
+    void changeToken_isCurrentFeedPosition() {
+        when(changeLogRepository.findCurrentPosition()).thenReturn(ChangeFeedPosition.before(42));
+
+        assertEquals("42-0", changeTracker.changeToken());
+    }
+
+    @Test
+    void rackETag_combinesRackAndDeviceCounters() {
+        Map<InventoryItemType, Long> counters = new EnumMap<>(InventoryItemType.class);
+        counters.put(InventoryItemType.RACK, 3L);
+        counters.put(InventoryItemType.DEVICE, 7L);
+        when(changeCounterRepository.findAll()).thenReturn(counters);
+
+        assertEquals("\"3-7\"", changeTracker.rackETag());
+        assertEquals("\"7\"", changeTracker.deviceETag());
+    }
+}
@@ -0,0 +1,124 @@
+package com.zmiki.datacenterapp.change;
+
+import com.zmiki.datacenterapp.device.dto.DeviceDto;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ETagsTest {
+
+    private static final String E_TAG = "\"3-7\"";
+
+    @Test
+    void conditionalGet_matchingIfNoneMatch_returnsNotModifiedWithoutBody() {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/racks");
+        request.addHeader(HttpHeaders.IF_NONE_MATCH, E_TAG);
+        AtomicBoolean bodyLoaded = new AtomicBoolean();
+
+        ResponseEntity<String> response = ETags.conditionalGet(
+                new ServletWebRequest(request, new MockHttpServletResponse()), E_TAG, () -> {
+                    bodyLoaded.set(true);
+                    return "racks";
+                });
+
+        assertEquals(HttpStatus.NOT_MODIFIED, response.getStatusCode());
+        assertNull(response.getBody());
+        assertFalse(bodyLoaded.get());
+    }
+
+    @Test
+    void conditionalGet_staleIfNoneMatch_returnsTaggedBody() {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/racks");
+        request.addHeader(HttpHeaders.IF_NONE_MATCH, "\"2-7\"");
+
+        ResponseEntity<String> response = ETags.conditionalGet(
+                new ServletWebRequest(request, new MockHttpServletResponse()), E_TAG, () -> "racks");
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals("racks", response.getBody());
+        assertEquals(E_TAG, response.getHeaders().getETag());
+    }
+
+    @Test
+    void conditionalGet_binaryFormat_tagsRepresentationAndVariesByAccept() {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/racks");
+        request.addHeader(HttpHeaders.ACCEPT, MediaType.APPLICATION_CBOR_VALUE);
+
+        ResponseEntity<String> response = ETags.conditionalGet(
+                new ServletWebRequest(request, new MockHttpServletResponse()), E_TAG, () -> "racks");
+
+        assertEquals("\"3-7;cbor\"", response.getHeaders().getETag());
+        assertEquals(List.of(HttpHeaders.ACCEPT), response.getHeaders().getVary());
+    }
+
+    @Test
+    void conditionalGet_jsonTagDoesNotMatchBinaryRepresentation() {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/racks");
+        request.addHeader(HttpHeaders.ACCEPT, "application/x-jackson-smile");
+        request.addHeader(HttpHeaders.IF_NONE_MATCH, E_TAG);
+
+        ResponseEntity<String> response = ETags.conditionalGet(
+                new ServletWebRequest(request, new MockHttpServletResponse()), E_TAG, () -> "racks");
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals("\"3-7;smile\"", response.getHeaders().getETag());
+    }
+
+    @Test
+    void conditionalGet_withChangeToken_addsTokenToBothAnswers() {
+        MockHttpServletRequest matching = new MockHttpServletRequest("GET", "/api/devices");
+        matching.addHeader(HttpHeaders.IF_NONE_MATCH, E_TAG);
+        MockHttpServletRequest stale = new MockHttpServletRequest("GET", "/api/devices");
+
+        ResponseEntity<String> notModified = ETags.conditionalGet(
+                new ServletWebRequest(matching, new MockHttpServletResponse()), "12", E_TAG, () -> "devices");
+        ResponseEntity<String> ok = ETags.conditionalGet(
+                new ServletWebRequest(stale, new MockHttpServletResponse()), "12", E_TAG, () -> "devices");
+
+        assertEquals(HttpStatus.NOT_MODIFIED, notModified.getStatusCode());
+        assertEquals("12", notModified.getHeaders().getFirst(ETags.CHANGE_TOKEN_HEADER));
+        assertEquals(E_TAG, notModified.getHeaders().getETag());
+        assertEquals(HttpStatus.OK, ok.getStatusCode());
+        assertEquals("devices", ok.getBody());
+        assertEquals("12", ok.getHeaders().getFirst(ETags.CHANGE_TOKEN_HEADER));
+        assertEquals(List.of(HttpHeaders.ACCEPT), ok.getHeaders().getVary());
+    }
+
+    @Test
+    void forRepresentation_followsAcceptPreference() {
+        assertEquals(E_TAG, ETags.forRepresentation(webRequest(null), E_TAG));
+        assertEquals(E_TAG, ETags.forRepresentation(webRequest("*/*"), E_TAG));
+        assertEquals(E_TAG, ETags.forRepresentation(webRequest("application/json, application/cbor"), E_TAG));
+        assertEquals("\"3-7;cbor\"", ETags.forRepresentation(webRequest("application/json;q=0.5, application/cbor"), E_TAG));
+        assertEquals("\"3-7;smile\"", ETags.forRepresentation(webRequest("application/x-jackson-smile, */*;q=0.1"), E_TAG));
+        assertEquals(E_TAG, ETags.forRepresentation(webRequest("not a media type"), E_TAG));
+    }
+
+    @Test
+    void contentTag_followsDtoFields() {
+        DeviceDto device = DeviceDto.builder().serialNumber("DEV-001").name("Device").units(1).power(100).build();
+        DeviceDto sameDevice = DeviceDto.builder().serialNumber("DEV-001").name("Device").units(1).power(100).build();
+        DeviceDto renamedDevice = DeviceDto.builder().serialNumber("DEV-001").name("Renamed").units(1).power(100).build();
+
+        assertEquals(ETags.contentTag(device), ETags.contentTag(sameDevice));
+        assertNotEquals(ETags.contentTag(device), ETags.contentTag(renamedDevice));
+    }
+
+    private static ServletWebRequest webRequest(String accept) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/racks");
+        if (accept != null) {
+            request.addHeader(HttpHeaders.ACCEPT, accept);
+        }
+        return new ServletWebRequest(request, new MockHttpServletResponse());
+    }
+}
@@ -0,0 +1,240 @@
+package com.zmiki.datacenterapp.config;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+import com.zmiki.datacenterapp.change.ChangeTracker;
+import com.zmiki.datacenterapp.change.ETags;
+import com.zmiki.datacenterapp.device.DeviceController;
+import com.zmiki.datacenterapp.device.DeviceService;
+import com.zmiki.datacenterapp.device.dto.DeviceDto;
+import com.zmiki.datacenterapp.distribution.DistributionController;
+import com.zmiki.datacenterapp.distribution.DistributionPlanService;
+import com.zmiki.datacenterapp.distribution.DistributionRequest;
+import com.zmiki.datacenterapp.distribution.DistributionResult;
+import com.zmiki.datacenterapp.distribution.DistributionService;
+import com.zmiki.datacenterapp.rack.RackController;
+import com.zmiki.datacenterapp.rack.RackService;
+import com.zmiki.datacenterapp.rack.dto.RackDistributionDto;
+import com.zmiki.datacenterapp.rack.dto.RackDto;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(controllers = {DeviceController.class, RackController.class, DistributionController.class})
+@Import({JacksonConfig.class, BinaryFormatsConfig.class})
+class BinaryFormatsConfigTest {
+
+    private static final DeviceDto DEVICE = DeviceDto.builder()
+            .name("Server")
+            .serialNumber("DEV-001")
+            .units(2)
+            .power(400)
+            .build();
+
+    private static final RackDto RACK = RackDto.builder()
+            .name("Rack A")
+            .serialNumber("RACK-A")
+            .unit(42)
+            .maxPower(5000)
+            .usedUnits(2)
+            .usedPower(400)
+            .devices(List.of(DEVICE))
+            .build();
+
+    private final CBORMapper cborMapper = new CBORMapper();
+    private final SmileMapper smileMapper = new SmileMapper();
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @MockitoBean
+    private DeviceService deviceService;
+
+    @MockitoBean
+    private RackService rackService;
+
+    @MockitoBean
+    private DistributionService distributionService;
+
+    @MockitoBean
+    private DistributionPlanService distributionPlanService;
+
+    @MockitoBean
+    private ChangeTracker changeTracker;
+
+    @Test
+    void getAllDevices_asCbor_roundTrips() throws Exception {
+        when(changeTracker.changeToken()).thenReturn("12");
+        when(changeTracker.deviceETag()).thenReturn("\"4\"");
+        when(deviceService.getAllDevices()).thenReturn(List.of(DEVICE));
+
+        MvcResult result = mockMvc.perform(get("/api/devices").accept(MediaType.APPLICATION_CBOR))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_CBOR))
+                .andExpect(header().string(HttpHeaders.ETAG, "\"4;cbor\""))
+                .andExpect(header().string(HttpHeaders.VARY, HttpHeaders.ACCEPT))
+                .andExpect(header().string(ETags.CHANGE_TOKEN_HEADER, "12"))
+                .andReturn();
+
+        List<DeviceDto> devices = cborMapper.readValue(result.getResponse().getContentAsByteArray(),
+                new TypeReference<List<DeviceDto>>() {
+                });
+        assertThat(devices).containsExactly(DEVICE);
+    }
+
+    @Test
+    void getAllRacks_asSmile_roundTripsAndIsSmallerThanJson() throws Exception {
+        when(changeTracker.changeToken()).thenReturn("12");
+        when(changeTracker.rackETag()).thenReturn("\"3-4\"");
+        when(rackService.getAllRacks()).thenReturn(List.of(RACK));
+
+        byte[] smile = mockMvc.perform(get("/api/racks").accept(BinaryFormatsConfig.APPLICATION_SMILE))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(BinaryFormatsConfig.APPLICATION_SMILE))
+                .andExpect(header().string(HttpHeaders.ETAG, "\"3-4;smile\""))
+                .andReturn().getResponse().getContentAsByteArray();
+        byte[] json = mockMvc.perform(get("/api/racks").accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"3-4\""))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        List<RackDto> racks = smileMapper.readValue(smile, new TypeReference<List<RackDto>>() {
+        });
+        assertThat(racks).containsExactly(RACK);
+        assertThat(smile.length).isLessThan(json.length);
+    }
+
+    @Test
+    void getAllRacks_binaryFormatsAreSmallerThanJson() throws Exception {
+        List<RackDto> listing = new ArrayList<>();
+        for (int r = 0; r < 50; r++) {
+            List<DeviceDto> devices = new ArrayList<>();
+            for (int d = 0; d < 20; d++) {
+                devices.add(DeviceDto.builder()
+                        .name("Server " + r + "-" + d)
+                        .serialNumber("DEV-" + r + "-" + d)
+                        .units(1 + d % 3)
+                        .power(100 + 50 * d)
+                        .build());
+            }
+            listing.add(RackDto.builder()
+                    .name("Rack " + r)
+                    .serialNumber("RACK-" + r)
+                    .unit(42)
+                    .maxPower(20000)
+                    .devices(devices)
+                    .build());
+        }
+        when(changeTracker.changeToken()).thenReturn("12");
+        when(changeTracker.rackETag()).thenReturn("\"3-4\"");
+        when(rackService.getAllRacks()).thenReturn(listing);
+
+        int json = encodedRackListingSize(MediaType.APPLICATION_JSON);
+        int cbor = encodedRackListingSize(MediaType.APPLICATION_CBOR);
+        int smile = encodedRackListingSize(BinaryFormatsConfig.APPLICATION_SMILE);
+
+        assertThat(cbor).isLessThan(json);
+        assertThat(smile).isLessThan(cbor);
+    }
+
+    @Test
+    void getRack_asCbor_appliesFieldSelection() throws Exception {
+        when(rackService.getRackWithoutDevices("RACK-A")).thenReturn(RackDto.builder()
+                .name("Rack A")
+                .serialNumber("RACK-A")
+                .unit(42)
+                .maxPower(5000)
+                .build());
+
+        MvcResult result = mockMvc.perform(get("/api/racks/RACK-A")
+                        .param("fields", "name,serialNumber")
+                        .accept(MediaType.APPLICATION_CBOR))
+                .andExpect(status().isOk())
+                .andReturn();
+
+        JsonNode rack = cborMapper.readTree(result.getResponse().getContentAsByteArray());
+        assertThat(rack.properties()).extracting(Map.Entry::getKey)
+                .containsExactlyInAnyOrder("name", "serialNumber");
+    }
+
+    @Test
+    void distributeDevices_cborRequestAndResponse_roundTrip() throws Exception {
+        RackDistributionDto rackDistribution = RackDistributionDto.builder()
+                .rackName("Rack A")
+                .rackSerialNumber("RACK-A")
+                .powerUsagePercentage(8.0)
+                .devices(List.of(DEVICE))
+                .build();
+        when(distributionService.arrangeDevices(any())).thenReturn(DistributionResult.builder()
+                .message("Distribution completed")
+                .racksWithDevices(List.of(rackDistribution))
+                .unplacedDevices(List.of())
+                .build());
+        DistributionRequest request = DistributionRequest.builder()
+                .deviceSerialNumbers(List.of("DEV-001"))
+                .rackSerialNumbers(List.of("RACK-A"))
+                .build();
+
+        MvcResult result = mockMvc.perform(post("/api/distribution/distribute-devices")
+                        .contentType(MediaType.APPLICATION_CBOR)
+                        .content(cborMapper.writeValueAsBytes(request))
+                        .accept(MediaType.APPLICATION_CBOR))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_CBOR))
+                .andReturn();
+
+        DistributionResult distribution = cborMapper.readValue(result.getResponse().getContentAsByteArray(),
+                DistributionResult.class);
+        assertThat(distribution.getMessage()).isEqualTo("Distribution completed");
+        assertThat(distribution.getRacksWithDevices()).containsExactly(rackDistribution);
+    }
+
+    @Test
+    void anyMediaType_staysJson() throws Exception {
+        when(changeTracker.changeToken()).thenReturn("12");
+        when(changeTracker.deviceETag()).thenReturn("\"4\"");
+        when(deviceService.getAllDevices()).thenReturn(List.of(DEVICE));
+
+        MvcResult result = mockMvc.perform(get("/api/devices").accept(MediaType.ALL))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+                .andReturn();
+
+        List<DeviceDto> devices = objectMapper.readValue(result.getResponse().getContentAsByteArray(),
+                new TypeReference<List<DeviceDto>>() {
+                });
+        assertThat(devices).containsExactly(DEVICE);
+    }
+
+    private int encodedRackListingSize(MediaType mediaType) throws Exception {
+        return mockMvc.perform(get("/api/racks").accept(mediaType))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(mediaType))
+                .andReturn().getResponse().getContentAsByteArray().length;
+    }
+}
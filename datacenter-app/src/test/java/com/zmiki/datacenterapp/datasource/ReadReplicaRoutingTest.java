@@ -0,0 +1,142 @@
+package com.zmiki.datacenterapp.datasource;
+
+import com.zmiki.datacenterapp.device.DeviceService;
+import com.zmiki.datacenterapp.device.dto.DeviceCreateDto;
+import com.zmiki.datacenterapp.device.dto.DeviceDto;
+import com.zmiki.datacenterapp.rack.RackService;
+import jakarta.persistence.EntityNotFoundException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import javax.sql.DataSource;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs against two independent Postgres instances without replication between them, so whichever instance a
+ * query lands on is visible from the data it returns.
+ */
+@SpringBootTest
+@Testcontainers(disabledWithoutDocker = true)
+class ReadReplicaRoutingTest {
+
+    private static final String REPLICA_ONLY_SERIAL = "DEV-REPLICA";
+    private static final String WRITTEN_SERIAL = "DEV-WRITTEN";
+
+    @Container
+    static PostgreSQLContainer<?> primary = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @Container
+    static PostgreSQLContainer<?> replica = new PostgreSQLContainer<>("postgres:16-alpine")
+            .withInitScript("replica-schema.sql");
+
+    @DynamicPropertySource
+    static void datasources(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", primary::getJdbcUrl);
+        registry.add("spring.datasource.username", primary::getUsername);
+        registry.add("spring.datasource.password", primary::getPassword);
+        registry.add("spring.sql.init.mode", () -> "never");
+        registry.add("datacenter.datasource.replica.enabled", () -> "true");
+        registry.add("datacenter.datasource.replica.url", replica::getJdbcUrl);
+        registry.add("datacenter.datasource.replica.username", replica::getUsername);
+        registry.add("datacenter.datasource.replica.password", replica::getPassword);
+    }
+
+    @Autowired
+    private DeviceService deviceService;
+
+    @Autowired
+    private RackService rackService;
+
+    @Autowired
+    @Qualifier("primaryDataSource")
+    private DataSource primaryDataSource;
+
+    @Autowired
+    @Qualifier("replicaDataSource")
+    private DataSource replicaDataSource;
+
+    @BeforeEach
+    void setUp() {
+        ReadYourWrites.clear();
+    }
+
+    @AfterEach
+    void tearDown() {
+        ReadYourWrites.clear();
+        new JdbcTemplate(primaryDataSource).update("DELETE FROM device");
+        new JdbcTemplate(replicaDataSource).update("DELETE FROM device");
+        new JdbcTemplate(replicaDataSource).update("DELETE FROM rack");
+    }
+
+    @Test
+    void readOnlyTransactions_readFromReplica() {
+        insertReplicaOnlyDevice();
+
+        assertTrue(deviceService.getAllDevices().stream()
+                .anyMatch(device -> device.getSerialNumber().equals(REPLICA_ONLY_SERIAL)));
+    }
+
+    @Test
+    void cachedLoads_readFromPrimary() {
+        insertReplicaOnlyDevice();
+
+        assertThrows(EntityNotFoundException.class, () -> deviceService.getDevice(REPLICA_ONLY_SERIAL));
+        assertThrows(EntityNotFoundException.class, () -> rackService.getRack("RACK-REPLICA"));
+    }
+
+    @Test
+    void writes_goToPrimary() {
+        deviceService.createDevice(deviceCreateDto());
+
+        assertEquals(1, countDevices(primaryDataSource));
+        assertEquals(0, countDevices(replicaDataSource));
+    }
+
+    @Test
+    void readsAfterWriteInSameRequest_usePrimary() {
+        deviceService.createDevice(deviceCreateDto());
+
+        assertTrue(ReadYourWrites.hasWritten());
+        assertTrue(deviceService.getAllDevices().stream().map(DeviceDto::getSerialNumber).anyMatch(WRITTEN_SERIAL::equals));
+
+        ReadYourWrites.clear();
+
+        assertTrue(deviceService.getAllDevices().stream().map(DeviceDto::getSerialNumber).noneMatch(WRITTEN_SERIAL::equals));
+        assertEquals(WRITTEN_SERIAL, deviceService.getDevice(WRITTEN_SERIAL).getSerialNumber());
+    }
+
+    private void insertReplicaOnlyDevice() {
+        JdbcTemplate replica = new JdbcTemplate(replicaDataSource);
+        UUID rackId = UUID.randomUUID();
+        replica.update("INSERT INTO rack (id, name, serial_number, max_units, max_power) VALUES (?, ?, ?, ?, ?)",
+                rackId, "Replica rack", "RACK-REPLICA", 42, 5000);
+        replica.update("INSERT INTO device (id, name, serial_number, units, power, rack_id) VALUES (?, ?, ?, ?, ?, ?)",
+                UUID.randomUUID(), "Replica device", REPLICA_ONLY_SERIAL, 1, 100, rackId);
+    }
+
+    private static DeviceCreateDto deviceCreateDto() {
+        return DeviceCreateDto.builder()
+                .name("Written device")
+                .serialNumber(WRITTEN_SERIAL)
+                .unit(1)
+                .power(100)
+                .build();
+    }
+
+    private static int countDevices(DataSource dataSource) {
+        return new JdbcTemplate(dataSource).queryForObject(
+                "SELECT count(*) FROM device WHERE serial_number = ?", Integer.class, WRITTEN_SERIAL);
+    }
+}
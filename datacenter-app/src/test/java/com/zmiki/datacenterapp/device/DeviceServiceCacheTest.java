@@ -0,0 +1,109 @@
+package com.zmiki.datacenterapp.device;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.zmiki.datacenterapp.change.ChangeTracker;
+import com.zmiki.datacenterapp.config.CacheConfig;
+import com.zmiki.datacenterapp.device.dto.DeviceDto;
+import jakarta.validation.Validator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@SpringJUnitConfig(DeviceServiceCacheTest.Config.class)
+class DeviceServiceCacheTest {
+
+    private static final String SERIAL_NUMBER = "DEV-001";
+
+    @Configuration
+    @Import({CacheConfig.class, DeviceService.class})
+    static class Config {
+
+        @Bean
+        CacheManager cacheManager() {
+            CaffeineCacheManager cacheManager = new CaffeineCacheManager(CacheConfig.DEVICES, CacheConfig.RACKS);
+            cacheManager.setCaffeine(Caffeine.newBuilder().maximumSize(100).recordStats());
+            return cacheManager;
+        }
+    }
+
+    @MockitoBean
+    private DeviceRepository deviceRepository;
+
+    @MockitoBean
+    private DeviceConverter deviceConverter;
+
+    @MockitoBean
+    private DeviceJdbcRepository deviceJdbcRepository;
+
+    @MockitoBean
+    private Validator validator;
+
+    @MockitoBean
+    private ChangeTracker changeTracker;
+
+    @Autowired
+    private DeviceService deviceService;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    private Device device;
+    private DeviceDto deviceDto;
+
+    @BeforeEach
+    void setUp() {
+        cacheManager.getCacheNames().forEach(name -> cacheManager.getCache(name).clear());
+
+        device = Device.builder().serialNumber(SERIAL_NUMBER).name("Device").units(1).power(100).build();
+        deviceDto = DeviceDto.builder().serialNumber(SERIAL_NUMBER).name("Device").units(1).power(100).build();
+        when(deviceRepository.findDtoBySerialNumber(SERIAL_NUMBER)).thenReturn(Optional.of(deviceDto));
+        when(deviceRepository.findForUpdateBySerialNumber(SERIAL_NUMBER)).thenReturn(Optional.of(device));
+        when(deviceConverter.toDto(any(Device.class))).thenReturn(deviceDto);
+    }
+
+    @Test
+    void getDevice_secondReadIsServedFromCache() {
+        assertEquals(deviceDto, deviceService.getDevice(SERIAL_NUMBER));
+        assertEquals(deviceDto, deviceService.getDevice(SERIAL_NUMBER));
+
+        verify(deviceRepository, times(1)).findDtoBySerialNumber(SERIAL_NUMBER);
+        CaffeineCache cache = (CaffeineCache) cacheManager.getCache(CacheConfig.DEVICES);
+        assertEquals(1, cache.getNativeCache().stats().hitCount());
+    }
+
+    @Test
+    void updateDevice_evictsDeviceAndRacks() {
+        deviceService.getDevice(SERIAL_NUMBER);
+        cacheManager.getCache(CacheConfig.RACKS).put("RACK-001", "cached rack");
+        when(deviceRepository.save(device)).thenReturn(device);
+
+        deviceService.updateDevice(SERIAL_NUMBER, deviceDto);
+
+        assertNull(cacheManager.getCache(CacheConfig.DEVICES).get(SERIAL_NUMBER));
+        assertNull(cacheManager.getCache(CacheConfig.RACKS).get("RACK-001"));
+    }
+
+    @Test
+    void deleteDevice_evictsDevice() {
+        deviceService.getDevice(SERIAL_NUMBER);
+
+        deviceService.deleteDevice(SERIAL_NUMBER);
+        deviceService.getDevice(SERIAL_NUMBER);
+
+        verify(deviceRepository, times(2)).findDtoBySerialNumber(SERIAL_NUMBER);
+    }
+}
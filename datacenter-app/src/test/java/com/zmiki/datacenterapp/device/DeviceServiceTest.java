@@ -1,16 +1,32 @@
 package com.zmiki.datacenterapp.device;
 
+import com.zmiki.datacenterapp.bulk.BulkCreateResult;
+import com.zmiki.datacenterapp.bulk.BulkItemResult;
+import com.zmiki.datacenterapp.bulk.BulkItemStatus;
+import com.zmiki.datacenterapp.change.ChangeOperation;
+import com.zmiki.datacenterapp.change.ChangeTracker;
 import com.zmiki.datacenterapp.device.dto.DeviceCreateDto;
 import com.zmiki.datacenterapp.device.dto.DeviceDto;
+import com.zmiki.datacenterapp.exception.InvalidPageRequestException;
+import com.zmiki.datacenterapp.inventory.InventoryItemType;
+import com.zmiki.datacenterapp.pagination.KeysetPage;
+import com.zmiki.datacenterapp.pagination.SerialNumberCursor;
+import com.zmiki.datacenterapp.rack.Rack;
 import jakarta.persistence.EntityNotFoundException;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.jpa.domain.Specification;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -48,6 +64,15 @@ class DeviceServiceTest {
     @Mock
     private DeviceConverter deviceConverter;
 
+    @Mock
+    private DeviceJdbcRepository deviceJdbcRepository;
+
+    @Mock
+    private ChangeTracker changeTracker;
+
+    @Spy
+    private Validator validator = Validation.buildDefaultValidatorFactory().getValidator();
+
     @InjectMocks
     private DeviceService deviceService;
 
@@ -104,6 +129,7 @@ class DeviceServiceTest {
         verify(deviceConverter).fromCreateDto(deviceCreateDto);
         verify(deviceRepository).save(device);
         verify(deviceConverter).toDto(device);
+        verify(changeTracker).recordChange(InventoryItemType.DEVICE, ChangeOperation.UPSERT, serialNumber);
     }
 
     @Test
@@ -142,7 +168,7 @@ class DeviceServiceTest {
                 .power(UPDATED_DEVICE_POWER)
                 .build();
 
-        when(deviceRepository.findBySerialNumber(serialNumber)).thenReturn(Optional.of(device));
+        when(deviceRepository.findForUpdateBySerialNumber(serialNumber)).thenReturn(Optional.of(device));
         when(deviceRepository.save(any(Device.class))).thenReturn(updatedDevice);
         when(deviceConverter.toDto(updatedDevice)).thenReturn(updateDto);
 
@@ -150,7 +176,7 @@ class DeviceServiceTest {
 
         assertNotNull(result);
         assertEquals(updateDto, result);
-        verify(deviceRepository).findBySerialNumber(serialNumber);
+        verify(deviceRepository).findForUpdateBySerialNumber(serialNumber);
         verify(deviceRepository).save(device);
         verify(deviceConverter).toDto(updatedDevice);
 
@@ -172,14 +198,14 @@ class DeviceServiceTest {
         );
         assertEquals(SERIAL_NUMBER_MISMATCH_MESSAGE, exception.getMessage());
 
-        verify(deviceRepository, never()).findBySerialNumber(any());
+        verify(deviceRepository, never()).findForUpdateBySerialNumber(any());
         verify(deviceRepository, never()).save(any());
         verify(deviceConverter, never()).toDto(any());
     }
 
     @Test
     void updateDevice_deviceNotFound_throwsException() {
-        when(deviceRepository.findBySerialNumber(serialNumber)).thenReturn(Optional.empty());
+        when(deviceRepository.findForUpdateBySerialNumber(serialNumber)).thenReturn(Optional.empty());
 
         EntityNotFoundException exception = assertThrows(
                 EntityNotFoundException.class,
@@ -187,25 +213,25 @@ class DeviceServiceTest {
         );
         assertEquals(DEVICE_NOT_FOUND_MESSAGE, exception.getMessage());
 
-        verify(deviceRepository).findBySerialNumber(serialNumber);
+        verify(deviceRepository).findForUpdateBySerialNumber(serialNumber);
         verify(deviceRepository, never()).save(any());
         verify(deviceConverter, never()).toDto(any());
     }
 
     @Test
     void deleteDevice_successfully() {
-        when(deviceRepository.findBySerialNumber(serialNumber)).thenReturn(Optional.of(device));
+        when(deviceRepository.findForUpdateBySerialNumber(serialNumber)).thenReturn(Optional.of(device));
         doNothing().when(deviceRepository).delete(device);
 
         deviceService.deleteDevice(serialNumber);
 
-        verify(deviceRepository).findBySerialNumber(serialNumber);
+        verify(deviceRepository).findForUpdateBySerialNumber(serialNumber);
         verify(deviceRepository).delete(device);
     }
 
     @Test
     void deleteDevice_deviceNotFound_throwsException() {
-        when(deviceRepository.findBySerialNumber(serialNumber)).thenReturn(Optional.empty());
+        when(deviceRepository.findForUpdateBySerialNumber(serialNumber)).thenReturn(Optional.empty());
 
         EntityNotFoundException exception = assertThrows(
                 EntityNotFoundException.class,
@@ -213,26 +239,74 @@ class DeviceServiceTest {
         );
         assertEquals(DEVICE_NOT_FOUND_MESSAGE, exception.getMessage());
 
-        verify(deviceRepository).findBySerialNumber(serialNumber);
-        verify(deviceRepository, never()).delete(any());
+        verify(deviceRepository).findForUpdateBySerialNumber(serialNumber);
+        verify(deviceRepository, never()).delete(any(Device.class));
+    }
+
+    @Test
+    void updateDevice_mountedDevice_addsResizeToRackUsage() {
+        Rack rack = Rack.builder().id(UUID.randomUUID()).build();
+        device.setRack(rack);
+        DeviceDto updateDto = DeviceDto.builder()
+                .serialNumber(serialNumber)
+                .units(UPDATED_DEVICE_SLOTS)
+                .power(UPDATED_DEVICE_POWER)
+                .build();
+
+        when(deviceRepository.findForUpdateBySerialNumber(serialNumber)).thenReturn(Optional.of(device));
+        when(deviceRepository.save(device)).thenReturn(device);
+
+        deviceService.updateDevice(serialNumber, updateDto);
+
+        verify(deviceJdbcRepository).addRackUsage(rack.getId(),
+                UPDATED_DEVICE_POWER - TEST_DEVICE_POWER, UPDATED_DEVICE_SLOTS - TEST_DEVICE_SLOTS);
+    }
+
+    @Test
+    void updateDevice_unmountedDevice_leavesRackUsage() {
+        DeviceDto updateDto = DeviceDto.builder()
+                .serialNumber(serialNumber)
+                .units(UPDATED_DEVICE_SLOTS)
+                .power(UPDATED_DEVICE_POWER)
+                .build();
+
+        when(deviceRepository.findForUpdateBySerialNumber(serialNumber)).thenReturn(Optional.of(device));
+        when(deviceRepository.save(device)).thenReturn(device);
+
+        deviceService.updateDevice(serialNumber, updateDto);
+
+        verify(deviceJdbcRepository, never()).addRackUsage(any(), anyInt(), anyInt());
+    }
+
+    @Test
+    void deleteDevice_mountedDevice_removesItsUsageFromRack() {
+        Rack rack = Rack.builder().id(UUID.randomUUID()).build();
+        device.setRack(rack);
+
+        when(deviceRepository.findForUpdateBySerialNumber(serialNumber)).thenReturn(Optional.of(device));
+
+        deviceService.deleteDevice(serialNumber);
+
+        verify(deviceJdbcRepository).addRackUsage(rack.getId(), -TEST_DEVICE_POWER, -TEST_DEVICE_SLOTS);
+        verify(deviceRepository).delete(device);
     }
 
     @Test
     void getDevice_successfully() {
-        when(deviceRepository.findBySerialNumber(serialNumber)).thenReturn(Optional.of(device));
-        when(deviceConverter.toDto(device)).thenReturn(deviceDto);
+        when(deviceRepository.findDtoBySerialNumber(serialNumber)).thenReturn(Optional.of(deviceDto));
 
         DeviceDto result = deviceService.getDevice(serialNumber);
 
         assertNotNull(result);
         assertEquals(deviceDto, result);
-        verify(deviceRepository).findBySerialNumber(serialNumber);
-        verify(deviceConverter).toDto(device);
+        verify(deviceRepository).findDtoBySerialNumber(serialNumber);
+        verify(deviceRepository, never()).findBySerialNumber(any());
+        verify(deviceConverter, never()).toDto(any());
     }
 
     @Test
     void getDevice_deviceNotFound_throwsException() {
-        when(deviceRepository.findBySerialNumber(serialNumber)).thenReturn(Optional.empty());
+        when(deviceRepository.findDtoBySerialNumber(serialNumber)).thenReturn(Optional.empty());
 
         EntityNotFoundException exception = assertThrows(
                 EntityNotFoundException.class,
@@ -240,13 +314,12 @@ class DeviceServiceTest {
         );
         assertEquals(DEVICE_NOT_FOUND_MESSAGE, exception.getMessage());
 
-        verify(deviceRepository).findBySerialNumber(serialNumber);
-        verify(deviceConverter, never()).toDto(any());
+        verify(deviceRepository).findDtoBySerialNumber(serialNumber);
     }
 
     @Test
     void getAllDevices_successfully() {
-        Device device2 = Device.builder()
+        DeviceDto deviceDto2 = DeviceDto.builder()
                 .id(UUID.randomUUID())
                 .name(TEST_DEVICE_2_NAME)
                 .serialNumber(TEST_DEVICE_2_SERIAL)
@@ -254,28 +327,143 @@ class DeviceServiceTest {
                 .power(TEST_DEVICE_2_POWER)
                 .build();
 
-        DeviceDto deviceDto2 = DeviceDto.builder()
-                .id(device2.getId())
+        List<DeviceDto> expectedDtos = Arrays.asList(deviceDto, deviceDto2);
+
+        when(deviceRepository.findAllDtos()).thenReturn(expectedDtos);
+
+        List<DeviceDto> result = deviceService.getAllDevices();
+
+        assertNotNull(result);
+        assertEquals(EXPECTED_DEVICE_COUNT, result.size());
+        assertEquals(expectedDtos, result);
+        verify(deviceRepository).findAllDtos();
+        verify(deviceRepository, never()).findAll();
+        verify(deviceConverter, never()).toDto(any());
+    }
+
+    @Test
+    void getDevicesBySerialNumbers_dropsDuplicatesAndKeepsRequestOrder() {
+        Device device2 = Device.builder()
                 .name(TEST_DEVICE_2_NAME)
                 .serialNumber(TEST_DEVICE_2_SERIAL)
                 .units(TEST_DEVICE_2_SLOTS)
                 .power(TEST_DEVICE_2_POWER)
                 .build();
 
-        List<Device> devices = Arrays.asList(device, device2);
-        List<DeviceDto> expectedDtos = Arrays.asList(deviceDto, deviceDto2);
+        when(deviceRepository.findAllBySerialNumberIn(List.of(TEST_DEVICE_2_SERIAL, serialNumber)))
+                .thenReturn(Arrays.asList(device, device2));
+
+        List<Device> result = deviceService.getDevicesBySerialNumbers(
+                Arrays.asList(TEST_DEVICE_2_SERIAL, serialNumber, TEST_DEVICE_2_SERIAL));
+
+        assertEquals(Arrays.asList(device2, device), result);
+        verify(deviceRepository, never()).findBySerialNumber(any());
+    }
+
+    @Test
+    void getDevicesBySerialNumbers_queriesInChunks() {
+        List<String> serialNumbers = new ArrayList<>();
+        for (int i = 0; i < 2 * DeviceService.LOOKUP_CHUNK_SIZE + 1; i++) {
+            serialNumbers.add("DEV-" + i);
+        }
+        when(deviceRepository.findAllBySerialNumberIn(any())).thenAnswer(invocation -> {
+            Collection<String> chunk = invocation.getArgument(0);
+            return chunk.stream()
+                    .map(serial -> Device.builder().serialNumber(serial).build())
+                    .toList();
+        });
+
+        List<Device> result = deviceService.getDevicesBySerialNumbers(serialNumbers);
+
+        assertEquals(serialNumbers.size(), result.size());
+        verify(deviceRepository, times(3)).findAllBySerialNumberIn(any());
+    }
+
+    @Test
+    void getDevicesBySerialNumbers_reportsAllMissingSerialNumbers() {
+        when(deviceRepository.findAllBySerialNumberIn(any())).thenReturn(List.of(device));
+
+        List<String> serialNumbers = Arrays.asList(TEST_DEVICE_2_SERIAL, serialNumber, DIFFERENT_SERIAL);
+        EntityNotFoundException exception = assertThrows(EntityNotFoundException.class,
+                () -> deviceService.getDevicesBySerialNumbers(serialNumbers));
+
+        assertEquals("Devices not found: [" + TEST_DEVICE_2_SERIAL + ", " + DIFFERENT_SERIAL + "]", exception.getMessage());
+    }
+
+    @Test
+    void getDevicesPage_returnsCursorOfLastItemWhenMoreRowsExist() {
+        Device device2 = Device.builder().serialNumber(TEST_DEVICE_2_SERIAL).build();
+        Device device3 = Device.builder().serialNumber("DEV-003").build();
+        when(deviceRepository.findBy(any(Specification.class), any())).thenReturn(List.of(device, device2, device3));
+        when(deviceConverter.toDto(any(Device.class))).thenReturn(deviceDto);
 
-        when(deviceRepository.findAll()).thenReturn(devices);
+        KeysetPage<DeviceDto> page = deviceService.getDevicesPage(new DeviceFilter(), null, 2);
+
+        assertEquals(2, page.getItems().size());
+        assertEquals(TEST_DEVICE_2_SERIAL, SerialNumberCursor.decode(page.getNextCursor()));
+    }
+
+    @Test
+    void getDevicesPage_lastPageHasNoCursor() {
+        when(deviceRepository.findBy(any(Specification.class), any())).thenReturn(List.of(device));
         when(deviceConverter.toDto(device)).thenReturn(deviceDto);
-        when(deviceConverter.toDto(device2)).thenReturn(deviceDto2);
 
-        List<DeviceDto> result = deviceService.getAllDevices();
+        KeysetPage<DeviceDto> page = deviceService.getDevicesPage(new DeviceFilter(),
+                SerialNumberCursor.encode("DEV-000"), 2);
 
-        assertNotNull(result);
-        assertEquals(EXPECTED_DEVICE_COUNT, result.size());
-        assertEquals(expectedDtos, result);
-        verify(deviceRepository).findAll();
-        verify(deviceConverter).toDto(device);
-        verify(deviceConverter).toDto(device2);
+        assertEquals(List.of(deviceDto), page.getItems());
+        assertNull(page.getNextCursor());
+    }
+
+    @Test
+    void getDevicesPage_invalidLimitOrCursor_throwsException() {
+        DeviceFilter filter = new DeviceFilter();
+
+        assertThrows(InvalidPageRequestException.class, () -> deviceService.getDevicesPage(filter, null, 0));
+        assertThrows(InvalidPageRequestException.class,
+                () -> deviceService.getDevicesPage(filter, null, SerialNumberCursor.MAX_LIMIT + 1));
+        assertThrows(InvalidPageRequestException.class, () -> deviceService.getDevicesPage(filter, "not base64!", 10));
+        verifyNoInteractions(deviceRepository);
+    }
+
+    @Test
+    void createDevices_insertsValidItemsAndReportsFailures() {
+        DeviceCreateDto invalid = DeviceCreateDto.builder().serialNumber("DEV-BAD").unit(TEST_DEVICE_SLOTS).build();
+        DeviceCreateDto existing = DeviceCreateDto.builder()
+                .name(TEST_DEVICE_2_NAME)
+                .serialNumber(TEST_DEVICE_2_SERIAL)
+                .unit(TEST_DEVICE_2_SLOTS)
+                .power(TEST_DEVICE_2_POWER)
+                .build();
+        DeviceCreateDto another = DeviceCreateDto.builder()
+                .name(TEST_DEVICE_NAME)
+                .serialNumber("DEV-003")
+                .unit(TEST_DEVICE_SLOTS)
+                .power(TEST_DEVICE_POWER)
+                .build();
+
+        when(deviceJdbcRepository.findExistingSerialNumbers(any())).thenReturn(List.of(TEST_DEVICE_2_SERIAL));
+        when(deviceConverter.fromCreateDto(any(DeviceCreateDto.class))).thenAnswer(invocation -> {
+            DeviceCreateDto dto = invocation.getArgument(0);
+            return Device.builder().serialNumber(dto.getSerialNumber()).build();
+        });
+
+        BulkCreateResult result = deviceService.createDevices(
+                Arrays.asList(deviceCreateDto, invalid, deviceCreateDto, existing, another));
+
+        assertEquals(2, result.getCreated());
+        assertEquals(3, result.getFailed());
+        List<BulkItemStatus> statuses = result.getItems().stream().map(BulkItemResult::getStatus).toList();
+        assertEquals(List.of(BulkItemStatus.CREATED, BulkItemStatus.FAILED, BulkItemStatus.FAILED,
+                BulkItemStatus.FAILED, BulkItemStatus.CREATED), statuses);
+        assertEquals("Device name is required, Power must be positive", result.getItems().get(1).getMessage());
+        assertEquals("Duplicate serial number in request", result.getItems().get(2).getMessage());
+        assertEquals("Device with serial number " + TEST_DEVICE_2_SERIAL + " already exists",
+                result.getItems().get(3).getMessage());
+
+        verify(deviceJdbcRepository).insertAll(argThat(devices -> devices.size() == 2
+                && devices.stream().allMatch(device -> device.getId() != null)
+                && devices.get(0).getSerialNumber().equals(serialNumber)
+                && devices.get(1).getSerialNumber().equals("DEV-003")));
     }
 }
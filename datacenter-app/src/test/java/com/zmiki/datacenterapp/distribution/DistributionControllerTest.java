@@ -0,0 +1,67 @@
+package com.zmiki.datacenterapp.distribution;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.zmiki.datacenterapp.change.ChangeTracker;
+import com.zmiki.datacenterapp.config.JacksonConfig;
+import com.zmiki.datacenterapp.device.DeviceJdbcRepository;
+import com.zmiki.datacenterapp.rack.RackRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(DistributionController.class)
+@Import({JacksonConfig.class, DistributionPlanService.class, DistributionProperties.class})
+class DistributionControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @MockitoBean
+    private DistributionService distributionService;
+
+    @MockitoBean
+    private RackRepository rackRepository;
+
+    @MockitoBean
+    private DeviceJdbcRepository deviceJdbcRepository;
+
+    @MockitoBean
+    private TransactionTemplate transactionTemplate;
+
+    @MockitoBean
+    private ChangeTracker changeTracker;
+
+    @Test
+    void applyPlan_deviceInTwoRacks_returnsBadRequest() throws Exception {
+        DistributionPlan plan = DistributionPlan.builder()
+                .assignments(List.of(
+                        new RackAssignment("RACK-A", List.of("SRV-001")),
+                        new RackAssignment("RACK-B", List.of("SRV-001"))))
+                .build();
+
+        mockMvc.perform(post("/api/distribution/apply")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(plan)))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("INVALID_DISTRIBUTION_PLAN"))
+                .andExpect(jsonPath("$.message").value("Device SRV-001 is assigned to more than one rack"))
+                .andExpect(jsonPath("$.path").value("/api/distribution/apply"));
+
+        verifyNoInteractions(transactionTemplate, deviceJdbcRepository);
+    }
+}
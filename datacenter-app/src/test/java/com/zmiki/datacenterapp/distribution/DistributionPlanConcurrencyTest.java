@@ -0,0 +1,168 @@
+package com.zmiki.datacenterapp.distribution;
+
+import com.zmiki.datacenterapp.device.DeviceService;
+import com.zmiki.datacenterapp.device.dto.DeviceCreateDto;
+import com.zmiki.datacenterapp.exception.RackCapacityExceededException;
+import com.zmiki.datacenterapp.rack.RackService;
+import com.zmiki.datacenterapp.rack.dto.RackCreateDto;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Applies random plans from several threads against a real Postgres and checks, while they run and afterwards,
+ * that no rack ever holds more devices than its capacity allows and that the usage counters match the devices.
+ */
+@SpringBootTest
+@Testcontainers(disabledWithoutDocker = true)
+class DistributionPlanConcurrencyTest {
+
+    private static final int RACKS = 4;
+    private static final int RACK_MAX_POWER = 1_000;
+    private static final int RACK_MAX_UNITS = 8;
+    private static final int DEVICES = 120;
+    private static final int DEVICE_POWER = 100;
+    private static final int THREADS = 8;
+    private static final int APPLIES_PER_THREAD = 40;
+
+    private static final String OVER_CAPACITY_RACKS_SQL =
+            "SELECT count(*) FROM rack r LEFT JOIN (SELECT rack_id, SUM(power) AS power, SUM(units) AS units " +
+            "FROM device GROUP BY rack_id) u ON u.rack_id = r.id " +
+            "WHERE COALESCE(u.power, 0) > r.max_power OR COALESCE(u.units, 0) > r.max_units";
+
+    @Container
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+        registry.add("spring.sql.init.mode", () -> "never");
+    }
+
+    @Autowired
+    private DistributionPlanService distributionPlanService;
+
+    @Autowired
+    private RackService rackService;
+
+    @Autowired
+    private DeviceService deviceService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void concurrent_applies_never_overfill_a_rack() throws Exception {
+        List<RackCreateDto> racks = new ArrayList<>();
+        for (int i = 0; i < RACKS; i++) {
+            racks.add(RackCreateDto.builder().name("Rack " + i).serialNumber(rackSerialNumber(i))
+                    .unit(RACK_MAX_UNITS).maxPower(RACK_MAX_POWER).build());
+        }
+        rackService.createRacks(racks);
+
+        List<DeviceCreateDto> devices = new ArrayList<>();
+        for (int i = 0; i < DEVICES; i++) {
+            devices.add(DeviceCreateDto.builder().name("Device " + i).serialNumber(deviceSerialNumber(i))
+                    .unit(1 + i % 2).power(DEVICE_POWER).build());
+        }
+        deviceService.createDevices(devices);
+
+        AtomicInteger applied = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        AtomicBoolean running = new AtomicBoolean(true);
+        List<Integer> overCapacitySamples = Collections.synchronizedList(new ArrayList<>());
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS + 1);
+        try {
+            Future<?> sampler = executor.submit(() -> {
+                while (running.get()) {
+                    overCapacitySamples.add(jdbcTemplate.queryForObject(OVER_CAPACITY_RACKS_SQL, Integer.class));
+                }
+            });
+
+            List<Callable<Void>> tasks = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                Random random = new Random(t);
+                tasks.add(() -> {
+                    for (int i = 0; i < APPLIES_PER_THREAD; i++) {
+                        try {
+                            distributionPlanService.applyPlan(randomPlan(random));
+                            applied.incrementAndGet();
+                        } catch (RackCapacityExceededException | ConcurrencyFailureException e) {
+                            rejected.incrementAndGet();
+                        }
+                    }
+                    return null;
+                });
+            }
+            for (Future<Void> future : executor.invokeAll(tasks)) {
+                future.get();
+            }
+            running.set(false);
+            sampler.get();
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertTrue(applied.get() > 0);
+        assertTrue(rejected.get() > 0);
+        assertTrue(overCapacitySamples.stream().allMatch(count -> count == 0));
+        assertEquals(0, jdbcTemplate.queryForObject(OVER_CAPACITY_RACKS_SQL, Integer.class));
+        assertEquals(0, rackService.repairUsage().getRacksRepaired());
+    }
+
+    private static DistributionPlan randomPlan(Random random) {
+        int firstRack = random.nextInt(RACKS);
+        int secondRack = (firstRack + 1 + random.nextInt(RACKS - 1)) % RACKS;
+
+        List<Integer> deviceIndexes = new ArrayList<>();
+        for (int i = 0; i < DEVICES; i++) {
+            deviceIndexes.add(i);
+        }
+        Collections.shuffle(deviceIndexes, random);
+
+        int firstCount = 1 + random.nextInt(4);
+        int secondCount = 1 + random.nextInt(4);
+        return DistributionPlan.builder()
+                .assignments(List.of(
+                        new RackAssignment(rackSerialNumber(firstRack), deviceSerialNumbers(deviceIndexes.subList(0, firstCount))),
+                        new RackAssignment(rackSerialNumber(secondRack),
+                                deviceSerialNumbers(deviceIndexes.subList(firstCount, firstCount + secondCount)))))
+                .build();
+    }
+
+    private static List<String> deviceSerialNumbers(List<Integer> indexes) {
+        return indexes.stream().map(DistributionPlanConcurrencyTest::deviceSerialNumber).toList();
+    }
+
+    private static String rackSerialNumber(int index) {
+        return "RCK-" + index;
+    }
+
+    private static String deviceSerialNumber(int index) {
+        return String.format("DEV-%03d", index);
+    }
+}
@@ -0,0 +1,197 @@
+package com.zmiki.datacenterapp.distribution;
+
+import com.zmiki.datacenterapp.change.ChangeOperation;
+import com.zmiki.datacenterapp.change.ChangeTracker;
+import com.zmiki.datacenterapp.device.DeviceJdbcRepository;
+import com.zmiki.datacenterapp.exception.InvalidDistributionPlanException;
+import com.zmiki.datacenterapp.exception.RackCapacityExceededException;
+import com.zmiki.datacenterapp.inventory.InventoryItemType;
+import com.zmiki.datacenterapp.rack.Rack;
+import com.zmiki.datacenterapp.rack.RackRepository;
+import jakarta.persistence.EntityNotFoundException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.CannotAcquireLockException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class DistributionPlanServiceTest {
+
+    private static final String RACK_A = "RACK-A";
+    private static final String RACK_B = "RACK-B";
+    private static final String SERVER_1 = "SRV-001";
+    private static final String SERVER_2 = "SRV-002";
+    private static final String SERVER_3 = "SRV-003";
+
+    @Mock
+    private RackRepository rackRepository;
+
+    @Mock
+    private DeviceJdbcRepository deviceJdbcRepository;
+
+    @Mock
+    private ChangeTracker changeTracker;
+
+    @Spy
+    private TransactionTemplate transactionTemplate = new TransactionTemplate(mock(PlatformTransactionManager.class));
+
+    @Spy
+    private DistributionProperties distributionProperties = new DistributionProperties();
+
+    @InjectMocks
+    private DistributionPlanService distributionPlanService;
+
+    @BeforeEach
+    void setUp() {
+        distributionProperties.getApply().setRetryBackoff(Duration.ZERO);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void applyPlan_groups_devices_per_rack_in_one_batch() {
+        Rack rackA = createRack(RACK_A);
+        Rack rackB = createRack(RACK_B);
+        when(rackRepository.findAllForUpdateBySerialNumberIn(any())).thenReturn(List.of(rackA, rackB));
+        when(deviceJdbcRepository.assignToRacks(anyMap())).thenReturn(3);
+
+        DistributionApplyResult result = distributionPlanService.applyPlan(plan(
+                new RackAssignment(RACK_A, List.of(SERVER_1, SERVER_2)),
+                new RackAssignment(RACK_B, List.of(SERVER_3))));
+
+        ArgumentCaptor<Map<UUID, List<String>>> captor = ArgumentCaptor.forClass(Map.class);
+        verify(deviceJdbcRepository).assignToRacks(captor.capture());
+        assertThat(captor.getValue())
+                .containsEntry(rackA.getId(), List.of(SERVER_1, SERVER_2))
+                .containsEntry(rackB.getId(), List.of(SERVER_3));
+        assertEquals(2, result.getRacksUpdated());
+        assertEquals(3, result.getDevicesAssigned());
+        verify(deviceJdbcRepository, never()).findMissingSerialNumbers(any());
+    }
+
+    @Test
+    void applyPlan_records_devices_and_both_racks_of_a_move_as_changed() {
+        when(rackRepository.findAllForUpdateBySerialNumberIn(any())).thenReturn(List.of(createRack(RACK_A)));
+        when(deviceJdbcRepository.lockDevices(any())).thenReturn(Set.of(RACK_B));
+        when(deviceJdbcRepository.assignToRacks(anyMap())).thenReturn(1);
+
+        distributionPlanService.applyPlan(plan(new RackAssignment(RACK_A, List.of(SERVER_1))));
+
+        verify(changeTracker).recordChanges(InventoryItemType.DEVICE, ChangeOperation.UPSERT, Set.of(SERVER_1));
+        verify(changeTracker).recordChanges(InventoryItemType.RACK, ChangeOperation.UPSERT, Set.of(RACK_A, RACK_B));
+    }
+
+    @Test
+    void applyPlan_device_in_two_racks_throws() {
+        DistributionPlan plan = plan(
+                new RackAssignment(RACK_A, List.of(SERVER_1)),
+                new RackAssignment(RACK_B, List.of(SERVER_1)));
+
+        InvalidDistributionPlanException exception = assertThrows(InvalidDistributionPlanException.class,
+                () -> distributionPlanService.applyPlan(plan));
+
+        assertEquals("Device " + SERVER_1 + " is assigned to more than one rack", exception.getMessage());
+        verifyNoInteractions(deviceJdbcRepository);
+    }
+
+    @Test
+    void applyPlan_unknown_rack_throws_before_writing() {
+        when(rackRepository.findAllForUpdateBySerialNumberIn(any())).thenReturn(List.of(createRack(RACK_A)));
+
+        DistributionPlan plan = plan(
+                new RackAssignment(RACK_A, List.of(SERVER_1)),
+                new RackAssignment(RACK_B, List.of(SERVER_2)));
+
+        EntityNotFoundException exception = assertThrows(EntityNotFoundException.class,
+                () -> distributionPlanService.applyPlan(plan));
+
+        assertEquals("Racks not found: [" + RACK_B + "]", exception.getMessage());
+        verifyNoInteractions(deviceJdbcRepository);
+    }
+
+    @Test
+    void applyPlan_unknown_device_reports_missing_serial_numbers() {
+        when(rackRepository.findAllForUpdateBySerialNumberIn(any())).thenReturn(List.of(createRack(RACK_A)));
+        when(deviceJdbcRepository.assignToRacks(anyMap())).thenReturn(1);
+        when(deviceJdbcRepository.findMissingSerialNumbers(any())).thenReturn(List.of(SERVER_2));
+
+        DistributionPlan plan = plan(new RackAssignment(RACK_A, List.of(SERVER_1, SERVER_2)));
+
+        EntityNotFoundException exception = assertThrows(EntityNotFoundException.class,
+                () -> distributionPlanService.applyPlan(plan));
+
+        assertEquals("Devices not found: [" + SERVER_2 + "]", exception.getMessage());
+    }
+
+    @Test
+    void applyPlan_rack_over_capacity_throws() {
+        Rack rackA = createRack(RACK_A);
+        when(rackRepository.findAllForUpdateBySerialNumberIn(any())).thenReturn(List.of(rackA));
+        when(deviceJdbcRepository.assignToRacks(anyMap())).thenReturn(1);
+        when(rackRepository.findOverCapacitySerialNumbers(Set.of(rackA.getId()))).thenReturn(List.of(RACK_A));
+
+        DistributionPlan plan = plan(new RackAssignment(RACK_A, List.of(SERVER_1)));
+
+        RackCapacityExceededException exception = assertThrows(RackCapacityExceededException.class,
+                () -> distributionPlanService.applyPlan(plan));
+
+        assertEquals("Plan exceeds the power or unit capacity of racks: [" + RACK_A + "]", exception.getMessage());
+    }
+
+    @Test
+    void applyPlan_retries_after_lock_failure() {
+        when(rackRepository.findAllForUpdateBySerialNumberIn(any())).thenReturn(List.of(createRack(RACK_A)));
+        when(deviceJdbcRepository.assignToRacks(anyMap()))
+                .thenThrow(new CannotAcquireLockException("deadlock detected"))
+                .thenReturn(1);
+
+        DistributionApplyResult result = distributionPlanService.applyPlan(plan(new RackAssignment(RACK_A, List.of(SERVER_1))));
+
+        assertEquals(1, result.getDevicesAssigned());
+        verify(deviceJdbcRepository, times(2)).assignToRacks(anyMap());
+    }
+
+    @Test
+    void applyPlan_gives_up_after_max_attempts() {
+        when(rackRepository.findAllForUpdateBySerialNumberIn(any())).thenReturn(List.of(createRack(RACK_A)));
+        when(deviceJdbcRepository.assignToRacks(anyMap())).thenThrow(new CannotAcquireLockException("deadlock detected"));
+
+        DistributionPlan plan = plan(new RackAssignment(RACK_A, List.of(SERVER_1)));
+
+        assertThrows(CannotAcquireLockException.class, () -> distributionPlanService.applyPlan(plan));
+        verify(deviceJdbcRepository, times(distributionProperties.getApply().getMaxAttempts())).assignToRacks(anyMap());
+    }
+
+    private DistributionPlan plan(RackAssignment... assignments) {
+        return DistributionPlan.builder().assignments(List.of(assignments)).build();
+    }
+
+    private Rack createRack(String serialNumber) {
+        return Rack.builder()
+                .id(UUID.randomUUID())
+                .name(serialNumber)
+                .serialNumber(serialNumber)
+                .maxUnits(42)
+                .maxPower(1000)
+                .build();
+    }
+}
@@ -4,6 +4,14 @@ import com.zmiki.datacenterapp.device.Device;
 import com.zmiki.datacenterapp.device.DeviceConverter;
 import com.zmiki.datacenterapp.device.DeviceService;
 import com.zmiki.datacenterapp.device.dto.DeviceDto;
+import com.zmiki.datacenterapp.distribution.strategy.BestFitPlacementStrategy;
+import com.zmiki.datacenterapp.distribution.strategy.BranchAndBoundSolver;
+import com.zmiki.datacenterapp.distribution.strategy.FirstFitDecreasingPlacementStrategy;
+import com.zmiki.datacenterapp.distribution.strategy.PlacementStrategies;
+import com.zmiki.datacenterapp.distribution.strategy.PlacementStrategyType;
+import com.zmiki.datacenterapp.distribution.strategy.VectorPackingPlacementStrategy;
+import com.zmiki.datacenterapp.distribution.strategy.WorstFitPlacementStrategy;
+import com.zmiki.datacenterapp.exception.DevicesMountedElsewhereException;
 import com.zmiki.datacenterapp.exception.NoDevicesProvidedException;
 import com.zmiki.datacenterapp.exception.NoRacksProvidedException;
 import com.zmiki.datacenterapp.rack.Rack;
@@ -16,6 +24,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
@@ -25,6 +34,7 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -78,7 +88,14 @@ class DistributionServiceTest {
                 deviceConverter,
                 rackConverter,
                 deviceService,
-                rackService);
+                rackService,
+                new PlacementStrategies(List.of(
+                        new BestFitPlacementStrategy(),
+                        new FirstFitDecreasingPlacementStrategy(),
+                        new WorstFitPlacementStrategy(),
+                        new VectorPackingPlacementStrategy())),
+                new BranchAndBoundSolver(),
+                new DistributionProperties());
 
         setupMockConverters();
     }
@@ -136,7 +153,7 @@ class DistributionServiceTest {
         List<Rack> racks = List.of(mockRack1);
 
         when(deviceService.getDevicesBySerialNumbers(deviceSerials)).thenReturn(devices);
-        when(rackService.getRacksBySerialNumbers(rackSerials)).thenReturn(racks);
+        when(rackService.getRacksWithDevicesBySerialNumbers(rackSerials)).thenReturn(racks);
 
         DistributionResult result = distributionService.arrangeDevices(deviceSerials, rackSerials);
 
@@ -230,6 +247,167 @@ class DistributionServiceTest {
         assertThat(result.getRacksWithDevices().get(1).getDevices()).hasSize(1);
     }
 
+    @Test
+    void arrangeDevices_first_fit_decreasing_fills_first_rack() {
+        List<String> deviceSerials = Arrays.asList(SERVER_1, SERVER_2);
+        List<String> rackSerials = Arrays.asList(RACK_A, RACK_B);
+
+        Device highPowerDevice = createDevice(SERVER_1, HIGH_POWER, MEDIUM_UNITS);
+        Device lowPowerDevice = createDevice(SERVER_2, LOW_POWER, SMALL_UNITS);
+
+        Rack rack1 = createRack(RACK_A, STANDARD_RACK_POWER, STANDARD_RACK_UNITS);
+        Rack rack2 = createRack(RACK_B, STANDARD_RACK_POWER, STANDARD_RACK_UNITS);
+
+        when(deviceService.getDevicesBySerialNumbers(deviceSerials)).thenReturn(Arrays.asList(highPowerDevice, lowPowerDevice));
+        when(rackService.getRacksWithDevicesBySerialNumbers(rackSerials)).thenReturn(Arrays.asList(rack1, rack2));
+
+        DistributionResult result = distributionService.arrangeDevices(DistributionRequest.builder()
+                .deviceSerialNumbers(deviceSerials)
+                .rackSerialNumbers(rackSerials)
+                .strategy(PlacementStrategyType.FIRST_FIT_DECREASING)
+                .build());
+
+        assertThat(result.getUnplacedDevices()).isEmpty();
+        assertThat(result.getRacksWithDevices().get(0).getDevices()).hasSize(2);
+        assertThat(result.getRacksWithDevices().get(0).getPowerUsagePercentage()).isEqualTo(100.0);
+        assertThat(result.getRacksWithDevices().get(1).getDevices()).isEmpty();
+    }
+
+    @Test
+    void packDevicesIntoRacks_time_budget_places_devices_greedy_leaves_out() {
+        List<Device> devices = Arrays.asList(
+                createDevice(SERVER_1, 600, MEDIUM_UNITS),
+                createDevice(SERVER_2, 400, SMALL_UNITS),
+                createDevice(SERVER_3, 400, SMALL_UNITS),
+                createDevice(SERVER_4, 300, SMALL_UNITS),
+                createDevice(SERVER_5, 300, SMALL_UNITS));
+        List<Rack> racks = Arrays.asList(
+                createRack(RACK_A, STANDARD_RACK_POWER, STANDARD_RACK_UNITS),
+                createRack(RACK_B, STANDARD_RACK_POWER, STANDARD_RACK_UNITS));
+
+        DistributionResult greedyResult = distributionService.packDevicesIntoRacks(devices, racks);
+        DistributionResult solvedResult = distributionService.packDevicesIntoRacks(devices, racks,
+                DistributionRequest.builder().timeBudgetMs(1_000L).build());
+
+        assertThat(greedyResult.getUnplacedDevices()).hasSize(1);
+        assertThat(greedyResult.getProvenOptimal()).isNull();
+
+        assertThat(solvedResult.getUnplacedDevices()).isEmpty();
+        assertThat(solvedResult.getProvenOptimal()).isTrue();
+        assertThat(solvedResult.getUnplacedLowerBound()).isZero();
+        assertThat(solvedResult.getRacksWithDevices().get(0).getPowerUsagePercentage()).isEqualTo(100.0);
+        assertThat(solvedResult.getRacksWithDevices().get(1).getPowerUsagePercentage()).isEqualTo(100.0);
+    }
+
+    @Test
+    void packDevicesIntoRacks_incremental_starts_from_mounted_devices() {
+        Rack rack1 = createRack(RACK_A, STANDARD_RACK_POWER, STANDARD_RACK_UNITS);
+        Rack rack2 = createRack(RACK_B, STANDARD_RACK_POWER, STANDARD_RACK_UNITS);
+
+        Device mountedDevice = createDevice(SERVER_1, HIGH_POWER, MEDIUM_UNITS);
+        mountedDevice.setRack(rack1);
+        Device newDevice = createDevice(SERVER_2, MEDIUM_POWER, MEDIUM_UNITS);
+
+        rack1.setUsedPower(HIGH_POWER);
+        rack1.setUsedUnits(MEDIUM_UNITS);
+
+        DistributionResult result = distributionService.packDevicesIntoRacks(
+                Arrays.asList(mountedDevice, newDevice),
+                Arrays.asList(rack1, rack2),
+                DistributionRequest.builder().incremental(true).build());
+
+        assertThat(result.getUnplacedDevices()).isEmpty();
+        assertThat(result.getRacksWithDevices().get(0).getDevices()).isEmpty();
+        assertThat(result.getRacksWithDevices().get(0).getPowerUsagePercentage()).isEqualTo(80.0);
+        assertThat(result.getRacksWithDevices().get(1).getDevices()).hasSize(1);
+        assertThat(result.getRacksWithDevices().get(1).getPowerUsagePercentage()).isEqualTo(50.0);
+    }
+
+    @Test
+    void packDevicesIntoRacks_incremental_rejects_devices_mounted_in_other_racks() {
+        Rack rack1 = createRack(RACK_A, STANDARD_RACK_POWER, STANDARD_RACK_UNITS);
+        Rack otherRack = createRack(RACK_B, STANDARD_RACK_POWER, STANDARD_RACK_UNITS);
+
+        Device mountedElsewhere = createDevice(SERVER_1, MEDIUM_POWER, MEDIUM_UNITS);
+        mountedElsewhere.setRack(otherRack);
+        Device newDevice = createDevice(SERVER_2, MEDIUM_POWER, MEDIUM_UNITS);
+
+        assertThatThrownBy(() -> distributionService.packDevicesIntoRacks(
+                Arrays.asList(mountedElsewhere, newDevice),
+                List.of(rack1),
+                DistributionRequest.builder().incremental(true).build()))
+                .isInstanceOf(DevicesMountedElsewhereException.class)
+                .hasMessageContaining(SERVER_1);
+    }
+
+    @Test
+    void packDevicesIntoRacks_reports_devices_while_placing() {
+        List<Device> devices = Arrays.asList(
+                createDevice(SERVER_1, MEDIUM_POWER, MEDIUM_UNITS),
+                createDevice(SERVER_2, LOW_POWER, SMALL_UNITS),
+                createDevice(SERVER_3, LOW_POWER, SMALL_UNITS));
+        List<Rack> racks = List.of(createRack(RACK_A, STANDARD_RACK_POWER, STANDARD_RACK_UNITS));
+        List<DistributionPhase> phasesAtReport = new ArrayList<>();
+        DistributionProgress progress = new DistributionProgress() {
+            @Override
+            public void devicesPlaced(int count) {
+                phasesAtReport.add(getPhase());
+                super.devicesPlaced(count);
+            }
+        };
+
+        distributionService.packDevicesIntoRacks(devices, racks, new DistributionRequest(), progress);
+
+        assertThat(phasesAtReport).hasSize(3).containsOnly(DistributionPhase.PLACING);
+        assertThat(progress.getDevicesProcessed()).isEqualTo(progress.getDevicesTotal()).isEqualTo(3);
+    }
+
+    @Test
+    void packDevicesIntoRacks_omitDevices_leaves_device_lists_unset() {
+        List<Device> devices = Arrays.asList(
+                createDevice(SERVER_1, MEDIUM_POWER, MEDIUM_UNITS),
+                createDevice(SERVER_2, MEDIUM_POWER, MEDIUM_UNITS));
+        List<Rack> racks = Arrays.asList(createRack(RACK_A, STANDARD_RACK_POWER, STANDARD_RACK_UNITS));
+
+        DistributionResult result = distributionService.packDevicesIntoRacks(devices, racks,
+                DistributionRequest.builder().omitDevices(true).build());
+
+        assertThat(result.getUnplacedDevices()).isEmpty();
+        assertThat(result.getRacksWithDevices().get(0).getDevices()).isNull();
+        assertThat(result.getRacksWithDevices().get(0).getPowerUsagePercentage()).isEqualTo(100.0);
+        verifyNoInteractions(deviceConverter);
+    }
+
+    @Test
+    void arrangeDevicesAsStream_writes_racks_then_unplaced_devices_then_summary() {
+        List<String> deviceSerials = Arrays.asList(SERVER_1, SERVER_2, SERVER_3);
+        List<String> rackSerials = Arrays.asList(RACK_A, RACK_B);
+
+        when(deviceService.getDevicesBySerialNumbers(deviceSerials)).thenReturn(Arrays.asList(
+                createDevice(SERVER_1, HIGH_POWER, MEDIUM_UNITS),
+                createDevice(SERVER_2, MEDIUM_POWER, MEDIUM_UNITS),
+                createDevice(SERVER_3, MAX_POWER, MEDIUM_UNITS)));
+        when(rackService.getRacksWithDevicesBySerialNumbers(rackSerials)).thenReturn(Arrays.asList(
+                createRack(RACK_A, STANDARD_RACK_POWER, STANDARD_RACK_UNITS),
+                createRack(RACK_B, STANDARD_RACK_POWER, STANDARD_RACK_UNITS)));
+
+        List<DistributionStreamItem> items = new ArrayList<>();
+        distributionService.arrangeDevicesAsStream(DistributionRequest.builder()
+                .deviceSerialNumbers(deviceSerials)
+                .rackSerialNumbers(rackSerials)
+                .build()).writeTo(items::add);
+
+        assertThat(items).hasSize(4);
+        assertThat(items.get(0).getRack().getRackSerialNumber()).isEqualTo(RACK_A);
+        assertThat(items.get(0).getRack().getDevices()).hasSize(1);
+        assertThat(items.get(1).getRack().getRackSerialNumber()).isEqualTo(RACK_B);
+        assertThat(items.get(1).getRack().getDevices()).hasSize(1);
+        assertThat(items.get(2).getUnplacedDevice()).isNotNull();
+        assertThat(items.get(3).getSummary().getPlacedDevices()).isEqualTo(2);
+        assertThat(items.get(3).getSummary().getUnplacedDevices()).isEqualTo(1);
+        assertThat(items.get(3).getSummary().getMessage()).isEqualTo("Some devices could not be distributed to any rack.");
+    }
+
     @Test
     void arrangeDevices_complex_distribution() {
         List<String> deviceSerials = Arrays.asList(SERVER_1, SERVER_2, SERVER_3, SERVER_4, SERVER_5);
@@ -248,7 +426,7 @@ class DistributionServiceTest {
         List<Rack> racks = Arrays.asList(rack1, rack2, rack3);
 
         when(deviceService.getDevicesBySerialNumbers(deviceSerials)).thenReturn(devices);
-        when(rackService.getRacksBySerialNumbers(rackSerials)).thenReturn(racks);
+        when(rackService.getRacksWithDevicesBySerialNumbers(rackSerials)).thenReturn(racks);
 
         DistributionResult result = distributionService.arrangeDevices(deviceSerials, rackSerials);
 
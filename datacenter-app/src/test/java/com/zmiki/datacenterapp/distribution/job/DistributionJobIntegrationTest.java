@@ -0,0 +1,96 @@
+package com.zmiki.datacenterapp.distribution.job;
+
+import com.zmiki.datacenterapp.device.DeviceService;
+import com.zmiki.datacenterapp.device.dto.DeviceCreateDto;
+import com.zmiki.datacenterapp.distribution.DistributionPlan;
+import com.zmiki.datacenterapp.distribution.DistributionPlanService;
+import com.zmiki.datacenterapp.distribution.DistributionRequest;
+import com.zmiki.datacenterapp.distribution.RackAssignment;
+import com.zmiki.datacenterapp.rack.RackService;
+import com.zmiki.datacenterapp.rack.dto.RackCreateDto;
+import com.zmiki.datacenterapp.rack.dto.RackDistributionDto;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs distribution jobs end to end against a real Postgres, on the job threads, which have no Hibernate session.
+ */
+@SpringBootTest
+@Testcontainers(disabledWithoutDocker = true)
+class DistributionJobIntegrationTest {
+
+    private static final long AWAIT_MILLIS = TimeUnit.SECONDS.toMillis(30);
+
+    @Container
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+        registry.add("spring.sql.init.mode", () -> "never");
+    }
+
+    @Autowired
+    private DistributionJobService distributionJobService;
+
+    @Autowired
+    private DistributionPlanService distributionPlanService;
+
+    @Autowired
+    private RackService rackService;
+
+    @Autowired
+    private DeviceService deviceService;
+
+    @Test
+    void submit_default_request_completes_with_mounted_devices_listed() throws InterruptedException {
+        rackService.createRacks(List.of(
+                RackCreateDto.builder().name("Rack A").serialNumber("JOB-RCK-A").unit(10).maxPower(1000).build(),
+                RackCreateDto.builder().name("Rack B").serialNumber("JOB-RCK-B").unit(10).maxPower(1000).build()));
+        deviceService.createDevices(List.of(
+                DeviceCreateDto.builder().name("Mounted").serialNumber("JOB-DEV-1").unit(1).power(300).build(),
+                DeviceCreateDto.builder().name("New 1").serialNumber("JOB-DEV-2").unit(1).power(300).build(),
+                DeviceCreateDto.builder().name("New 2").serialNumber("JOB-DEV-3").unit(1).power(300).build()));
+        distributionPlanService.applyPlan(DistributionPlan.builder()
+                .assignments(List.of(new RackAssignment("JOB-RCK-A", List.of("JOB-DEV-1"))))
+                .build());
+
+        DistributionJobDto submitted = distributionJobService.submit(DistributionRequest.builder()
+                .deviceSerialNumbers(List.of("JOB-DEV-2", "JOB-DEV-3"))
+                .rackSerialNumbers(List.of("JOB-RCK-A", "JOB-RCK-B"))
+                .build());
+        DistributionJobDto job = awaitFinished(submitted);
+
+        assertEquals(DistributionJobStatus.COMPLETED, job.getStatus(), job.getError());
+        assertNull(job.getError());
+        List<RackDistributionDto> racks = job.getResult().getRacksWithDevices();
+        assertEquals(2, racks.size());
+        assertTrue(racks.get(0).getDevices().stream().anyMatch(device -> device.getSerialNumber().equals("JOB-DEV-1")));
+        assertEquals(3, racks.stream().mapToInt(rack -> rack.getDevices().size()).sum());
+    }
+
+    private DistributionJobDto awaitFinished(DistributionJobDto submitted) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + AWAIT_MILLIS;
+        DistributionJobDto job = distributionJobService.getJob(submitted.getId());
+        while (!job.getStatus().isFinished() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(50);
+            job = distributionJobService.getJob(submitted.getId());
+        }
+        return job;
+    }
+}
@@ -0,0 +1,151 @@
+package com.zmiki.datacenterapp.distribution.job;
+
+import com.zmiki.datacenterapp.distribution.DistributionPhase;
+import com.zmiki.datacenterapp.distribution.DistributionProgress;
+import com.zmiki.datacenterapp.distribution.DistributionProperties;
+import com.zmiki.datacenterapp.distribution.DistributionRequest;
+import com.zmiki.datacenterapp.distribution.DistributionResult;
+import com.zmiki.datacenterapp.distribution.DistributionService;
+import jakarta.persistence.EntityNotFoundException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class DistributionJobServiceTest {
+
+    private static final long AWAIT_SECONDS = 5;
+
+    @Mock
+    private DistributionService distributionService;
+
+    private ThreadPoolExecutor executor;
+    private DistributionProperties distributionProperties;
+    private DistributionJobService distributionJobService;
+
+    @BeforeEach
+    void setUp() {
+        executor = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(1));
+        distributionProperties = new DistributionProperties();
+        distributionJobService = new DistributionJobService(distributionService, executor, distributionProperties);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void submit_runs_distribution_in_background_and_exposes_result() throws InterruptedException {
+        DistributionResult result = DistributionResult.builder().message("Devices successfully distributed").build();
+        when(distributionService.arrangeDevices(any(DistributionRequest.class), any(DistributionProgress.class)))
+                .thenReturn(result);
+
+        DistributionJobDto submitted = distributionJobService.submit(request());
+        awaitIdle();
+
+        DistributionJobDto job = distributionJobService.getJob(submitted.getId());
+        assertEquals(DistributionJobStatus.COMPLETED, job.getStatus());
+        assertSame(result, job.getResult());
+        assertNotNull(job.getFinishedAt());
+    }
+
+    @Test
+    void submit_failing_distribution_reports_error() throws InterruptedException {
+        when(distributionService.arrangeDevices(any(DistributionRequest.class), any(DistributionProgress.class)))
+                .thenThrow(new EntityNotFoundException("Device not found: SRV-404"));
+
+        DistributionJobDto submitted = distributionJobService.submit(request());
+        awaitIdle();
+
+        DistributionJobDto job = distributionJobService.getJob(submitted.getId());
+        assertEquals(DistributionJobStatus.FAILED, job.getStatus());
+        assertEquals("Device not found: SRV-404", job.getError());
+        assertNull(job.getResult());
+    }
+
+    @Test
+    void cancel_interrupts_running_distribution() throws InterruptedException {
+        CountDownLatch started = new CountDownLatch(1);
+        when(distributionService.arrangeDevices(any(DistributionRequest.class), any(DistributionProgress.class)))
+                .thenAnswer(invocation -> blockUntilInterrupted(started, invocation.getArgument(1)));
+
+        DistributionJobDto submitted = distributionJobService.submit(request());
+        assertTrue(started.await(AWAIT_SECONDS, TimeUnit.SECONDS));
+
+        DistributionJobDto cancelled = distributionJobService.cancel(submitted.getId());
+        awaitIdle();
+
+        assertEquals(DistributionJobStatus.CANCELLED, cancelled.getStatus());
+        DistributionJobDto job = distributionJobService.getJob(submitted.getId());
+        assertEquals(DistributionJobStatus.CANCELLED, job.getStatus());
+        assertNull(job.getResult());
+    }
+
+    @Test
+    void submit_when_queue_is_full_is_rejected() throws InterruptedException {
+        CountDownLatch started = new CountDownLatch(1);
+        when(distributionService.arrangeDevices(any(DistributionRequest.class), any(DistributionProgress.class)))
+                .thenAnswer(invocation -> blockUntilInterrupted(started, invocation.getArgument(1)));
+
+        DistributionJobDto running = distributionJobService.submit(request());
+        assertTrue(started.await(AWAIT_SECONDS, TimeUnit.SECONDS));
+        DistributionJobDto queued = distributionJobService.submit(request());
+
+        assertThrows(RejectedExecutionException.class, () -> distributionJobService.submit(request()));
+
+        DistributionJobDto cancelledWhileQueued = distributionJobService.cancel(queued.getId());
+        assertEquals(DistributionJobStatus.CANCELLED, cancelledWhileQueued.getStatus());
+        distributionJobService.cancel(running.getId());
+    }
+
+    @Test
+    void pruneFinishedJobs_drops_jobs_over_retention_limit() throws InterruptedException {
+        when(distributionService.arrangeDevices(any(DistributionRequest.class), any(DistributionProgress.class)))
+                .thenReturn(new DistributionResult());
+        distributionProperties.getJobs().setMaxRetainedJobs(0);
+
+        DistributionJobDto submitted = distributionJobService.submit(request());
+        awaitIdle();
+        distributionJobService.pruneFinishedJobs();
+
+        assertThrows(EntityNotFoundException.class, () -> distributionJobService.getJob(submitted.getId()));
+    }
+
+    private Object blockUntilInterrupted(CountDownLatch started, DistributionProgress progress) {
+        started.countDown();
+        try {
+            Thread.sleep(TimeUnit.SECONDS.toMillis(AWAIT_SECONDS * 2));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        progress.startPhase(DistributionPhase.PLACING);
+        return new DistributionResult();
+    }
+
+    private void awaitIdle() throws InterruptedException {
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(AWAIT_SECONDS, TimeUnit.SECONDS));
+    }
+
+    private DistributionRequest request() {
+        return DistributionRequest.builder()
+                .deviceSerialNumbers(List.of("SRV-001"))
+                .rackSerialNumbers(List.of("RACK-A"))
+                .build();
+    }
+}
@@ -0,0 +1,169 @@
+package com.zmiki.datacenterapp.distribution.strategy;
+
+import com.zmiki.datacenterapp.device.Device;
+import com.zmiki.datacenterapp.distribution.DistributionProgress;
+import com.zmiki.datacenterapp.rack.Rack;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CancellationException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PlacementStrategyTest {
+
+    private final PlacementStrategies placementStrategies = new PlacementStrategies(List.of(
+            new BestFitPlacementStrategy(),
+            new FirstFitDecreasingPlacementStrategy(),
+            new WorstFitPlacementStrategy(),
+            new VectorPackingPlacementStrategy()));
+
+    private Device createDevice(int power, int units) {
+        return Device.builder()
+                .serialNumber("DEV-" + power + "-" + units)
+                .power(power)
+                .units(units)
+                .build();
+    }
+
+    private Rack createRack(int maxPower, int maxUnits) {
+        return Rack.builder()
+                .serialNumber("RACK-" + maxPower + "-" + maxUnits)
+                .maxPower(maxPower)
+                .maxUnits(maxUnits)
+                .build();
+    }
+
+    @ParameterizedTest
+    @EnumSource(value = PlacementStrategyType.class, mode = EnumSource.Mode.EXCLUDE, names = "PORTFOLIO")
+    void place_neverExceedsRackCapacity(PlacementStrategyType type) {
+        Random random = new Random(7);
+
+        List<Rack> racks = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            racks.add(createRack(1000 + 250 * random.nextInt(8), 8 + random.nextInt(16)));
+        }
+        List<Device> devices = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            devices.add(createDevice(50 + random.nextInt(900), 1 + random.nextInt(4)));
+        }
+
+        RackLoad rackLoad = RackLoad.empty(racks);
+        int[] rackOfDevice = placementStrategies.get(type).place(DeviceSizes.of(devices), rackLoad);
+
+        int[] expectedPower = new int[racks.size()];
+        int[] expectedUnits = new int[racks.size()];
+        for (int d = 0; d < devices.size(); d++) {
+            if (rackOfDevice[d] != -1) {
+                expectedPower[rackOfDevice[d]] += devices.get(d).getPower();
+                expectedUnits[rackOfDevice[d]] += devices.get(d).getUnits();
+            }
+        }
+
+        for (int i = 0; i < racks.size(); i++) {
+            assertThat(expectedPower[i]).isEqualTo(rackLoad.getUsedPower()[i]).isLessThanOrEqualTo(racks.get(i).getMaxPower());
+            assertThat(racks.get(i).getMaxUnits() - expectedUnits[i]).isEqualTo(rackLoad.getRemainingUnits()[i]).isNotNegative();
+        }
+    }
+
+    @ParameterizedTest
+    @EnumSource(value = PlacementStrategyType.class, mode = EnumSource.Mode.EXCLUDE, names = "PORTFOLIO")
+    void place_reportsEachDeviceAsItGoes(PlacementStrategyType type) {
+        List<Rack> racks = List.of(createRack(1000, 10));
+        List<Device> devices = List.of(createDevice(400, 1), createDevice(400, 1), createDevice(400, 1));
+        List<Integer> reports = new ArrayList<>();
+
+        placementStrategies.get(type).place(DeviceSizes.of(devices), RackLoad.empty(racks), reports::add);
+
+        assertThat(reports).containsExactly(1, 1, 1);
+    }
+
+    @ParameterizedTest
+    @EnumSource(value = PlacementStrategyType.class, mode = EnumSource.Mode.EXCLUDE, names = "PORTFOLIO")
+    void place_cancelledDistribution_stopsAfterCurrentDevice(PlacementStrategyType type) {
+        List<Rack> racks = List.of(createRack(1000, 10));
+        List<Device> devices = List.of(createDevice(400, 1), createDevice(400, 1), createDevice(400, 1));
+        DistributionProgress progress = new DistributionProgress();
+
+        Thread.currentThread().interrupt();
+        try {
+            assertThatThrownBy(() -> placementStrategies.get(type).place(DeviceSizes.of(devices), RackLoad.empty(racks), progress))
+                    .isInstanceOf(CancellationException.class);
+        } finally {
+            Thread.interrupted();
+        }
+        assertThat(progress.getDevicesProcessed()).isEqualTo(1);
+    }
+
+    @Test
+    void bestFit_spreadsPowerAcrossRacks() {
+        List<Device> devices = List.of(createDevice(800, 2), createDevice(200, 1));
+        RackLoad rackLoad = RackLoad.empty(List.of(createRack(1000, 10), createRack(1000, 10)));
+
+        int[] rackOfDevice = placementStrategies.get(PlacementStrategyType.BEST_FIT).place(DeviceSizes.of(devices), rackLoad);
+
+        assertThat(rackOfDevice).containsExactly(0, 1);
+    }
+
+    @Test
+    void firstFitDecreasing_usesFirstRackThatFits() {
+        List<Device> devices = List.of(createDevice(200, 1), createDevice(800, 2));
+        RackLoad rackLoad = RackLoad.empty(List.of(createRack(1000, 10), createRack(1000, 10)));
+
+        int[] rackOfDevice = placementStrategies.get(PlacementStrategyType.FIRST_FIT_DECREASING).place(DeviceSizes.of(devices), rackLoad);
+
+        assertThat(rackOfDevice).containsExactly(0, 0);
+    }
+
+    @Test
+    void worstFit_prefersMostAbsoluteHeadroom() {
+        List<Device> devices = List.of(createDevice(500, 1));
+        RackLoad rackLoad = RackLoad.empty(List.of(createRack(1000, 10), createRack(3000, 10)));
+
+        int[] rackOfDevice = placementStrategies.get(PlacementStrategyType.WORST_FIT).place(DeviceSizes.of(devices), rackLoad);
+
+        assertThat(rackOfDevice).containsExactly(1);
+    }
+
+    @Test
+    void vectorPacking_pairsUnitHeavyAndPowerHeavyDevices() {
+        List<Device> devices = List.of(
+                createDevice(900, 1),
+                createDevice(100, 9),
+                createDevice(900, 1),
+                createDevice(100, 9));
+        RackLoad rackLoad = RackLoad.empty(List.of(createRack(1000, 10), createRack(1000, 10)));
+
+        int[] rackOfDevice = placementStrategies.get(PlacementStrategyType.VECTOR_PACKING).place(DeviceSizes.of(devices), rackLoad);
+
+        assertThat(rackOfDevice).doesNotContain(-1);
+        assertThat(rackLoad.getUsedPower()).containsExactly(1000, 1000);
+        assertThat(rackLoad.getRemainingUnits()).containsExactly(0, 0);
+    }
+
+    @Test
+    void byPowerDescending_keepsGivenOrderForEqualPower() {
+        DeviceSizes devices = new DeviceSizes(new int[]{300, 500, 300, 900, 500}, new int[]{1, 1, 1, 1, 1});
+
+        assertThat(DeviceOrder.byPowerDescending(devices)).containsExactly(3, 1, 4, 0, 2);
+    }
+
+    @Test
+    void get_nullType_returnsDefaultStrategy() {
+        assertThat(placementStrategies.get(null).getType()).isEqualTo(PlacementStrategies.DEFAULT_TYPE);
+    }
+
+    @Test
+    void get_missingStrategy_throwsException() {
+        PlacementStrategies onlyBestFit = new PlacementStrategies(List.of(new BestFitPlacementStrategy()));
+
+        assertThatThrownBy(() -> onlyBestFit.get(PlacementStrategyType.WORST_FIT))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Placement strategy WORST_FIT is not available");
+    }
+}
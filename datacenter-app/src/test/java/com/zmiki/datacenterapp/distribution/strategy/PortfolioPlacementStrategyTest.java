@@ -0,0 +1,175 @@
+package com.zmiki.datacenterapp.distribution.strategy;
+
+import com.zmiki.datacenterapp.device.Device;
+import com.zmiki.datacenterapp.distribution.DistributionProperties;
+import com.zmiki.datacenterapp.rack.Rack;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PortfolioPlacementStrategyTest {
+
+    private static final int NUMBER_OF_RACKS = 15;
+    private static final int NUMBER_OF_DEVICES = 250;
+
+    private final BestFitPlacementStrategy bestFit = new BestFitPlacementStrategy();
+    private final List<PlacementStrategy> strategies = List.of(
+            bestFit,
+            new FirstFitDecreasingPlacementStrategy(),
+            new WorstFitPlacementStrategy(),
+            new VectorPackingPlacementStrategy());
+
+    private ForkJoinPool pool;
+    private PortfolioPlacementStrategy portfolio;
+
+    private List<Device> devices;
+    private List<Rack> racks;
+
+    @BeforeEach
+    void setUp() {
+        pool = new ForkJoinPool(2);
+
+        DistributionProperties properties = new DistributionProperties();
+        properties.getPortfolio().setMaxParallelismPerRequest(2);
+        properties.getPortfolio().setRandomRestarts(6);
+
+        portfolio = new PortfolioPlacementStrategy(strategies, bestFit, pool, properties);
+
+        Random random = new Random(11);
+        racks = new ArrayList<>();
+        for (int i = 0; i < NUMBER_OF_RACKS; i++) {
+            racks.add(Rack.builder()
+                    .serialNumber("RACK-" + i)
+                    .maxPower(2000 + 500 * random.nextInt(4))
+                    .maxUnits(10 + random.nextInt(10))
+                    .build());
+        }
+        devices = new ArrayList<>();
+        for (int i = 0; i < NUMBER_OF_DEVICES; i++) {
+            devices.add(Device.builder()
+                    .serialNumber("DEV-" + i)
+                    .power(100 + 50 * random.nextInt(16))
+                    .units(1 + random.nextInt(3))
+                    .build());
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        pool.shutdownNow();
+    }
+
+    @Test
+    void place_placesAtLeastAsManyDevicesAsEveryStrategy() {
+        int portfolioPlaced = placed(portfolio.place(DeviceSizes.of(devices), RackLoad.empty(racks)));
+
+        for (PlacementStrategy strategy : strategies) {
+            assertThat(portfolioPlaced).isGreaterThanOrEqualTo(placed(strategy.place(DeviceSizes.of(devices), RackLoad.empty(racks))));
+        }
+    }
+
+    @Test
+    void place_updatesRackLoadToMatchChosenPlacement() {
+        RackLoad rackLoad = RackLoad.empty(racks);
+        int[] rackOfDevice = portfolio.place(DeviceSizes.of(devices), rackLoad);
+
+        int[] expectedPower = new int[racks.size()];
+        for (int d = 0; d < devices.size(); d++) {
+            if (rackOfDevice[d] != -1) {
+                expectedPower[rackOfDevice[d]] += devices.get(d).getPower();
+            }
+        }
+
+        assertThat(rackLoad.getUsedPower()).containsExactly(expectedPower);
+        for (int i = 0; i < racks.size(); i++) {
+            assertThat(rackLoad.getUsedPower()[i]).isLessThanOrEqualTo(racks.get(i).getMaxPower());
+            assertThat(rackLoad.getRemainingUnits()[i]).isNotNegative();
+        }
+    }
+
+    @Test
+    void place_reportsEveryDeviceOnceAllCandidatesFinished() {
+        AtomicInteger reported = new AtomicInteger();
+
+        portfolio.place(DeviceSizes.of(devices), RackLoad.empty(racks), reported::addAndGet);
+
+        assertThat(reported.get()).isEqualTo(devices.size());
+    }
+
+    @Test
+    void place_isDeterministic() {
+        int[] first = portfolio.place(DeviceSizes.of(devices), RackLoad.empty(racks));
+        int[] second = portfolio.place(DeviceSizes.of(devices), RackLoad.empty(racks));
+
+        assertThat(second).containsExactly(first);
+    }
+
+    @Test
+    void place_interruptedCaller_abandonsRemainingCandidates() throws InterruptedException {
+        AtomicInteger started = new AtomicInteger();
+        CountDownLatch lanesBusy = new CountDownLatch(2);
+        CountDownLatch release = new CountDownLatch(1);
+        PlacementStrategy blocking = new PlacementStrategy() {
+            @Override
+            public PlacementStrategyType getType() {
+                return PlacementStrategyType.BEST_FIT;
+            }
+
+            @Override
+            public int[] place(DeviceSizes devices, RackLoad rackLoad, PlacementProgress progress) {
+                started.incrementAndGet();
+                lanesBusy.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return new int[devices.size()];
+            }
+        };
+        DistributionProperties properties = new DistributionProperties();
+        properties.getPortfolio().setMaxParallelismPerRequest(2);
+        properties.getPortfolio().setRandomRestarts(0);
+        PortfolioPlacementStrategy blockingPortfolio = new PortfolioPlacementStrategy(
+                List.of(blocking, blocking, blocking, blocking, blocking, blocking), bestFit, pool, properties);
+
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        Thread caller = new Thread(() -> {
+            try {
+                blockingPortfolio.place(DeviceSizes.of(devices), RackLoad.empty(racks));
+            } catch (Throwable e) {
+                failure.set(e);
+            }
+        });
+        caller.start();
+        assertThat(lanesBusy.await(5, TimeUnit.SECONDS)).isTrue();
+
+        caller.interrupt();
+        caller.join(5_000);
+        release.countDown();
+        pool.awaitQuiescence(5, TimeUnit.SECONDS);
+
+        assertThat(failure.get()).isInstanceOf(CancellationException.class);
+        assertThat(started.get()).isEqualTo(2);
+    }
+
+    private int placed(int[] rackOfDevice) {
+        int placed = 0;
+        for (int rack : rackOfDevice) {
+            if (rack != -1) placed++;
+        }
+        return placed;
+    }
+}
@@ -0,0 +1,127 @@
+package com.zmiki.datacenterapp.distribution.strategy;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+import java.util.function.IntSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RackCapacityIndexTest {
+
+    private static final int[] RACK_POWER_MODELS = {1000, 1500, 2000, 2500, 3000};
+    private static final int[] DEVICE_POWER_MODELS = {100, 200, 250, 300, 500, 800, 1200};
+
+    @Test
+    void findBestRack_noFeasibleRack_returnsMinusOne() {
+        int[] maxPower = {1000, 1500};
+        int[] usedPower = {0, 0};
+        int[] remainingUnits = {4, 8};
+
+        RackCapacityIndex index = new RackCapacityIndex(maxPower, usedPower, remainingUnits);
+
+        assertThat(index.findBestRack(2000, 1)).isEqualTo(-1);
+        assertThat(index.findBestRack(100, 9)).isEqualTo(-1);
+    }
+
+    @Test
+    void findBestRack_equalRatio_prefersMoreRemainingUnits() {
+        int[] maxPower = {1000, 2000, 1000};
+        int[] usedPower = {0, 0, 0};
+        int[] remainingUnits = {10, 12, 10};
+
+        RackCapacityIndex index = new RackCapacityIndex(maxPower, usedPower, remainingUnits);
+        index.place(0, 300, 4);
+        index.place(1, 800, 3);
+        index.place(2, 600, 1);
+
+        // 200 W lands at 50% in both rack 0 and rack 1, rack 1 has more units left
+        assertThat(index.findBestRack(200, 1)).isEqualTo(1);
+        assertThat(usedPower).containsExactly(300, 800, 600);
+        assertThat(remainingUnits).containsExactly(6, 9, 9);
+    }
+
+    @Test
+    void findBestRack_fullTie_prefersLowerIndex() {
+        int[] maxPower = {1000, 1000, 1000};
+        int[] usedPower = {0, 0, 0};
+        int[] remainingUnits = {10, 10, 10};
+
+        RackCapacityIndex index = new RackCapacityIndex(maxPower, usedPower, remainingUnits);
+
+        assertThat(index.findBestRack(300, 2)).isZero();
+    }
+
+    @Test
+    void findBestRack_matchesLinearScan_onRandomFleets() {
+        Random random = new Random(42);
+
+        for (int round = 0; round < 200; round++) {
+            matchesLinearScan(random, 1 + random.nextInt(40),
+                    () -> RACK_POWER_MODELS[random.nextInt(RACK_POWER_MODELS.length)]);
+        }
+    }
+
+    @Test
+    void findBestRack_matchesLinearScan_onFleetsWithDistinctMaxPower() {
+        Random random = new Random(7);
+
+        for (int round = 0; round < 200; round++) {
+            matchesLinearScan(random, 1 + random.nextInt(200), () -> 1000 + random.nextInt(2001));
+        }
+    }
+
+    private void matchesLinearScan(Random random, int numberOfRacks, IntSupplier rackPower) {
+        int[] maxPower = new int[numberOfRacks];
+        int[] maxUnits = new int[numberOfRacks];
+        for (int i = 0; i < numberOfRacks; i++) {
+            maxPower[i] = rackPower.getAsInt();
+            maxUnits[i] = 4 + random.nextInt(20);
+        }
+
+        int[] usedPower = new int[numberOfRacks];
+        int[] remainingUnits = maxUnits.clone();
+        int[] expectedUsedPower = new int[numberOfRacks];
+        int[] expectedRemainingUnits = maxUnits.clone();
+
+        RackCapacityIndex index = new RackCapacityIndex(maxPower, usedPower, remainingUnits);
+
+        int numberOfDevices = 1 + random.nextInt(300);
+        for (int d = 0; d < numberOfDevices; d++) {
+            int power = DEVICE_POWER_MODELS[random.nextInt(DEVICE_POWER_MODELS.length)];
+            int units = 1 + random.nextInt(4);
+
+            int expected = linearScan(maxPower, expectedUsedPower, expectedRemainingUnits, power, units);
+            int actual = index.findBestRack(power, units);
+
+            assertThat(actual).isEqualTo(expected);
+
+            if (actual != -1) {
+                index.place(actual, power, units);
+                expectedUsedPower[expected] += power;
+                expectedRemainingUnits[expected] -= units;
+            }
+        }
+
+        assertThat(usedPower).containsExactly(expectedUsedPower);
+        assertThat(remainingUnits).containsExactly(expectedRemainingUnits);
+    }
+
+    private int linearScan(int[] maxPower, int[] usedPower, int[] remainingUnits, int power, int units) {
+        int bestIndex = -1;
+        double bestPower = Double.POSITIVE_INFINITY;
+
+        for (int i = 0; i < maxPower.length; i++) {
+            if (units > remainingUnits[i]) continue;
+            if (usedPower[i] + power > maxPower[i]) continue;
+
+            double powerAfter = ((double) (usedPower[i] + power)) / maxPower[i];
+
+            if (powerAfter < bestPower || (powerAfter == bestPower && remainingUnits[i] > (bestIndex == -1 ? -1 : remainingUnits[bestIndex]))) {
+                bestIndex = i;
+                bestPower = powerAfter;
+            }
+        }
+        return bestIndex;
+    }
+}
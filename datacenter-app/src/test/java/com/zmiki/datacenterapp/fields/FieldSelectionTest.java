@@ -0,0 +1,82 @@
+package com.zmiki.datacenterapp.fields;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.zmiki.datacenterapp.device.dto.DeviceDto;
+import com.zmiki.datacenterapp.exception.InvalidFieldSelectionException;
+import com.zmiki.datacenterapp.rack.dto.RackDto;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FieldSelectionTest {
+
+    private static final RackDto RACK = RackDto.builder()
+            .name("Rack A")
+            .serialNumber("RACK-A")
+            .unit(42)
+            .maxPower(5000)
+            .devices(List.of(DeviceDto.builder().serialNumber("DEV-1").build()))
+            .build();
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void parse_withoutParameters_selectsEverything() {
+        FieldSelection selection = FieldSelection.parse(null, null, RackDto.class);
+
+        assertTrue(selection.includesDevices());
+        assertEquals("\"7\"", selection.tag("\"7\""));
+        assertTrue(serialize(selection).has("devices"));
+        assertTrue(serialize(selection).has("description"));
+    }
+
+    @Test
+    void parse_fieldsWithoutDevices_returnsOnlyListedFields() {
+        FieldSelection selection = FieldSelection.parse("name, serialNumber", null, RackDto.class);
+
+        JsonNode json = serialize(selection);
+        assertFalse(selection.includesDevices());
+        assertEquals(2, json.size());
+        assertEquals("Rack A", json.get("name").asText());
+        assertEquals("RACK-A", json.get("serialNumber").asText());
+        assertEquals("\"7;name,serialNumber\"", selection.tag("\"7\""));
+    }
+
+    @Test
+    void parse_includeDevices_addsDevicesToListedFields() {
+        FieldSelection selection = FieldSelection.parse("serialNumber", "devices", RackDto.class);
+
+        JsonNode json = serialize(selection);
+        assertTrue(selection.includesDevices());
+        assertEquals(2, json.size());
+        assertEquals("DEV-1", json.get("devices").get(0).get("serialNumber").asText());
+    }
+
+    @Test
+    void parse_emptyInclude_returnsAllFieldsButDevices() {
+        FieldSelection selection = FieldSelection.parse(null, "", RackDto.class);
+
+        JsonNode json = serialize(selection);
+        assertFalse(selection.includesDevices());
+        assertFalse(json.has("devices"));
+        assertTrue(json.has("maxPower"));
+        assertEquals("\"7;*\"", selection.tag("\"7\""));
+    }
+
+    @Test
+    void parse_unknownFieldOrInclude_throwsException() {
+        assertThrows(InvalidFieldSelectionException.class, () -> FieldSelection.parse("name,color", null, RackDto.class));
+        assertThrows(InvalidFieldSelectionException.class, () -> FieldSelection.parse(null, "racks", RackDto.class));
+    }
+
+    private JsonNode serialize(FieldSelection selection) {
+        try {
+            return objectMapper.readTree(objectMapper.writer(selection.filterProvider()).writeValueAsString(RACK));
+        } catch (Exception e) {
+            throw new AssertionError(e);
+        }
+    }
+}
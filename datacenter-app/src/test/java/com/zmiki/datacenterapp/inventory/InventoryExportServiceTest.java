@@ -0,0 +1,96 @@
+package com.zmiki.datacenterapp.inventory;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class InventoryExportServiceTest {
+
+    @Mock
+    private InventoryExportRepository inventoryExportRepository;
+
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper();
+
+    @InjectMocks
+    private InventoryExportService inventoryExportService;
+
+    @BeforeEach
+    void setUp() {
+        doAnswer(invocation -> {
+            Consumer<InventoryExportRow> sink = invocation.getArgument(0);
+            sink.accept(InventoryExportRow.builder()
+                    .type(InventoryItemType.RACK)
+                    .serialNumber("RCK-1")
+                    .name("Rack 1")
+                    .units(42)
+                    .power(5000)
+                    .build());
+            return null;
+        }).when(inventoryExportRepository).forEachRack(any());
+        doAnswer(invocation -> {
+            Consumer<InventoryExportRow> sink = invocation.getArgument(0);
+            sink.accept(InventoryExportRow.builder()
+                    .type(InventoryItemType.DEVICE)
+                    .serialNumber("DEV-1")
+                    .name("Device 1")
+                    .units(2)
+                    .power(300)
+                    .rackSerialNumber("RCK-1")
+                    .build());
+            sink.accept(InventoryExportRow.builder()
+                    .type(InventoryItemType.DEVICE)
+                    .serialNumber("DEV-2")
+                    .name("Device 2")
+                    .units(1)
+                    .power(100)
+                    .build());
+            return null;
+        }).when(inventoryExportRepository).forEachDevice(any());
+    }
+
+    @Test
+    void export_writesOneJsonLinePerRackAndDevice() throws IOException {
+        String output = export(InventoryFormat.NDJSON);
+        String[] lines = output.split("\n");
+
+        assertTrue(output.endsWith("}\n"));
+        assertTrue(lines[1].startsWith("{"));
+        assertEquals(3, lines.length);
+        assertEquals(InventoryItemType.RACK, objectMapper.readValue(lines[0], InventoryExportRow.class).getType());
+        assertEquals(5000, objectMapper.readValue(lines[0], InventoryExportRow.class).getPower());
+        assertEquals("RCK-1", objectMapper.readValue(lines[1], InventoryExportRow.class).getRackSerialNumber());
+        assertNull(objectMapper.readValue(lines[2], InventoryExportRow.class).getRackSerialNumber());
+    }
+
+    @Test
+    void export_writesCsvWithHeader() throws IOException {
+        String[] lines = export(InventoryFormat.CSV).split("\n");
+
+        assertEquals("type,serialNumber,name,description,units,power,rackSerialNumber", lines[0]);
+        assertEquals("RACK,RCK-1,Rack 1,,42,5000,", lines[1].replace("\"", ""));
+        assertEquals("DEVICE,DEV-1,Device 1,,2,300,RCK-1", lines[2].replace("\"", ""));
+        assertEquals(4, lines.length);
+    }
+
+    private String export(InventoryFormat format) throws IOException {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        inventoryExportService.export(format, outputStream);
+        return outputStream.toString(StandardCharsets.UTF_8);
+    }
+}
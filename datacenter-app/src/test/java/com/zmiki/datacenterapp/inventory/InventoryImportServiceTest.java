@@ -0,0 +1,168 @@
+package com.zmiki.datacenterapp.inventory;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.zmiki.datacenterapp.bulk.BulkCreateResult;
+import com.zmiki.datacenterapp.bulk.BulkItemResult;
+import com.zmiki.datacenterapp.device.DeviceService;
+import com.zmiki.datacenterapp.device.dto.DeviceCreateDto;
+import com.zmiki.datacenterapp.rack.RackService;
+import com.zmiki.datacenterapp.rack.dto.RackCreateDto;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class InventoryImportServiceTest {
+
+    private static final int BATCH_SIZE = 2;
+
+    @Mock
+    private DeviceService deviceService;
+
+    @Mock
+    private RackService rackService;
+
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper();
+
+    @Spy
+    private InventoryImportProperties importProperties = new InventoryImportProperties();
+
+    @InjectMocks
+    private InventoryImportService inventoryImportService;
+
+    private final List<List<String>> writtenBatches = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        importProperties.setBatchSize(BATCH_SIZE);
+    }
+
+    @Test
+    void importDevices_writesNdjsonInBatches() {
+        stubDeviceWrites(List.of());
+
+        InventoryImportDto result = inventoryImportService.importDevices(ndjson(5), InventoryFormat.NDJSON, 0);
+
+        assertEquals(ImportStatus.COMPLETED, result.getStatus());
+        assertEquals(List.of(List.of("DEV-1", "DEV-2"), List.of("DEV-3", "DEV-4"), List.of("DEV-5")), writtenBatches);
+        assertEquals(5, result.getRecordsRead());
+        assertEquals(5, result.getCommittedOffset());
+        assertEquals(5, result.getCreated());
+    }
+
+    @Test
+    void importDevices_resumesAfterOffset() {
+        stubDeviceWrites(List.of());
+
+        InventoryImportDto result = inventoryImportService.importDevices(ndjson(5), InventoryFormat.NDJSON, 3);
+
+        assertEquals(ImportStatus.COMPLETED, result.getStatus());
+        assertEquals(List.of(List.of("DEV-4", "DEV-5")), writtenBatches);
+        assertEquals(3, result.getStartOffset());
+        assertEquals(5, result.getCommittedOffset());
+        assertEquals(2, result.getCreated());
+    }
+
+    @Test
+    void importDevices_malformedRecord_keepsCommittedBatches() {
+        stubDeviceWrites(List.of());
+        String body = ndjsonLines(3) + "{\"name\": \"broken\", \"power\": \"lots\"}\n" + ndjsonLines(1);
+
+        InventoryImportDto result = inventoryImportService.importDevices(stream(body), InventoryFormat.NDJSON, 0);
+
+        assertEquals(ImportStatus.FAILED, result.getStatus());
+        assertNotNull(result.getError());
+        assertEquals(List.of(List.of("DEV-1", "DEV-2")), writtenBatches);
+        assertEquals(2, result.getCommittedOffset());
+        assertEquals(ImportStatus.FAILED, inventoryImportService.getImport(result.getId()).getStatus());
+    }
+
+    @Test
+    void importDevices_reportsItemFailuresWithFilePosition() {
+        stubDeviceWrites(List.of("DEV-4"));
+
+        InventoryImportDto result = inventoryImportService.importDevices(ndjson(5), InventoryFormat.NDJSON, 0);
+
+        assertEquals(ImportStatus.COMPLETED, result.getStatus());
+        assertEquals(4, result.getCreated());
+        assertEquals(1, result.getFailed());
+        assertEquals(1, result.getFailures().size());
+        assertEquals(3, result.getFailures().get(0).getIndex());
+        assertEquals("DEV-4", result.getFailures().get(0).getSerialNumber());
+    }
+
+    @Test
+    void importRacks_readsCsvByHeader() {
+        List<RackCreateDto> written = new ArrayList<>();
+        when(rackService.createRacks(anyList())).thenAnswer(invocation -> {
+            List<RackCreateDto> batch = invocation.getArgument(0);
+            written.addAll(batch);
+            return createdAll(batch.stream().map(RackCreateDto::getSerialNumber).toList(), List.of());
+        });
+        String body = "serialNumber,name,description,unit,maxPower\n"
+                + "RCK-1,Rack 1,,42,5000\n"
+                + "RCK-2,Rack 2,Spare,20,3000\n";
+
+        InventoryImportDto result = inventoryImportService.importRacks(stream(body), InventoryFormat.CSV, 0);
+
+        assertEquals(ImportStatus.COMPLETED, result.getStatus());
+        assertEquals(2, written.size());
+        assertEquals("RCK-1", written.get(0).getSerialNumber());
+        assertEquals(42, written.get(0).getUnit());
+        assertEquals(3000, written.get(1).getMaxPower());
+        assertEquals("Spare", written.get(1).getDescription());
+        verifyNoInteractions(deviceService);
+    }
+
+    private void stubDeviceWrites(List<String> failingSerialNumbers) {
+        when(deviceService.createDevices(anyList())).thenAnswer(invocation -> {
+            List<DeviceCreateDto> batch = invocation.getArgument(0);
+            List<String> serialNumbers = batch.stream().map(DeviceCreateDto::getSerialNumber).toList();
+            writtenBatches.add(serialNumbers);
+            return createdAll(serialNumbers, failingSerialNumbers);
+        });
+    }
+
+    private static BulkCreateResult createdAll(List<String> serialNumbers, List<String> failingSerialNumbers) {
+        BulkItemResult[] items = new BulkItemResult[serialNumbers.size()];
+        for (int i = 0; i < items.length; i++) {
+            String serialNumber = serialNumbers.get(i);
+            items[i] = failingSerialNumbers.contains(serialNumber)
+                    ? BulkItemResult.failed(i, serialNumber, "Device with serial number " + serialNumber + " already exists")
+                    : BulkItemResult.created(i, serialNumber);
+        }
+        return BulkCreateResult.of(items);
+    }
+
+    private static InputStream ndjson(int records) {
+        return stream(ndjsonLines(records));
+    }
+
+    private static String ndjsonLines(int records) {
+        StringBuilder body = new StringBuilder();
+        for (int i = 1; i <= records; i++) {
+            body.append("{\"name\": \"Device ").append(i).append("\", \"serialNumber\": \"DEV-").append(i)
+                    .append("\", \"unit\": 1, \"power\": 100}\n");
+        }
+        return body.toString();
+    }
+
+    private static InputStream stream(String body) {
+        return new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8));
+    }
+}
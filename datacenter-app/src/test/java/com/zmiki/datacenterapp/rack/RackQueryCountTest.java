@@ -0,0 +1,111 @@
+package com.zmiki.datacenterapp.rack;
+
+import com.zmiki.datacenterapp.change.ChangeTracker;
+import com.zmiki.datacenterapp.device.Device;
+import com.zmiki.datacenterapp.device.DeviceConverter;
+import com.zmiki.datacenterapp.pagination.KeysetPage;
+import com.zmiki.datacenterapp.rack.dto.RackDto;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.validation.ValidationAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@ImportAutoConfiguration(ValidationAutoConfiguration.class)
+@Import({RackService.class, RackJdbcRepository.class, RackConverter.class, DeviceConverter.class})
+class RackQueryCountTest {
+
+    private static final int NUMBER_OF_RACKS = 10;
+    private static final int DEVICES_PER_RACK = 3;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private RackService rackService;
+
+    @MockitoBean
+    private ChangeTracker changeTracker;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        for (int r = 0; r < NUMBER_OF_RACKS; r++) {
+            Rack rack = entityManager.persist(Rack.builder()
+                    .name("Rack " + r)
+                    .serialNumber("RCK-" + r)
+                    .maxUnits(42)
+                    .maxPower(5000)
+                    .build());
+            for (int d = 0; d < DEVICES_PER_RACK; d++) {
+                entityManager.persist(Device.builder()
+                        .name("Device " + r + "-" + d)
+                        .serialNumber("DEV-" + r + "-" + d)
+                        .units(1)
+                        .power(100)
+                        .rack(rack)
+                        .build());
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void getAllRacks_loadsRacksAndDevicesWithOneQuery() {
+        List<RackDto> racks = rackService.getAllRacks();
+
+        assertThat(racks).hasSize(NUMBER_OF_RACKS);
+        assertThat(racks).allSatisfy(rack -> assertThat(rack.getDevices()).hasSize(DEVICES_PER_RACK));
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void getRack_loadsRackAndDevicesWithOneQuery() {
+        RackDto rack = rackService.getRack("RCK-0");
+
+        assertThat(rack.getDevices()).hasSize(DEVICES_PER_RACK);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void getAllRacksWithoutDevices_neverReadsDevices() {
+        List<RackDto> racks = rackService.getAllRacksWithoutDevices();
+
+        assertThat(racks).hasSize(NUMBER_OF_RACKS);
+        assertThat(racks).allSatisfy(rack -> assertThat(rack.getDevices()).isNull());
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        assertThat(statistics.getCollectionFetchCount()).isZero();
+    }
+
+    @Test
+    void getRacksPage_withoutDevices_skipsDeviceBatchLoading() {
+        KeysetPage<RackDto> page = rackService.getRacksPage(RackFilter.builder().build(), null, NUMBER_OF_RACKS, false);
+
+        assertThat(page.getItems()).hasSize(NUMBER_OF_RACKS);
+        assertThat(page.getItems()).allSatisfy(rack -> assertThat(rack.getDevices()).isNull());
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        assertThat(statistics.getCollectionFetchCount()).isZero();
+    }
+}
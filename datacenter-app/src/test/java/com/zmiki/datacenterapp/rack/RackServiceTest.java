@@ -1,15 +1,26 @@
 package com.zmiki.datacenterapp.rack;
 
+import com.zmiki.datacenterapp.bulk.BulkCreateResult;
+import com.zmiki.datacenterapp.bulk.BulkItemStatus;
+import com.zmiki.datacenterapp.change.ChangeOperation;
+import com.zmiki.datacenterapp.change.ChangeTracker;
 import com.zmiki.datacenterapp.device.Device;
+import com.zmiki.datacenterapp.inventory.InventoryItemType;
+import com.zmiki.datacenterapp.pagination.KeysetPage;
+import com.zmiki.datacenterapp.pagination.SerialNumberCursor;
 import com.zmiki.datacenterapp.rack.dto.RackCreateDto;
 import com.zmiki.datacenterapp.rack.dto.RackDto;
 import jakarta.persistence.EntityNotFoundException;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.jpa.domain.Specification;
 
 import java.util.*;
 
@@ -47,6 +58,15 @@ class RackServiceTest {
     @Mock
     private RackConverter rackConverter;
 
+    @Mock
+    private RackJdbcRepository rackJdbcRepository;
+
+    @Mock
+    private ChangeTracker changeTracker;
+
+    @Spy
+    private Validator validator = Validation.buildDefaultValidatorFactory().getValidator();
+
     @InjectMocks
     private RackService rackService;
 
@@ -101,6 +121,7 @@ class RackServiceTest {
         verify(rackConverter).fromCreateDto(rackCreateDto);
         verify(rackRepository).save(rack);
         verify(rackConverter).toDto(rack);
+        verify(changeTracker).recordChange(InventoryItemType.RACK, ChangeOperation.UPSERT, serialNumber);
     }
 
     @Test
@@ -157,6 +178,26 @@ class RackServiceTest {
         assertEquals(UPDATED_RACK_MAX_POWER, rack.getMaxPower());
     }
 
+    @Test
+    void updateRack_capacityBelowUsage_throwsException() {
+        rack.setUsedPower(TEST_RACK_2_MAX_POWER + 1);
+        RackDto updateDto = RackDto.builder()
+                .name(UPDATED_RACK_NAME)
+                .serialNumber(serialNumber)
+                .unit(TEST_RACK_SLOTS)
+                .maxPower(TEST_RACK_2_MAX_POWER)
+                .build();
+
+        when(rackRepository.findBySerialNumber(serialNumber)).thenReturn(Optional.of(rack));
+
+        IllegalArgumentException exception = assertThrows(
+                IllegalArgumentException.class,
+                () -> rackService.updateRack(serialNumber, updateDto)
+        );
+        assertEquals("Rack capacity cannot be lowered below the capacity its devices use", exception.getMessage());
+        verify(rackRepository, never()).save(any());
+    }
+
     @Test
     void updateRack_serialNumberMismatch_throwsException() {
         RackDto updateDto = RackDto.builder()
@@ -211,7 +252,7 @@ class RackServiceTest {
         assertEquals(RACK_NOT_FOUND_MESSAGE, exception.getMessage());
 
         verify(rackRepository).findBySerialNumber(serialNumber);
-        verify(rackRepository, never()).delete(any());
+        verify(rackRepository, never()).delete(any(Rack.class));
     }
 
     @Test
@@ -232,25 +273,26 @@ class RackServiceTest {
         assertEquals(CANNOT_DELETE_WITH_DEVICES_MESSAGE, exception.getMessage());
 
         verify(rackRepository).findBySerialNumber(serialNumber);
-        verify(rackRepository, never()).delete(any());
+        verify(rackRepository, never()).delete(any(Rack.class));
     }
 
     @Test
     void getRack_successfully() {
-        when(rackRepository.findBySerialNumber(serialNumber)).thenReturn(Optional.of(rack));
-        when(rackConverter.toDto(rack)).thenReturn(rackDto);
+        List<RackDeviceRow> rows = List.of(rackDeviceRow(rack));
+        when(rackRepository.findRackDeviceRowsBySerialNumber(serialNumber)).thenReturn(rows);
+        when(rackConverter.toDtos(rows)).thenReturn(List.of(rackDto));
 
         RackDto result = rackService.getRack(serialNumber);
 
         assertNotNull(result);
         assertEquals(rackDto, result);
-        verify(rackRepository).findBySerialNumber(serialNumber);
-        verify(rackConverter).toDto(rack);
+        verify(rackRepository).findRackDeviceRowsBySerialNumber(serialNumber);
+        verify(rackRepository, never()).findBySerialNumber(any());
     }
 
     @Test
     void getRack_rackNotFound_throwsException() {
-        when(rackRepository.findBySerialNumber(serialNumber)).thenReturn(Optional.empty());
+        when(rackRepository.findRackDeviceRowsBySerialNumber(serialNumber)).thenReturn(Collections.emptyList());
 
         EntityNotFoundException exception = assertThrows(
                 EntityNotFoundException.class,
@@ -258,8 +300,8 @@ class RackServiceTest {
         );
         assertEquals(RACK_NOT_FOUND_MESSAGE, exception.getMessage());
 
-        verify(rackRepository).findBySerialNumber(serialNumber);
-        verify(rackConverter, never()).toDto(any());
+        verify(rackRepository).findRackDeviceRowsBySerialNumber(serialNumber);
+        verify(rackConverter, never()).toDtos(any());
     }
 
     @Test
@@ -282,34 +324,135 @@ class RackServiceTest {
                 .devices(new ArrayList<>())
                 .build();
 
-        List<Rack> racks = Arrays.asList(rack, rack2);
+        List<RackDeviceRow> rows = Arrays.asList(rackDeviceRow(rack), rackDeviceRow(rack2));
         List<RackDto> expectedDtos = Arrays.asList(rackDto, rackDto2);
 
-        when(rackRepository.findAll()).thenReturn(racks);
-        when(rackConverter.toDto(rack)).thenReturn(rackDto);
-        when(rackConverter.toDto(rack2)).thenReturn(rackDto2);
+        when(rackRepository.findAllRackDeviceRows()).thenReturn(rows);
+        when(rackConverter.toDtos(rows)).thenReturn(expectedDtos);
 
         List<RackDto> result = rackService.getAllRacks();
 
         assertNotNull(result);
         assertEquals(EXPECTED_RACK_COUNT, result.size());
         assertEquals(expectedDtos, result);
-        verify(rackRepository).findAll();
-        verify(rackConverter).toDto(rack);
-        verify(rackConverter).toDto(rack2);
+        verify(rackRepository).findAllRackDeviceRows();
+        verify(rackRepository, never()).findAll();
+        verify(rackConverter, never()).toDto(any());
+    }
+
+    @Test
+    void getAllRacksWithoutDevices_selectsRacksOnly() {
+        List<RackDeviceRow> rows = List.of(rackDeviceRow(rack));
+        when(rackRepository.findAllRackRows()).thenReturn(rows);
+        when(rackConverter.toDtos(rows, false)).thenReturn(List.of(rackDto));
+
+        assertEquals(List.of(rackDto), rackService.getAllRacksWithoutDevices());
+        verify(rackRepository, never()).findAllRackDeviceRows();
+    }
+
+    @Test
+    void getRackWithoutDevices_rackNotFound_throwsException() {
+        when(rackRepository.findRackRowBySerialNumber(serialNumber)).thenReturn(Optional.empty());
+
+        EntityNotFoundException exception = assertThrows(EntityNotFoundException.class,
+                () -> rackService.getRackWithoutDevices(serialNumber));
+        assertEquals(RACK_NOT_FOUND_MESSAGE, exception.getMessage());
+        verify(rackRepository, never()).findRackDeviceRowsBySerialNumber(any());
     }
 
     @Test
     void getAllRacks_emptyList_returnsEmptyList() {
-        when(rackRepository.findAll()).thenReturn(Collections.emptyList());
+        when(rackRepository.findAllRackDeviceRows()).thenReturn(Collections.emptyList());
+        when(rackConverter.toDtos(Collections.emptyList())).thenReturn(Collections.emptyList());
 
         List<RackDto> result = rackService.getAllRacks();
 
         assertNotNull(result);
         assertTrue(result.isEmpty());
-        verify(rackRepository).findAll();
+        verify(rackRepository).findAllRackDeviceRows();
         verify(rackConverter, never()).toDto(any());
     }
-}
 
+    @Test
+    void getRacksBySerialNumbers_dropsDuplicatesWithOneQuery() {
+        when(rackRepository.findAllBySerialNumberIn(List.of(serialNumber))).thenReturn(List.of(rack));
+
+        List<Rack> result = rackService.getRacksBySerialNumbers(Arrays.asList(serialNumber, serialNumber));
+
+        assertEquals(List.of(rack), result);
+        verify(rackRepository).findAllBySerialNumberIn(any());
+        verify(rackRepository, never()).findBySerialNumber(any());
+    }
+
+    @Test
+    void getRacksBySerialNumbers_reportsAllMissingSerialNumbers() {
+        when(rackRepository.findAllBySerialNumberIn(any())).thenReturn(List.of(rack));
+
+        List<String> serialNumbers = Arrays.asList(TEST_RACK_2_SERIAL, serialNumber, DIFFERENT_SERIAL);
+        EntityNotFoundException exception = assertThrows(EntityNotFoundException.class,
+                () -> rackService.getRacksBySerialNumbers(serialNumbers));
+
+        assertEquals("Racks not found: [" + TEST_RACK_2_SERIAL + ", " + DIFFERENT_SERIAL + "]", exception.getMessage());
+    }
+
+    @Test
+    void getRacksPage_returnsCursorOfLastItemWhenMoreRowsExist() {
+        Rack rack2 = Rack.builder().serialNumber(TEST_RACK_2_SERIAL).devices(new ArrayList<>()).build();
+        when(rackRepository.findBy(any(Specification.class), any())).thenReturn(List.of(rack, rack2));
+        when(rackConverter.toDto(rack, true)).thenReturn(rackDto);
+
+        KeysetPage<RackDto> page = rackService.getRacksPage(RackFilter.builder().minFreeUnits(1).build(), null, 1, true);
+
+        assertEquals(List.of(rackDto), page.getItems());
+        assertEquals(serialNumber, SerialNumberCursor.decode(page.getNextCursor()));
+        verify(rackConverter, never()).toDto(eq(rack2), anyBoolean());
+    }
+
+    @Test
+    void getRacksPage_withoutDevices_convertsRacksWithoutDevices() {
+        when(rackRepository.findBy(any(Specification.class), any())).thenReturn(List.of(rack));
+        when(rackConverter.toDto(rack, false)).thenReturn(rackDto);
+
+        KeysetPage<RackDto> page = rackService.getRacksPage(RackFilter.builder().build(), null, 1, false);
+
+        assertEquals(List.of(rackDto), page.getItems());
+        verify(rackConverter, never()).toDto(rack);
+    }
+
+    @Test
+    void createRacks_skipsExistingSerialNumbers() {
+        RackCreateDto rackCreateDto2 = RackCreateDto.builder()
+                .name(TEST_RACK_2_NAME)
+                .serialNumber(TEST_RACK_2_SERIAL)
+                .unit(TEST_RACK_2_SLOTS)
+                .maxPower(TEST_RACK_2_MAX_POWER)
+                .build();
+
+        when(rackJdbcRepository.findExistingSerialNumbers(any())).thenReturn(List.of(serialNumber));
+        when(rackConverter.fromCreateDto(rackCreateDto2)).thenReturn(Rack.builder().serialNumber(TEST_RACK_2_SERIAL).build());
+
+        BulkCreateResult result = rackService.createRacks(Arrays.asList(rackCreateDto, rackCreateDto2));
+
+        assertEquals(1, result.getCreated());
+        assertEquals(BulkItemStatus.FAILED, result.getItems().get(0).getStatus());
+        assertEquals(DUPLICATE_SERIAL_MESSAGE, result.getItems().get(0).getMessage());
+        assertEquals(BulkItemStatus.CREATED, result.getItems().get(1).getStatus());
+        verify(rackJdbcRepository).insertAll(argThat(racks -> racks.size() == 1 && racks.get(0).getId() != null));
+    }
+
+    @Test
+    void repairUsage_reportsRepairedRacks() {
+        List<String> repaired = List.of("RACK-1", "RACK-2", "RACK-3");
+        when(rackJdbcRepository.recomputeUsage()).thenReturn(repaired);
+
+        assertEquals(3, rackService.repairUsage().getRacksRepaired());
+        verify(rackJdbcRepository).recomputeUsage();
+        verify(changeTracker).recordChanges(InventoryItemType.RACK, ChangeOperation.UPSERT, repaired);
+    }
 
+    private static RackDeviceRow rackDeviceRow(Rack rack) {
+        return new RackDeviceRow(rack.getId(), rack.getName(), rack.getDescription(), rack.getSerialNumber(),
+                rack.getMaxUnits(), rack.getMaxPower(), rack.getUsedUnits(), rack.getUsedPower(),
+                null, null, null, null, null, null);
+    }
+}
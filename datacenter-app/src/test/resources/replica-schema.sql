@@ -0,0 +1,41 @@
+CREATE TABLE rack (
+    id UUID PRIMARY KEY,
+    name VARCHAR(120) NOT NULL,
+    description VARCHAR(255),
+    serial_number VARCHAR(255) NOT NULL UNIQUE,
+    max_units INTEGER NOT NULL,
+    max_power INTEGER NOT NULL,
+    used_power INTEGER NOT NULL DEFAULT 0,
+    used_units INTEGER NOT NULL DEFAULT 0,
+    version BIGINT NOT NULL DEFAULT 0
+);
+
+CREATE TABLE device (
+    id UUID PRIMARY KEY,
+    name VARCHAR(255) NOT NULL,
+    description VARCHAR(255),
+    serial_number VARCHAR(255) NOT NULL UNIQUE,
+    units INTEGER NOT NULL,
+    power INTEGER NOT NULL,
+    rack_id UUID REFERENCES rack (id)
+);
+
+CREATE INDEX idx_device_rack_id ON device (rack_id);
+
+CREATE TABLE change_counter (
+    item_type VARCHAR(20) PRIMARY KEY,
+    value BIGINT NOT NULL
+);
+
+CREATE SEQUENCE change_log_seq START WITH 1 INCREMENT BY 1;
+
+CREATE TABLE change_log (
+    seq BIGINT PRIMARY KEY,
+    txid BIGINT NOT NULL,
+    item_type VARCHAR(20) NOT NULL,
+    serial_number VARCHAR(255) NOT NULL,
+    operation VARCHAR(20) NOT NULL,
+    changed_at TIMESTAMP(6) WITH TIME ZONE NOT NULL
+);
+
+CREATE INDEX idx_change_log_position ON change_log (txid, seq);